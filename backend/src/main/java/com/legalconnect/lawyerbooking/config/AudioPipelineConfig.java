@@ -0,0 +1,120 @@
+package com.legalconnect.lawyerbooking.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * AUDIO PIPELINE CONFIGURATION
+ *
+ * PURPOSE: Dedicated thread pools for audio processing
+ * - audioJobExecutor: runs whole upload jobs off the servlet threads
+ * - audioStageExecutor: runs the AI stages of each job
+ * - audioSegmentExecutor: transcribes segments of long recordings in parallel
+ * - textChunkExecutor: masks / translates chunks of long transcripts in parallel
+ *   (separate from the stage pool so a stage never waits on its own pool)
+ * - ttsChunkExecutor: synthesizes sentence chunks of a transcript in parallel
+ *
+ * SIZING:
+ * - Stages are remote-call bound (OpenAI), so threads mostly wait on I/O
+ * - Bounded queue keeps a burst of uploads from growing memory without limit
+ * - Stage pool: when saturated the submitting thread runs the stage itself
+ * - Job pool: when the queue is full new uploads are rejected (HTTP 503)
+ */
+@Configuration
+public class AudioPipelineConfig {
+
+    @Value("${audio.pipeline.stage-threads:8}")
+    private int stageThreads;
+
+    @Value("${audio.pipeline.stage-queue-capacity:100}")
+    private int stageQueueCapacity;
+
+    @Value("${audio.whisper.segment-threads:4}")
+    private int segmentThreads;
+
+    @Value("${audio.pipeline.chunk-threads:4}")
+    private int chunkThreads;
+
+    @Value("${audio.tts.chunk-threads:4}")
+    private int ttsChunkThreads;
+
+    @Value("${audio.jobs.worker-threads:4}")
+    private int jobWorkerThreads;
+
+    @Value("${audio.jobs.queue-capacity:50}")
+    private int jobQueueCapacity;
+
+    @Bean(name = "audioJobExecutor")
+    public ThreadPoolTaskExecutor audioJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(jobWorkerThreads);
+        executor.setMaxPoolSize(jobWorkerThreads);
+        executor.setQueueCapacity(jobQueueCapacity);
+        executor.setThreadNamePrefix("audio-job-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "audioStageExecutor")
+    public ThreadPoolTaskExecutor audioStageExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(stageThreads);
+        executor.setMaxPoolSize(stageThreads);
+        executor.setQueueCapacity(stageQueueCapacity);
+        executor.setThreadNamePrefix("audio-stage-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "audioSegmentExecutor")
+    public ThreadPoolTaskExecutor audioSegmentExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(segmentThreads);
+        executor.setMaxPoolSize(segmentThreads);
+        executor.setQueueCapacity(stageQueueCapacity);
+        executor.setThreadNamePrefix("audio-segment-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "textChunkExecutor")
+    public ThreadPoolTaskExecutor textChunkExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(chunkThreads);
+        executor.setMaxPoolSize(chunkThreads);
+        executor.setQueueCapacity(stageQueueCapacity);
+        executor.setThreadNamePrefix("text-chunk-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "ttsChunkExecutor")
+    public ThreadPoolTaskExecutor ttsChunkExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(ttsChunkThreads);
+        executor.setMaxPoolSize(ttsChunkThreads);
+        executor.setQueueCapacity(stageQueueCapacity);
+        executor.setThreadNamePrefix("tts-chunk-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,34 +1,126 @@
 package com.legalconnect.lawyerbooking.config;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.MessageHeaderAccessor;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.messaging.simp.stomp.StompCommand;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import java.util.Collections;
 import com.legalconnect.lawyerbooking.util.JwtUtil;
+import com.legalconnect.lawyerbooking.security.JwtClaims;
+import com.legalconnect.lawyerbooking.security.StompAuthentication;
+import com.legalconnect.lawyerbooking.security.TokenRevocationService;
 import com.legalconnect.lawyerbooking.security.UserPrincipal;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
+/**
+ * WEBSOCKET / STOMP CONFIGURATION
+ *
+ * BROKER MODES (websocket.broker.mode):
+ * - simple (default): in-memory broker; broadcasts only reach clients on this node.
+ *   Also the local stand-in for development and tests
+ * - relay: /topic and /queue are relayed to an external STOMP broker (ActiveMQ Artemis,
+ *   RabbitMQ with the STOMP plugin, ...), so /topic/case/* and /topic/lawyer/* broadcasts
+ *   and user destinations reach clients on every node behind the load balancer.
+ *   Needs reactor-netty on the classpath: build with -Pbroker-relay
+ *
+ * PER-USER PUSHES:
+ * - A CONNECT frame with "Authorization: Bearer {jwt}" authenticates the session as
+ *   StompAuthentication ("{userType}:{userId}"); connecting without a token stays allowed
+ *   for the case chat topics
+ * - Private data (unread counts, audio job status) goes to /user/queue/*, which only the
+ *   authenticated session of that account can subscribe to
+ * - Clients may only SEND to /app and may not SUBSCRIBE to /queue directly or to
+ *   server-internal topics (INTERNAL_TOPICS)
+ *
+ * RELAY SETTINGS (websocket.broker.relay.*):
+ * - host / port / virtual-host: broker address
+ * - client-login / client-passcode: credentials for client sessions
+ * - system-login / system-passcode: credentials for the shared session used by server-side sends
+ * - heartbeat-send-ms / heartbeat-receive-ms: system session heartbeats
+ */
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private static final Logger logger = LoggerFactory.getLogger(WebSocketConfig.class);
+
+    /** Topics only the server publishes to and reads from */
+    public static final String[] INTERNAL_TOPICS = {
+            "/topic/unread-deltas", "/topic/unresolved-user", "/topic/simp-user-registry"
+    };
+
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private TokenRevocationService revocationService;
+
+    @Value("${websocket.broker.mode:simple}")
+    private String brokerMode;
+
+    @Value("${websocket.broker.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${websocket.broker.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${websocket.broker.relay.virtual-host:}")
+    private String relayVirtualHost;
+
+    @Value("${websocket.broker.relay.client-login:guest}")
+    private String relayClientLogin;
+
+    @Value("${websocket.broker.relay.client-passcode:guest}")
+    private String relayClientPasscode;
+
+    @Value("${websocket.broker.relay.system-login:guest}")
+    private String relaySystemLogin;
+
+    @Value("${websocket.broker.relay.system-passcode:guest}")
+    private String relaySystemPasscode;
+
+    @Value("${websocket.broker.relay.heartbeat-send-ms:10000}")
+    private long relayHeartbeatSendMs;
+
+    @Value("${websocket.broker.relay.heartbeat-receive-ms:10000}")
+    private long relayHeartbeatReceiveMs;
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic");
+        if ("relay".equalsIgnoreCase(brokerMode)) {
+            StompBrokerRelayRegistration relay = config.enableStompBrokerRelay("/topic", "/queue")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayClientLogin)
+                    .setClientPasscode(relayClientPasscode)
+                    .setSystemLogin(relaySystemLogin)
+                    .setSystemPasscode(relaySystemPasscode)
+                    .setSystemHeartbeatSendInterval(relayHeartbeatSendMs)
+                    .setSystemHeartbeatReceiveInterval(relayHeartbeatReceiveMs)
+                    // Let a push to a user reach their session on whichever node holds it
+                    .setUserDestinationBroadcast("/topic/unresolved-user")
+                    .setUserRegistryBroadcast("/topic/simp-user-registry");
+            if (!relayVirtualHost.isEmpty()) {
+                relay.setVirtualHost(relayVirtualHost);
+            }
+            logger.info("STOMP broker relay enabled: {}:{}", relayHost, relayPort);
+        } else if ("simple".equalsIgnoreCase(brokerMode)) {
+            config.enableSimpleBroker("/topic", "/queue");
+        } else {
+            throw new IllegalStateException("Unknown websocket.broker.mode: " + brokerMode + " (expected simple or relay)");
+        }
         config.setApplicationDestinationPrefixes("/app");
     }
 
@@ -39,5 +131,70 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
                 .withSockJS();
     }
 
-    // No longer using ChannelInterceptor for JWT as we are passing senderId in payload
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(new ChannelInterceptor() {
+            @Override
+            public Message<?> preSend(Message<?> message, MessageChannel channel) {
+                StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+                if (accessor == null || accessor.getCommand() == null) {
+                    return message;
+                }
+                String destination = accessor.getDestination();
+                switch (accessor.getCommand()) {
+                    case CONNECT:
+                        authenticate(accessor);
+                        break;
+                    case SUBSCRIBE:
+                        checkSubscribe(accessor, destination);
+                        break;
+                    case SEND:
+                        if (destination == null || !destination.startsWith("/app/")) {
+                            throw new MessageDeliveryException("Clients may only send to /app destinations");
+                        }
+                        break;
+                    default:
+                        break;
+                }
+                return message;
+            }
+        });
+    }
+
+    private void authenticate(StompHeaderAccessor accessor) {
+        String header = accessor.getFirstNativeHeader("Authorization");
+        if (header == null || !header.startsWith("Bearer ")) {
+            return;
+        }
+        String token = header.substring(7);
+        JwtClaims claims;
+        try {
+            claims = jwtUtil.parseToken(token);
+        } catch (Exception e) {
+            throw new MessageDeliveryException("Invalid token");
+        }
+        UserPrincipal principal = claims.toPrincipal();
+        if (claims.isExpired() || principal.getUserId() == null || principal.getUserType() == null
+                || revocationService.isRevoked(token, principal, claims.getIssuedAt())) {
+            throw new MessageDeliveryException("Invalid token");
+        }
+        accessor.setUser(new StompAuthentication(principal));
+    }
+
+    private void checkSubscribe(StompHeaderAccessor accessor, String destination) {
+        if (destination == null) {
+            throw new MessageDeliveryException("Missing destination");
+        }
+        if (destination.startsWith("/user/") && !(accessor.getUser() instanceof StompAuthentication)) {
+            throw new MessageDeliveryException("Authenticate the connection to subscribe to " + destination);
+        }
+        if (destination.startsWith("/queue/")) {
+            throw new MessageDeliveryException("Subscribe to /user/queue/... instead of " + destination);
+        }
+        for (String topic : INTERNAL_TOPICS) {
+            if (destination.startsWith(topic)) {
+                throw new MessageDeliveryException("Not allowed to subscribe to " + destination);
+            }
+        }
+    }
 }
@@ -17,19 +17,27 @@ import com.legalconnect.lawyerbooking.entity.Admin;
 import com.legalconnect.lawyerbooking.entity.User;
 import com.legalconnect.lawyerbooking.entity.Lawyer;
 import com.legalconnect.lawyerbooking.entity.Case;
+import com.legalconnect.lawyerbooking.security.TokenRevocationService;
+import com.legalconnect.lawyerbooking.service.AudioBlobService;
+import com.legalconnect.lawyerbooking.service.AuthorizationService;
+import com.legalconnect.lawyerbooking.service.CaseClassificationService;
 import com.legalconnect.lawyerbooking.service.PasswordService;
+import com.legalconnect.lawyerbooking.service.StageResultCache;
 import com.legalconnect.lawyerbooking.util.JwtUtil;
 
 import java.util.Optional;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.List;
+import java.util.ArrayList;
 
 @RestController
 @RequestMapping("/api/admin")
 @CrossOrigin(origins = "*")
 public class AdminController {
 
+    private static final int MAX_RECLASSIFY_BATCH = 500;
+
     @Autowired
     private AdminRepository adminRepository;
 
@@ -48,6 +56,21 @@ public class AdminController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private TokenRevocationService revocationService;
+
+    @Autowired
+    private CaseClassificationService classificationService;
+
+    @Autowired
+    private AudioBlobService audioBlobService;
+
+    @Autowired
+    private StageResultCache stageResultCache;
+
+    @Autowired
+    private AuthorizationService authorizationService;
+
     // Admin Login
     @PostMapping("/login")
     public ResponseEntity<LoginResponse> adminLogin(@RequestBody LoginRequest request) {
@@ -172,6 +195,8 @@ public class AdminController {
                 return ResponseEntity.notFound().build();
             }
             userRepository.deleteById(id);
+            revocationService.revokeUser("user", id);
+            stageResultCache.purgeOwner(id);
             Map<String, String> response = new HashMap<>();
             response.put("message", "User deleted successfully");
             return ResponseEntity.ok(response);
@@ -237,6 +262,7 @@ public class AdminController {
                 return ResponseEntity.notFound().build();
             }
             lawyerRepository.deleteById(id);
+            revocationService.revokeUser("lawyer", id);
             Map<String, String> response = new HashMap<>();
             response.put("message", "Lawyer deleted successfully");
             return ResponseEntity.ok(response);
@@ -333,4 +359,100 @@ public class AdminController {
             return ResponseEntity.status(500).body(null);
         }
     }
+
+    // Classify many descriptions at once (backfills, testing)
+    @PostMapping("/classify/batch")
+    public ResponseEntity<Map<String, Object>> classifyBatch(@RequestBody Map<String, List<String>> request) {
+        authorizationService.verifyAdmin();
+        List<String> descriptions = request.get("descriptions");
+        if (descriptions == null || descriptions.isEmpty()) {
+            return ResponseEntity.badRequest().body(null);
+        }
+        try {
+            long start = System.currentTimeMillis();
+            List<String> categories = classificationService.classifyBatch(descriptions);
+            long elapsed = Math.max(1, System.currentTimeMillis() - start);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("categories", categories);
+            response.put("count", categories.size());
+            response.put("elapsedMillis", elapsed);
+            response.put("casesPerSecond", categories.size() * 1000.0 / elapsed);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            System.err.println("Error in batch classification: " + e.getMessage());
+            return ResponseEntity.status(500).body(null);
+        }
+    }
+
+    // Reclassify one batch of existing cases, walking them in id order: pass the returned
+    // nextAfterId back as afterId until it is null. Only auto-classified or blank categories
+    // are touched; a category the client picked is never overwritten. Cases already assigned
+    // to a lawyer keep their category (the lawyer was matched on it) unless includeAssigned=true.
+    @PostMapping("/cases/reclassify")
+    public ResponseEntity<Map<String, Object>> reclassifyCases(
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(defaultValue = "100") int size,
+            @RequestParam(defaultValue = "false") boolean includeAssigned) {
+        authorizationService.verifyAdmin();
+        try {
+            long start = System.currentTimeMillis();
+            int limit = Math.max(1, Math.min(size, MAX_RECLASSIFY_BATCH));
+            List<Case> candidates = caseRepository.findReclassifiable(afterId, includeAssigned, PageRequest.of(0, limit));
+
+            List<String> descriptions = new ArrayList<>();
+            for (Case caseEntity : candidates) {
+                descriptions.add(caseEntity.getDescription());
+            }
+            List<String> categories = classificationService.classifyBatch(descriptions);
+
+            List<Case> changed = new ArrayList<>();
+            for (int i = 0; i < candidates.size(); i++) {
+                Case caseEntity = candidates.get(i);
+                if (!categories.get(i).equals(caseEntity.getCaseCategory())) {
+                    caseEntity.setCaseCategory(categories.get(i));
+                    caseEntity.setCategoryAuto(true);
+                    changed.add(caseEntity);
+                }
+            }
+            caseRepository.saveAll(changed);
+            long elapsed = Math.max(1, System.currentTimeMillis() - start);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("afterId", afterId);
+            response.put("nextAfterId", candidates.size() < limit ? null : candidates.get(candidates.size() - 1).getId());
+            response.put("processed", descriptions.size());
+            response.put("updated", changed.size());
+            response.put("elapsedMillis", elapsed);
+            response.put("casesPerSecond", descriptions.size() * 1000.0 / elapsed);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            System.err.println("Error reclassifying cases: " + e.getMessage());
+            return ResponseEntity.status(500).body(null);
+        }
+    }
+
+    /**
+     * Move one batch of client_audio LONGBLOBs into the configured audio blob store.
+     * Pass the returned nextAfterId as afterId until it comes back null.
+     */
+    @PostMapping("/audio/migrate-blobs")
+    public ResponseEntity<Map<String, Object>> migrateAudioBlobs(
+            @RequestParam(defaultValue = "0") long afterId,
+            @RequestParam(defaultValue = "50") int batchSize) {
+        authorizationService.verifyAdmin();
+        try {
+            long start = System.currentTimeMillis();
+            Map<String, Object> response = new HashMap<>(audioBlobService.migrateBatch(afterId, batchSize));
+            response.put("elapsedMillis", System.currentTimeMillis() - start);
+            return ResponseEntity.ok(response);
+        } catch (IllegalStateException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("error", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        } catch (Exception e) {
+            System.err.println("Error migrating audio blobs: " + e.getMessage());
+            return ResponseEntity.status(500).body(null);
+        }
+    }
 }
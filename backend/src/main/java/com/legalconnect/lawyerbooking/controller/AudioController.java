@@ -1,31 +1,65 @@
 package com.legalconnect.lawyerbooking.controller;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.core.task.TaskRejectedException;
 
-import com.legalconnect.lawyerbooking.service.AudioProcessingService;
+import com.legalconnect.lawyerbooking.service.AudioBlobService;
+import com.legalconnect.lawyerbooking.service.AudioJobService;
+import com.legalconnect.lawyerbooking.service.AudioStreamService;
 import com.legalconnect.lawyerbooking.repository.ClientAudioRepository;
 import com.legalconnect.lawyerbooking.entity.ClientAudio;
+import com.legalconnect.lawyerbooking.dto.AudioJobDTO;
 import com.legalconnect.lawyerbooking.dto.ClientAudioDTO;
+import com.legalconnect.lawyerbooking.dto.ClientAudioPageResponse;
+import com.legalconnect.lawyerbooking.dto.ClientAudioSummaryDTO;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/audio")
 @CrossOrigin(origins = "*")
 public class AudioController {
 
+    private static final Logger logger = LoggerFactory.getLogger(AudioController.class);
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final MediaType AUDIO_MPEG = MediaType.parseMediaType("audio/mpeg");
+
     @Autowired
-    private AudioProcessingService audioService;
+    private AudioJobService audioJobService;
 
     @Autowired
     private ClientAudioRepository repository;
 
+    @Autowired
+    private AudioStreamService audioStreamService;
+
+    @Autowired
+    private AudioBlobService audioBlobService;
+
+    @Value("${audio.stream.cache-max-age-seconds:86400}")
+    private long audioCacheMaxAgeSeconds;
+
     @Autowired
     private com.legalconnect.lawyerbooking.service.CaseService caseService;
 
@@ -56,29 +90,15 @@ public class AudioController {
                     .body("{\"error\": \"File size exceeds 20MB limit.\"}");
             }
 
-            // Using the refactored, robust method from AudioProcessingService
-            ClientAudio saved = audioService.processAndCreateCase(file, userId, caseTitle);
-            
-            // Convert to DTO to include masked audio as Base64
-            ClientAudioDTO dto = new ClientAudioDTO(
-                saved.getId(),
-                saved.getLanguage(),
-                saved.getOriginalEnglishText(),
-                saved.getMaskedEnglishText(),
-                saved.getMaskedTextAudio(),
-                saved.getMaskedGujaratiText(),
-                saved.getMaskedGujaratiAudio(),
-                saved.getUserId(),
-                saved.getCaseId(),
-                saved.getLawyerId()
-            );
-            
-            System.out.println("Returning DTO with masked audio: " + 
-                (dto.getMaskedTextAudioBase64() != null ? 
-                    dto.getMaskedTextAudioBase64().length() + " characters (base64)" : "null"));
-            
-            return ResponseEntity.ok(dto);
+            // Hand off to a background worker; the client polls the job or listens on
+            // /user/queue/audio-jobs (authenticated STOMP session) for completion
+            AudioJobDTO job = audioJobService.submit(file, userId, caseTitle);
+            return ResponseEntity.status(202).body(job);
 
+        } catch (TaskRejectedException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Audio processing queue is full. Please try again in a few minutes.");
+            return ResponseEntity.status(503).header("Retry-After", "60").body(errorResponse);
         } catch (RuntimeException e) {
             System.err.println("Error processing audio: " + e.getMessage());
             e.printStackTrace();
@@ -106,37 +126,108 @@ public class AudioController {
         }
     }
 
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<AudioJobDTO> getJobStatus(@PathVariable String jobId) {
+        return ResponseEntity.ok(audioJobService.getJob(jobId));
+    }
+
+    /**
+     * Paginated listing, newest first. Metadata and text previews only; audio is
+     * streamed per record by the .mp3 endpoints below.
+     */
     @GetMapping("/all")
-    public ResponseEntity<List<ClientAudioDTO>> getAllRecords() {
-        List<ClientAudio> records = repository.findAll();
-        System.out.println("Fetching all records, count: " + records.size());
-        
-        List<ClientAudioDTO> dtos = records.stream()
-            .map(record -> {
-                System.out.println("Processing record ID: " + record.getId() + 
-                    ", English masked audio: " + (record.getMaskedTextAudio() != null ? 
-                        record.getMaskedTextAudio().length + " bytes" : "null") +
-                    ", Gujarati masked audio: " + (record.getMaskedGujaratiAudio() != null ? 
-                        record.getMaskedGujaratiAudio().length + " bytes" : "null"));
-                return new ClientAudioDTO(
-                    record.getId(),
-                    record.getLanguage(),
-                    record.getOriginalEnglishText(),
-                    record.getMaskedEnglishText(),
-                    record.getMaskedTextAudio(),
-                    record.getMaskedGujaratiText(),
-                    record.getMaskedGujaratiAudio(),
-                    record.getUserId(),
-                    record.getCaseId(),
-                    record.getLawyerId()
-                );
-            })
-            .collect(Collectors.toList());
-        return ResponseEntity.ok(dtos);
+    public ResponseEntity<ClientAudioPageResponse> getAllRecords(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        PageRequest pageRequest = PageRequest.of(Math.max(0, page), Math.max(1, Math.min(size, MAX_PAGE_SIZE)),
+            Sort.by(Sort.Direction.DESC, "id"));
+        Page<ClientAudioSummaryDTO> records = repository.findSummaries(pageRequest);
+        logger.debug("Fetching records page {}, count: {}", page, records.getNumberOfElements());
+
+        return ResponseEntity.ok(new ClientAudioPageResponse(
+            records.getContent(),
+            records.getNumber(),
+            records.getTotalPages(),
+            records.getTotalElements(),
+            records.getSize()
+        ));
+    }
+
+    /**
+     * Synthesized audio as a binary stream with Range (seeking), ETag and Cache-Control support
+     */
+    @GetMapping("/{id}/english.mp3")
+    public ResponseEntity<StreamingResponseBody> getEnglishAudio(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) throws IOException {
+        return streamAudio(id, "english", range, ifRange, ifNoneMatch);
     }
-    
+
+    @GetMapping("/{id}/gujarati.mp3")
+    public ResponseEntity<StreamingResponseBody> getGujaratiAudio(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) throws IOException {
+        return streamAudio(id, "gujarati", range, ifRange, ifNoneMatch);
+    }
+
+    private ResponseEntity<StreamingResponseBody> streamAudio(Long id, String language,
+                                                              String range, String ifRange, String ifNoneMatch) throws IOException {
+        AudioStreamService.AudioInfo info = audioStreamService.getInfo(id, language).orElse(null);
+        if (info == null) {
+            return ResponseEntity.notFound().build();
+        }
+        long length = info.getLength();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(info.getEtag());
+        headers.setCacheControl(CacheControl.maxAge(audioCacheMaxAgeSeconds, TimeUnit.SECONDS).cachePrivate());
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (ifNoneMatch != null && (ifNoneMatch.trim().equals("*") || ifNoneMatch.contains(info.getEtag()))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(headers).build();
+        }
+
+        long start = 0;
+        long end = length - 1;
+        HttpStatus status = HttpStatus.OK;
+        // If-Range: only honour the range while the client's copy is still current
+        if (range != null && (ifRange == null || ifRange.equals(info.getEtag()))) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(range);
+                // Multi-range requests are answered with the whole clip
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                    status = HttpStatus.PARTIAL_CONTENT;
+                    headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+                }
+            } catch (IllegalArgumentException e) {
+                headers.set(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE).headers(headers).build();
+            }
+        }
+
+        long from = start;
+        long count = end - start + 1;
+        StreamingResponseBody body = out -> audioStreamService.copyRange(id, language, info, from, count, out);
+        return ResponseEntity.status(status)
+            .headers(headers)
+            .contentType(AUDIO_MPEG)
+            .contentLength(count)
+            .body(body);
+    }
+
+    /**
+     * Full record; includeAudio=false leaves out the Base64 audio
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<ClientAudioDTO> getRecordById(@PathVariable Long id) {
+    public ResponseEntity<ClientAudioDTO> getRecordById(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "true") boolean includeAudio) {
         ClientAudio record = repository.findById(id)
             .orElseThrow(() -> new RuntimeException("Record not found with id: " + id));
         
@@ -151,9 +242,9 @@ public class AudioController {
             record.getLanguage(),
             record.getOriginalEnglishText(),
             record.getMaskedEnglishText(),
-            record.getMaskedTextAudio(),
+            includeAudio ? audioBytes(record.getMaskedTextAudio(), record.getEnglishAudioRef()) : null,
             record.getMaskedGujaratiText(),
-            record.getMaskedGujaratiAudio(),
+            includeAudio ? audioBytes(record.getMaskedGujaratiAudio(), record.getGujaratiAudioRef()) : null,
             record.getUserId(),
             record.getCaseId(),
             record.getLawyerId()
@@ -161,4 +252,18 @@ public class AudioController {
         
         return ResponseEntity.ok(dto);
     }
+
+    /**
+     * Bytes from the row, or from the blob store for records whose audio has been moved out
+     */
+    private byte[] audioBytes(byte[] inline, String ref) {
+        if (inline != null || ref == null) {
+            return inline;
+        }
+        try {
+            return audioBlobService.read(ref);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read audio " + ref, e);
+        }
+    }
 }
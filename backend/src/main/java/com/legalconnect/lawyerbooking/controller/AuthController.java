@@ -4,6 +4,7 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.http.ResponseEntity;
 import org.springframework.beans.factory.annotation.Autowired;
 import jakarta.validation.Valid;
+import io.jsonwebtoken.JwtException;
 
 import com.legalconnect.lawyerbooking.dto.LoginRequest;
 import com.legalconnect.lawyerbooking.dto.LoginResponse;
@@ -14,9 +15,12 @@ import com.legalconnect.lawyerbooking.repository.UserRepository;
 import com.legalconnect.lawyerbooking.repository.LawyerRepository;
 import com.legalconnect.lawyerbooking.entity.User;
 import com.legalconnect.lawyerbooking.entity.Lawyer;
+import com.legalconnect.lawyerbooking.security.JwtClaims;
+import com.legalconnect.lawyerbooking.security.TokenRevocationService;
 import com.legalconnect.lawyerbooking.service.PasswordService;
 import com.legalconnect.lawyerbooking.util.JwtUtil;
 
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -36,6 +40,9 @@ public class AuthController {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private TokenRevocationService revocationService;
+
     @PostMapping("/user/login")
     public ResponseEntity<LoginResponse> userLogin(@RequestBody LoginRequest request) {
         try {
@@ -263,5 +270,26 @@ public class AuthController {
                 .body(new RegistrationResponse(false, "Internal server error: " + e.getMessage()));
         }
     }
-}
 
+    @PostMapping("/logout")
+    public ResponseEntity<Map<String, String>> logout(
+            @RequestHeader(value = "Authorization", required = false) String authorization) {
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            return ResponseEntity.status(401).body(Map.of("message", "Missing bearer token"));
+        }
+        String token = authorization.substring(7);
+        JwtClaims claims;
+        try {
+            // /api/auth/** is public: only a token we issued and that is still live may be revoked
+            claims = jwtUtil.parseToken(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return ResponseEntity.status(401).body(Map.of("message", "Invalid or expired token"));
+        }
+        if (claims.isExpired()) {
+            return ResponseEntity.status(401).body(Map.of("message", "Invalid or expired token"));
+        }
+        // Stateless JWT: the client discards the token; the revocation reaches every node
+        revocationService.revokeToken(token, claims.getExpiration());
+        return ResponseEntity.ok(Map.of("message", "Logged out successfully"));
+    }
+}
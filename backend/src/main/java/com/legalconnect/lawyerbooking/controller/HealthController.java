@@ -1,5 +1,15 @@
 package com.legalconnect.lawyerbooking.controller;
 
+import com.legalconnect.lawyerbooking.security.TokenRevocationService;
+import com.legalconnect.lawyerbooking.security.VerifiedTokenCache;
+import com.legalconnect.lawyerbooking.service.AudioBlobService;
+import com.legalconnect.lawyerbooking.service.CaseClassificationService;
+import com.legalconnect.lawyerbooking.service.MessageWriteBehind;
+import com.legalconnect.lawyerbooking.service.OpenAIHttpClients;
+import com.legalconnect.lawyerbooking.service.PipelineStageMetrics;
+import com.legalconnect.lawyerbooking.service.StageResultCache;
+import com.legalconnect.lawyerbooking.service.TtsFragmentCache;
+import com.legalconnect.lawyerbooking.service.UnreadCounterService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
@@ -31,6 +41,36 @@ public class HealthController {
     @Autowired
     private DataSource dataSource;
 
+    @Autowired
+    private VerifiedTokenCache tokenCache;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private PipelineStageMetrics pipelineStageMetrics;
+
+    @Autowired
+    private StageResultCache stageResultCache;
+
+    @Autowired
+    private OpenAIHttpClients openAIHttpClients;
+
+    @Autowired
+    private CaseClassificationService classificationService;
+
+    @Autowired
+    private UnreadCounterService unreadCounterService;
+
+    @Autowired
+    private MessageWriteBehind messageWriteBehind;
+
+    @Autowired
+    private AudioBlobService audioBlobService;
+
+    @Autowired
+    private TtsFragmentCache ttsFragmentCache;
+
     /**
      * Basic health check
      */
@@ -61,6 +101,16 @@ public class HealthController {
         
         // Additional detailed checks
         health.put("cache", checkCacheHealth());
+        health.put("tokenCache", tokenCache.getStats());
+        health.put("tokenRevocations", tokenRevocationService.getStats());
+        health.put("audioPipelineStages", pipelineStageMetrics.getStats());
+        health.put("audioResultCache", stageResultCache.getStats());
+        health.put("ttsFragmentCache", ttsFragmentCache.getStats());
+        health.put("openAiHttp", openAIHttpClients.getStats());
+        health.put("classificationCache", classificationService.getCacheStats());
+        health.put("unreadCounters", unreadCounterService.getStats());
+        health.put("messageWriteBehind", messageWriteBehind.getStats());
+        health.put("audioBlobStore", audioBlobService.getStats());
         health.put("system", checkSystemHealth());
         
         return health;
@@ -4,10 +4,15 @@ import com.legalconnect.lawyerbooking.dto.LawyerProfileDTO;
 import com.legalconnect.lawyerbooking.entity.Lawyer;
 import com.legalconnect.lawyerbooking.exception.ResourceNotFoundException;
 import com.legalconnect.lawyerbooking.repository.LawyerRepository;
+import com.legalconnect.lawyerbooking.util.LawyerRequestTopics;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 @RestController
 @RequestMapping("/api/lawyers")
 @CrossOrigin(origins = "*")
@@ -42,6 +47,21 @@ public class LawyerController {
         return ResponseEntity.ok(dto);
     }
 
+    /**
+     * STOMP destinations for this lawyer's specializations (new case requests and assignment updates)
+     */
+    @GetMapping("/{lawyerId}/request-topics")
+    public ResponseEntity<Map<String, List<String>>> getRequestTopics(@PathVariable("lawyerId") Long lawyerId) {
+        Lawyer lawyer = lawyerRepository.findById(lawyerId)
+                .orElseThrow(() -> new ResourceNotFoundException("Lawyer not found with ID: " + lawyerId));
+
+        List<String> channels = LawyerRequestTopics.channelsFor(lawyer.getSpecialization(), lawyer.getSpecializations());
+        return ResponseEntity.ok(Map.of(
+                "requests", channels.stream().map(c -> LawyerRequestTopics.REQUESTS_PREFIX + c).collect(Collectors.toList()),
+                "updates", channels.stream().map(c -> LawyerRequestTopics.UPDATES_PREFIX + c).collect(Collectors.toList())
+        ));
+    }
+
     @PutMapping("/{lawyerId}/profile")
     public ResponseEntity<LawyerProfileDTO> updateLawyerProfile(@PathVariable("lawyerId") Long lawyerId, @RequestBody LawyerProfileDTO profileDTO) {
         authorizationService.verifyLawyerAccess(lawyerId);
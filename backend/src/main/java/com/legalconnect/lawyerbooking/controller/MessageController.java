@@ -9,9 +9,14 @@ import com.legalconnect.lawyerbooking.service.MessageService;
 import com.legalconnect.lawyerbooking.service.AuthorizationService;
 import com.legalconnect.lawyerbooking.util.JwtUtil;
 import com.legalconnect.lawyerbooking.dto.MessageDTO;
+import com.legalconnect.lawyerbooking.dto.MessagePageDTO;
 import com.legalconnect.lawyerbooking.dto.MessageRequest;
+import com.legalconnect.lawyerbooking.exception.BadRequestException;
+import com.legalconnect.lawyerbooking.exception.ResourceNotFoundException;
 import com.legalconnect.lawyerbooking.exception.UnauthorizedException;
+import com.legalconnect.lawyerbooking.security.UserPrincipal;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -60,6 +65,27 @@ public class MessageController {
         return ResponseEntity.ok(messages);
     }
 
+    /**
+     * Infinite-scroll chat history: newest page first, then ?before={oldestId} for older
+     * pages, or ?after={newestId} to catch up after a reconnect
+     */
+    @GetMapping("/case/{caseId}/page")
+    public ResponseEntity<MessagePageDTO> getMessagePage(
+            @PathVariable Long caseId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int limit) {
+        try {
+            authorizationService.verifyMessageAccess(caseId);
+            return ResponseEntity.ok(messageService.getMessagePage(caseId, before, after, limit));
+        } catch (UnauthorizedException e) {
+            logger.warn("Unauthorized message history request: {}", e.getMessage());
+            return ResponseEntity.status(401).build();
+        } catch (BadRequestException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping("/receiver/{receiverId}/{receiverType}")
     public ResponseEntity<List<MessageDTO>> getMessagesByReceiver(
             @PathVariable Long receiverId,
@@ -73,11 +99,55 @@ public class MessageController {
         try {
             messageService.markMessageAsRead(messageId);
             return ResponseEntity.ok().build();
-        } catch (RuntimeException e) {
+        } catch (UnauthorizedException e) {
+            logger.warn("Unauthorized mark-read attempt: {}", e.getMessage());
+            return ResponseEntity.status(401).build();
+        } catch (ResourceNotFoundException e) {
             return ResponseEntity.notFound().build();
         }
     }
 
+    /**
+     * Mark the case chat read for the current user, up to message {@code upTo}
+     * (or the latest message). One request replaces a PUT per message.
+     */
+    @PutMapping("/case/{caseId}/read")
+    public ResponseEntity<Map<String, Object>> markCaseAsRead(
+            @PathVariable Long caseId,
+            @RequestParam(required = false) Long upTo) {
+        try {
+            authorizationService.verifyMessageAccess(caseId);
+            UserPrincipal currentUser = authorizationService.getCurrentUser();
+            int updated = messageService.markCaseReadUpTo(caseId, currentUser.getUserId(), currentUser.getUserType(), upTo);
+
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("updated", updated);
+            response.put("lastReadMessageId",
+                messageService.getLastReadMessageId(caseId, currentUser.getUserId(), currentUser.getUserType()));
+            response.put("unreadCount",
+                messageService.getUnreadMessageCount(caseId, currentUser.getUserId(), currentUser.getUserType()));
+            return ResponseEntity.ok(response);
+        } catch (UnauthorizedException e) {
+            logger.warn("Unauthorized mark-read attempt: {}", e.getMessage());
+            return ResponseEntity.status(401).build();
+        } catch (BadRequestException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/case/{caseId}/unread-count")
+    public ResponseEntity<Map<String, Long>> getCaseUnreadCount(@PathVariable Long caseId) {
+        try {
+            authorizationService.verifyMessageAccess(caseId);
+            UserPrincipal currentUser = authorizationService.getCurrentUser();
+            long count = messageService.getUnreadMessageCount(caseId, currentUser.getUserId(), currentUser.getUserType());
+            return ResponseEntity.ok(Map.of("count", count));
+        } catch (UnauthorizedException e) {
+            logger.warn("Unauthorized unread count request: {}", e.getMessage());
+            return ResponseEntity.status(401).build();
+        }
+    }
+
     @GetMapping("/unread-count/{receiverId}/{receiverType}")
     public ResponseEntity<Map<String, Long>> getUnreadMessageCount(
             @PathVariable Long receiverId,
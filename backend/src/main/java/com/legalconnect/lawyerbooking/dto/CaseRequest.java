@@ -1,11 +1,15 @@
 package com.legalconnect.lawyerbooking.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 public class CaseRequest {
     private Long userId;
     private String caseTitle;
     private String caseType;
     private String description;
     private String caseCategory;
+    @JsonIgnore
+    private boolean categoryAuto; // set server-side when caseCategory came from the classifier
 
     // Constructors
     public CaseRequest() {}
@@ -58,5 +62,14 @@ public class CaseRequest {
     public void setCaseCategory(String caseCategory) {
         this.caseCategory = caseCategory;
     }
-}
 
+    @JsonIgnore
+    public boolean isCategoryAuto() {
+        return categoryAuto;
+    }
+
+    @JsonIgnore
+    public void setCategoryAuto(boolean categoryAuto) {
+        this.categoryAuto = categoryAuto;
+    }
+}
@@ -0,0 +1,67 @@
+package com.legalconnect.lawyerbooking.dto;
+
+import java.util.List;
+
+/**
+ * Page of audio record summaries with pagination metadata
+ */
+public class ClientAudioPageResponse {
+    private List<ClientAudioSummaryDTO> records;
+    private int currentPage;
+    private int totalPages;
+    private long totalElements;
+    private int pageSize;
+
+    // Constructors
+    public ClientAudioPageResponse() {}
+
+    public ClientAudioPageResponse(List<ClientAudioSummaryDTO> records, int currentPage, int totalPages,
+                                   long totalElements, int pageSize) {
+        this.records = records;
+        this.currentPage = currentPage;
+        this.totalPages = totalPages;
+        this.totalElements = totalElements;
+        this.pageSize = pageSize;
+    }
+
+    // Getters and Setters
+    public List<ClientAudioSummaryDTO> getRecords() {
+        return records;
+    }
+
+    public void setRecords(List<ClientAudioSummaryDTO> records) {
+        this.records = records;
+    }
+
+    public int getCurrentPage() {
+        return currentPage;
+    }
+
+    public void setCurrentPage(int currentPage) {
+        this.currentPage = currentPage;
+    }
+
+    public int getTotalPages() {
+        return totalPages;
+    }
+
+    public void setTotalPages(int totalPages) {
+        this.totalPages = totalPages;
+    }
+
+    public long getTotalElements() {
+        return totalElements;
+    }
+
+    public void setTotalElements(long totalElements) {
+        this.totalElements = totalElements;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+}
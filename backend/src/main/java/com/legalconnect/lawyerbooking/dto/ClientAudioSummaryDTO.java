@@ -0,0 +1,107 @@
+package com.legalconnect.lawyerbooking.dto;
+
+/**
+ * Listing view of a ClientAudio record: metadata and text previews only.
+ * Audio is fetched per record from /api/audio/{id}/english.mp3 and /gujarati.mp3.
+ */
+public class ClientAudioSummaryDTO {
+    private Long id;
+    private String language;
+    private Long userId;
+    private Long caseId;
+    private Long lawyerId;
+    private String maskedEnglishPreview;
+    private String maskedGujaratiPreview;
+    private boolean hasEnglishAudio;
+    private boolean hasGujaratiAudio;
+
+    // Constructors
+    public ClientAudioSummaryDTO() {}
+
+    public ClientAudioSummaryDTO(Long id, String language, Long userId, Long caseId, Long lawyerId,
+                                 String maskedEnglishPreview, String maskedGujaratiPreview,
+                                 boolean hasEnglishAudio, boolean hasGujaratiAudio) {
+        this.id = id;
+        this.language = language;
+        this.userId = userId;
+        this.caseId = caseId;
+        this.lawyerId = lawyerId;
+        this.maskedEnglishPreview = maskedEnglishPreview;
+        this.maskedGujaratiPreview = maskedGujaratiPreview;
+        this.hasEnglishAudio = hasEnglishAudio;
+        this.hasGujaratiAudio = hasGujaratiAudio;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getLanguage() {
+        return language;
+    }
+
+    public void setLanguage(String language) {
+        this.language = language;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getCaseId() {
+        return caseId;
+    }
+
+    public void setCaseId(Long caseId) {
+        this.caseId = caseId;
+    }
+
+    public Long getLawyerId() {
+        return lawyerId;
+    }
+
+    public void setLawyerId(Long lawyerId) {
+        this.lawyerId = lawyerId;
+    }
+
+    public String getMaskedEnglishPreview() {
+        return maskedEnglishPreview;
+    }
+
+    public void setMaskedEnglishPreview(String maskedEnglishPreview) {
+        this.maskedEnglishPreview = maskedEnglishPreview;
+    }
+
+    public String getMaskedGujaratiPreview() {
+        return maskedGujaratiPreview;
+    }
+
+    public void setMaskedGujaratiPreview(String maskedGujaratiPreview) {
+        this.maskedGujaratiPreview = maskedGujaratiPreview;
+    }
+
+    public boolean isHasEnglishAudio() {
+        return hasEnglishAudio;
+    }
+
+    public void setHasEnglishAudio(boolean hasEnglishAudio) {
+        this.hasEnglishAudio = hasEnglishAudio;
+    }
+
+    public boolean isHasGujaratiAudio() {
+        return hasGujaratiAudio;
+    }
+
+    public void setHasGujaratiAudio(boolean hasGujaratiAudio) {
+        this.hasGujaratiAudio = hasGujaratiAudio;
+    }
+}
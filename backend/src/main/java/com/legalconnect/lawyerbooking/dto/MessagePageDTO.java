@@ -0,0 +1,60 @@
+package com.legalconnect.lawyerbooking.dto;
+
+import java.util.List;
+
+/**
+ * One keyset page of case chat history
+ *
+ * - messages are always in chronological order (oldest first)
+ * - hasMore: further messages exist in the direction that was requested
+ * - oldestId / newestId: cursors for the next "before" / "after" request
+ */
+public class MessagePageDTO {
+    private List<MessageDTO> messages;
+    private boolean hasMore;
+    private Long oldestId;
+    private Long newestId;
+
+    public MessagePageDTO() {}
+
+    public MessagePageDTO(List<MessageDTO> messages, boolean hasMore) {
+        this.messages = messages;
+        this.hasMore = hasMore;
+        if (!messages.isEmpty()) {
+            this.oldestId = messages.get(0).getId();
+            this.newestId = messages.get(messages.size() - 1).getId();
+        }
+    }
+
+    public List<MessageDTO> getMessages() {
+        return messages;
+    }
+
+    public void setMessages(List<MessageDTO> messages) {
+        this.messages = messages;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public Long getOldestId() {
+        return oldestId;
+    }
+
+    public void setOldestId(Long oldestId) {
+        this.oldestId = oldestId;
+    }
+
+    public Long getNewestId() {
+        return newestId;
+    }
+
+    public void setNewestId(Long newestId) {
+        this.newestId = newestId;
+    }
+}
@@ -0,0 +1,145 @@
+package com.legalconnect.lawyerbooking.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Durable record of an audio upload being processed.
+ * Each pipeline stage output is checkpointed here so a restarted worker
+ * can resume from the last finished stage instead of re-running paid AI calls.
+ */
+@Entity
+@Table(name = "audio_jobs")
+public class AudioJob {
+
+    @Id
+    @Column(name = "id", length = 36)
+    private String id;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "case_title")
+    private String caseTitle;
+
+    @Column(name = "status", nullable = false, length = 20)
+    private String status; // queued, processing, completed, failed
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "worker_id", length = 100)
+    private String workerId; // node that owns the spooled upload and runs the job
+
+    @Column(name = "file_path", length = 500)
+    private String filePath;
+
+    @Column(name = "original_filename")
+    private String originalFilename;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    @Lob
+    @Column(name = "original_english_text", columnDefinition = "LONGTEXT")
+    private String originalEnglishText;
+
+    @Lob
+    @Column(name = "masked_english_text", columnDefinition = "LONGTEXT")
+    private String maskedEnglishText;
+
+    // AudioBlobService reference; the clip itself stays in the blob store
+    @Column(name = "english_audio_ref", length = 100)
+    private String englishAudioRef;
+
+    @Lob
+    @Column(name = "masked_gujarati_text", columnDefinition = "LONGTEXT")
+    private String maskedGujaratiText;
+
+    @Column(name = "gujarati_audio_ref", length = 100)
+    private String gujaratiAudioRef;
+
+    @Column(name = "audio_id")
+    private Long audioId;
+
+    @Column(name = "case_id")
+    private Long caseId;
+
+    @Column(name = "error", columnDefinition = "TEXT")
+    private String error;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public String getCaseTitle() { return caseTitle; }
+    public void setCaseTitle(String caseTitle) { this.caseTitle = caseTitle; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public Integer getAttempts() { return attempts; }
+    public void setAttempts(Integer attempts) { this.attempts = attempts; }
+
+    public String getWorkerId() { return workerId; }
+    public void setWorkerId(String workerId) { this.workerId = workerId; }
+
+    public String getFilePath() { return filePath; }
+    public void setFilePath(String filePath) { this.filePath = filePath; }
+
+    public String getOriginalFilename() { return originalFilename; }
+    public void setOriginalFilename(String originalFilename) { this.originalFilename = originalFilename; }
+
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+
+    public String getOriginalEnglishText() { return originalEnglishText; }
+    public void setOriginalEnglishText(String originalEnglishText) { this.originalEnglishText = originalEnglishText; }
+
+    public String getMaskedEnglishText() { return maskedEnglishText; }
+    public void setMaskedEnglishText(String maskedEnglishText) { this.maskedEnglishText = maskedEnglishText; }
+
+    public String getEnglishAudioRef() { return englishAudioRef; }
+    public void setEnglishAudioRef(String englishAudioRef) { this.englishAudioRef = englishAudioRef; }
+
+    public String getMaskedGujaratiText() { return maskedGujaratiText; }
+    public void setMaskedGujaratiText(String maskedGujaratiText) { this.maskedGujaratiText = maskedGujaratiText; }
+
+    public String getGujaratiAudioRef() { return gujaratiAudioRef; }
+    public void setGujaratiAudioRef(String gujaratiAudioRef) { this.gujaratiAudioRef = gujaratiAudioRef; }
+
+    public Long getAudioId() { return audioId; }
+    public void setAudioId(Long audioId) { this.audioId = audioId; }
+
+    public Long getCaseId() { return caseId; }
+    public void setCaseId(Long caseId) { this.caseId = caseId; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -29,6 +29,9 @@ public class Case {
     @Column(name = "case_category", length = 100)
     private String caseCategory; // e.g., Family Law, Criminal Law, Civil Law
 
+    @Column(name = "category_auto", nullable = false)
+    private boolean categoryAuto; // true when the category came from the classifier, not the client
+
     @Lob
     @Column(name = "description", columnDefinition = "LONGTEXT")
     private String description;
@@ -121,6 +124,14 @@ public class Case {
         this.caseCategory = caseCategory;
     }
 
+    public boolean isCategoryAuto() {
+        return categoryAuto;
+    }
+
+    public void setCategoryAuto(boolean categoryAuto) {
+        this.categoryAuto = categoryAuto;
+    }
+
     public String getSolution() {
         return solution;
     }
@@ -44,6 +44,13 @@ public class ClientAudio {
     @Column(name = "masked_gujarati_audio", columnDefinition = "LONGBLOB")
     private byte[] maskedGujaratiAudio;
 
+    // "{store}:{sha256}" when the audio lives in an AudioBlobStore instead of the LONGBLOB above
+    @Column(name = "english_audio_ref", length = 100)
+    private String englishAudioRef;
+
+    @Column(name = "gujarati_audio_ref", length = 100)
+    private String gujaratiAudioRef;
+
     // getters & setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -76,6 +83,16 @@ public class ClientAudio {
         this.maskedGujaratiAudio = maskedGujaratiAudio;
     }
 
+    public String getEnglishAudioRef() { return englishAudioRef; }
+    public void setEnglishAudioRef(String englishAudioRef) {
+        this.englishAudioRef = englishAudioRef;
+    }
+
+    public String getGujaratiAudioRef() { return gujaratiAudioRef; }
+    public void setGujaratiAudioRef(String gujaratiAudioRef) {
+        this.gujaratiAudioRef = gujaratiAudioRef;
+    }
+
     public Long getUserId() {
         return userId;
     }
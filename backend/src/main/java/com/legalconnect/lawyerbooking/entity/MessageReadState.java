@@ -0,0 +1,88 @@
+package com.legalconnect.lawyerbooking.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Read watermark of one participant in one case chat.
+ * Every message in the case up to lastReadMessageId counts as read for that participant,
+ * so unread counts are a range count above the watermark.
+ */
+@Entity
+@Table(name = "message_read_state")
+public class MessageReadState {
+
+    /**
+     * "{caseId}:{participantType}:{participantId}"
+     */
+    @Id
+    @Column(name = "id", length = 64)
+    private String id;
+
+    @Column(name = "case_id", nullable = false)
+    private Long caseId;
+
+    @Column(name = "participant_id", nullable = false)
+    private Long participantId;
+
+    @Column(name = "participant_type", nullable = false, length = 20)
+    private String participantType; // "user" or "lawyer"
+
+    @Column(name = "last_read_message_id", nullable = false)
+    private Long lastReadMessageId;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public static String key(Long caseId, String participantType, Long participantId) {
+        return caseId + ":" + participantType + ":" + participantId;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Long getCaseId() {
+        return caseId;
+    }
+
+    public void setCaseId(Long caseId) {
+        this.caseId = caseId;
+    }
+
+    public Long getParticipantId() {
+        return participantId;
+    }
+
+    public void setParticipantId(Long participantId) {
+        this.participantId = participantId;
+    }
+
+    public String getParticipantType() {
+        return participantType;
+    }
+
+    public void setParticipantType(String participantType) {
+        this.participantType = participantType;
+    }
+
+    public Long getLastReadMessageId() {
+        return lastReadMessageId;
+    }
+
+    public void setLastReadMessageId(Long lastReadMessageId) {
+        this.lastReadMessageId = lastReadMessageId;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
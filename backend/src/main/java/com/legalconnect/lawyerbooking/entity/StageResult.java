@@ -0,0 +1,95 @@
+package com.legalconnect.lawyerbooking.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Content-addressed output of an audio pipeline stage.
+ * The id is "{stage}:{sha256 of the stage input}", so identical uploads and
+ * identical texts resolve to the same row and skip the paid AI call.
+ */
+@Entity
+@Table(name = "stage_result_cache")
+public class StageResult {
+
+    @Id
+    @Column(name = "id", length = 80)
+    private String id;
+
+    @Column(name = "stage", nullable = false, length = 20)
+    private String stage;
+
+    @Lob
+    @Column(name = "text_value", columnDefinition = "LONGTEXT")
+    private String textValue;
+
+    // AudioBlobService reference for audio stages; the clip itself is in the blob store
+    @Column(name = "blob_ref", length = 100)
+    private String blobRef;
+
+    // Set on entries holding user data (transcribe) so they can be purged with the user
+    @Column(name = "owner_id")
+    private Long ownerId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "last_accessed_at", nullable = false)
+    private LocalDateTime lastAccessedAt;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getStage() {
+        return stage;
+    }
+
+    public void setStage(String stage) {
+        this.stage = stage;
+    }
+
+    public String getTextValue() {
+        return textValue;
+    }
+
+    public void setTextValue(String textValue) {
+        this.textValue = textValue;
+    }
+
+    public String getBlobRef() {
+        return blobRef;
+    }
+
+    public void setBlobRef(String blobRef) {
+        this.blobRef = blobRef;
+    }
+
+    public Long getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(Long ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getLastAccessedAt() {
+        return lastAccessedAt;
+    }
+
+    public void setLastAccessedAt(LocalDateTime lastAccessedAt) {
+        this.lastAccessedAt = lastAccessedAt;
+    }
+}
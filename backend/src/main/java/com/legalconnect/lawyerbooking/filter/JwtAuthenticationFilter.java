@@ -1,5 +1,9 @@
 package com.legalconnect.lawyerbooking.filter;
 
+import com.legalconnect.lawyerbooking.security.JwtClaims;
+import com.legalconnect.lawyerbooking.security.TokenRevocationService;
+import com.legalconnect.lawyerbooking.security.UserPrincipal;
+import com.legalconnect.lawyerbooking.security.VerifiedTokenCache;
 import com.legalconnect.lawyerbooking.util.JwtUtil;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -22,50 +26,67 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private VerifiedTokenCache tokenCache;
+
+    @Autowired
+    private TokenRevocationService revocationService;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
 
         final String requestTokenHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwtToken = null;
-        String userType = null;
-        Long userId = null;
+        UserPrincipal principal = null;
 
         if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
-            jwtToken = requestTokenHeader.substring(7);
-            try {
-                username = jwtUtil.extractUsername(jwtToken);
-                userType = jwtUtil.extractUserType(jwtToken);
-                userId = jwtUtil.extractUserId(jwtToken);
-            } catch (Exception e) {
-                logger.error("JWT Token parsing failed: " + e.getMessage());
+            String jwtToken = requestTokenHeader.substring(7);
+            // Repeat tokens are served from the cache without re-verifying the signature
+            principal = tokenCache.get(jwtToken);
+            if (principal != null && revocationService.isRevoked(jwtToken, principal, null)) {
+                tokenCache.invalidate(jwtToken);
+                principal = null;
+                logger.warn("JWT Filter: Rejected revoked token");
+            } else if (principal == null) {
+                try {
+                    // Single verified parse; expired or tampered tokens throw here
+                    JwtClaims claims = jwtUtil.parseToken(jwtToken);
+                    if (claims.getUsername() != null && claims.getUserType() != null && !claims.isExpired()) {
+                        if (revocationService.isRevoked(jwtToken, claims.toPrincipal(), claims.getIssuedAt())) {
+                            logger.warn("JWT Filter: Rejected revoked token for user " + claims.getUsername());
+                        } else {
+                            principal = claims.toPrincipal();
+                            tokenCache.put(jwtToken, principal, claims.getExpiration());
+                        }
+                    } else {
+                        logger.warn("JWT Filter: Token validation failed for user " + claims.getUsername());
+                    }
+                } catch (Exception e) {
+                    logger.error("JWT Token parsing failed: " + e.getMessage());
+                }
             }
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                if (jwtUtil.validateToken(jwtToken, username)) {
-                    com.legalconnect.lawyerbooking.security.UserPrincipal principal = 
-                        new com.legalconnect.lawyerbooking.security.UserPrincipal(userId, username, userType);
-                    
-                    if (logger.isInfoEnabled()) {
-                        logger.info("JWT Filter: Authenticated user " + username + " (ID: " + userId + ") with type " + userType);
-                    }
-
-                    SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + userType.toUpperCase());
-                    
-                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                            principal, null, Collections.singletonList(authority));
-                    
-                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-                    
-                    request.setAttribute("userId", userId);
-                    request.setAttribute("userType", userType);
-                } else {
-                    logger.warn("JWT Filter: Token validation failed for user " + username);
+        if (principal != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                Long userId = principal.getUserId();
+                String username = principal.getName();
+                String userType = principal.getUserType();
+                
+                if (logger.isInfoEnabled()) {
+                    logger.info("JWT Filter: Authenticated user " + username + " (ID: " + userId + ") with type " + userType);
                 }
+
+                SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + userType.toUpperCase());
+                
+                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                        principal, null, Collections.singletonList(authority));
+                
+                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+                
+                request.setAttribute("userId", userId);
+                request.setAttribute("userType", userType);
         }
         chain.doFilter(request, response);
     }
@@ -0,0 +1,118 @@
+package com.legalconnect.lawyerbooking.repository;
+
+import com.legalconnect.lawyerbooking.entity.AudioJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * AUDIO JOB REPOSITORY
+ *
+ * CHECKPOINTING:
+ * - One single-column UPDATE per pipeline stage
+ * - Stages running in parallel never overwrite each other's output
+ * - Each update commits on its own so progress survives a crash
+ */
+@Repository
+public interface AudioJobRepository extends JpaRepository<AudioJob, String> {
+
+    /**
+     * Jobs that still need a worker (used to resume after restart)
+     */
+    List<AudioJob> findByStatusInOrderByCreatedAtAsc(Collection<String> statuses);
+
+    /**
+     * Remove finished jobs (and their checkpoint blobs) after the retention window
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AudioJob j WHERE j.status IN :statuses AND j.updatedAt < :cutoff")
+    int deleteFinishedBefore(@Param("statuses") Collection<String> statuses, @Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE AudioJob j SET j.status = :status, j.error = :error, j.updatedAt = :now WHERE j.id = :id")
+    int updateStatus(@Param("id") String id, @Param("status") String status,
+                     @Param("error") String error, @Param("now") LocalDateTime now);
+
+    /**
+     * Claim a job for the process {@code workerId} ("{nodeId}/{process}"). A queued job, or a
+     * processing job untouched since {@code staleBefore} (its process died), can be claimed by
+     * any process of the node holding the spooled upload, or by any node once the transcript
+     * is checkpointed and the upload is no longer needed. Exactly one concurrent caller gets 1.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE AudioJob j SET j.status = :processing, j.workerId = :workerId, j.attempts = j.attempts + 1, " +
+           "j.updatedAt = :now WHERE j.id = :id " +
+           "AND (j.status = :queued OR (j.status = :processing AND j.updatedAt < :staleBefore)) " +
+           "AND (j.workerId IS NULL OR j.workerId = :nodeId OR j.workerId LIKE :nodePattern " +
+           "OR j.originalEnglishText IS NOT NULL)")
+    int claim(@Param("id") String id, @Param("workerId") String workerId,
+              @Param("nodeId") String nodeId, @Param("nodePattern") String nodePattern,
+              @Param("queued") String queued, @Param("processing") String processing,
+              @Param("staleBefore") LocalDateTime staleBefore, @Param("now") LocalDateTime now);
+
+    /**
+     * Pending jobs without a checkpoint since {@code staleBefore}: lost from a queue or
+     * their process died
+     */
+    @Query("SELECT j.id FROM AudioJob j WHERE j.status IN :pending AND j.updatedAt < :staleBefore ORDER BY j.createdAt")
+    List<String> findStaleIds(@Param("pending") Collection<String> pending, @Param("staleBefore") LocalDateTime staleBefore);
+
+    /**
+     * Fail pending jobs whose spooled upload lives on another node that has not touched
+     * them since {@code orphanBefore} and that cannot be resumed without it
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE AudioJob j SET j.status = :failed, j.error = :error, j.updatedAt = :now " +
+           "WHERE j.status IN :pending AND j.updatedAt < :orphanBefore AND j.originalEnglishText IS NULL " +
+           "AND j.workerId IS NOT NULL AND j.workerId <> :nodeId AND j.workerId NOT LIKE :nodePattern")
+    int failOrphans(@Param("pending") Collection<String> pending, @Param("failed") String failed,
+                    @Param("error") String error, @Param("nodeId") String nodeId,
+                    @Param("nodePattern") String nodePattern, @Param("orphanBefore") LocalDateTime orphanBefore,
+                    @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE AudioJob j SET j.originalEnglishText = :value, j.updatedAt = :now WHERE j.id = :id")
+    int saveOriginalEnglishText(@Param("id") String id, @Param("value") String value, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE AudioJob j SET j.maskedEnglishText = :value, j.updatedAt = :now WHERE j.id = :id")
+    int saveMaskedEnglishText(@Param("id") String id, @Param("value") String value, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE AudioJob j SET j.englishAudioRef = :value, j.updatedAt = :now WHERE j.id = :id")
+    int saveEnglishAudioRef(@Param("id") String id, @Param("value") String value, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE AudioJob j SET j.maskedGujaratiText = :value, j.updatedAt = :now WHERE j.id = :id")
+    int saveMaskedGujaratiText(@Param("id") String id, @Param("value") String value, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE AudioJob j SET j.gujaratiAudioRef = :value, j.updatedAt = :now WHERE j.id = :id")
+    int saveGujaratiAudioRef(@Param("id") String id, @Param("value") String value, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE AudioJob j SET j.audioId = :audioId, j.updatedAt = :now WHERE j.id = :id")
+    int saveAudioId(@Param("id") String id, @Param("audioId") Long audioId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE AudioJob j SET j.caseId = :caseId, j.updatedAt = :now WHERE j.id = :id")
+    int saveCaseId(@Param("id") String id, @Param("caseId") Long caseId, @Param("now") LocalDateTime now);
+}
@@ -1,6 +1,9 @@
 package com.legalconnect.lawyerbooking.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.legalconnect.lawyerbooking.entity.Case;
 import java.util.List;
@@ -12,5 +15,15 @@ public interface CaseRepository extends JpaRepository<Case, Long> {
     List<Case> findByCaseStatus(String status);
     List<Case> findByLawyerIdIsNull(); // Cases not yet assigned to a lawyer
     List<Case> findByLawyerIdIsNullAndCaseCategoryIn(java.util.Collection<String> categories);
+
+    /**
+     * Cases whose category may be recomputed (auto-classified or blank), in id order after {@code afterId}.
+     * Categories picked by the client are never returned.
+     */
+    @Query("SELECT c FROM Case c WHERE c.id > :afterId " +
+           "AND (c.categoryAuto = true OR c.caseCategory IS NULL OR TRIM(c.caseCategory) = '') " +
+           "AND (:includeAssigned = true OR c.lawyerId IS NULL) ORDER BY c.id")
+    List<Case> findReclassifiable(@Param("afterId") Long afterId,
+                                  @Param("includeAssigned") boolean includeAssigned, Pageable pageable);
 }
 
@@ -1,6 +1,13 @@
 package com.legalconnect.lawyerbooking.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import com.legalconnect.lawyerbooking.dto.ClientAudioSummaryDTO;
 import com.legalconnect.lawyerbooking.entity.ClientAudio;
 import java.util.List;
 
@@ -8,5 +15,21 @@ public interface ClientAudioRepository extends JpaRepository<ClientAudio, Long>
     List<ClientAudio> findByUserId(Long userId);
     List<ClientAudio> findByCaseId(Long caseId);
     List<ClientAudio> findByLawyerId(Long lawyerId);
-}
 
+    /**
+     * Listing without the LONGBLOB audio columns; texts are cut to a preview in the database
+     */
+    @Query(value = "SELECT new com.legalconnect.lawyerbooking.dto.ClientAudioSummaryDTO(" +
+                   "c.id, c.language, c.userId, c.caseId, c.lawyerId, " +
+                   "SUBSTRING(c.maskedEnglishText, 1, 300), SUBSTRING(c.maskedGujaratiText, 1, 300), " +
+                   "CASE WHEN c.maskedTextAudio IS NULL AND c.englishAudioRef IS NULL THEN false ELSE true END, " +
+                   "CASE WHEN c.maskedGujaratiAudio IS NULL AND c.gujaratiAudioRef IS NULL THEN false ELSE true END) " +
+                   "FROM ClientAudio c",
+           countQuery = "SELECT COUNT(c) FROM ClientAudio c")
+    Page<ClientAudioSummaryDTO> findSummaries(Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE ClientAudio c SET c.lawyerId = :lawyerId WHERE c.caseId = :caseId")
+    int assignLawyerByCaseId(@Param("caseId") Long caseId, @Param("lawyerId") Long lawyerId);
+}
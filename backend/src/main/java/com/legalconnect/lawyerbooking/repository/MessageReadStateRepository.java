@@ -0,0 +1,25 @@
+package com.legalconnect.lawyerbooking.repository;
+
+import com.legalconnect.lawyerbooking.entity.MessageReadState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface MessageReadStateRepository extends JpaRepository<MessageReadState, String> {
+
+    /**
+     * Move a watermark forward; never moves it back
+     * @return 0 if the row does not exist or is already at or past messageId
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE MessageReadState w SET w.lastReadMessageId = :messageId, w.updatedAt = :now " +
+           "WHERE w.id = :id AND w.lastReadMessageId < :messageId")
+    int advance(@Param("id") String id, @Param("messageId") Long messageId, @Param("now") LocalDateTime now);
+}
@@ -1,11 +1,16 @@
 package com.legalconnect.lawyerbooking.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import com.legalconnect.lawyerbooking.entity.Message;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * SECURE MESSAGE REPOSITORY
@@ -26,7 +31,76 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
      * This is the primary method for chat message retrieval
      */
     List<Message> findByCaseIdOrderByCreatedAtAsc(Long caseId);
+
+    /**
+     * KEYSET PAGINATION (idx_message_case_chat: case_id, created_at; id breaks ties)
+     * Page size comes from the Pageable; no OFFSET is ever used
+     */
+    @Query("SELECT m FROM Message m WHERE m.caseId = :caseId ORDER BY m.createdAt DESC, m.id DESC")
+    List<Message> findLatestByCaseId(@Param("caseId") Long caseId, Pageable pageable);
+
+    @Query("SELECT m FROM Message m WHERE m.caseId = :caseId AND " +
+           "(m.createdAt < :createdAt OR (m.createdAt = :createdAt AND m.id < :id)) " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    List<Message> findByCaseIdBefore(@Param("caseId") Long caseId,
+                                     @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") Long id,
+                                     Pageable pageable);
+
+    @Query("SELECT m FROM Message m WHERE m.caseId = :caseId AND " +
+           "(m.createdAt > :createdAt OR (m.createdAt = :createdAt AND m.id > :id)) " +
+           "ORDER BY m.createdAt ASC, m.id ASC")
+    List<Message> findByCaseIdAfter(@Param("caseId") Long caseId,
+                                    @Param("createdAt") LocalDateTime createdAt,
+                                    @Param("id") Long id,
+                                    Pageable pageable);
+
+    /**
+     * Resolve a cursor message's position without loading its text
+     */
+    @Query("SELECT m.createdAt FROM Message m WHERE m.id = :id AND m.caseId = :caseId")
+    Optional<LocalDateTime> findCreatedAtByIdAndCaseId(@Param("id") Long id, @Param("caseId") Long caseId);
     
+    /**
+     * READ WATERMARK (message_read_state)
+     * One UPDATE marks everything a participant received in a case up to a message as read,
+     * and unread counts are range counts above the participant's watermark
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Message m SET m.isRead = true WHERE m.caseId = :caseId AND " +
+           "m.receiverId = :receiverId AND m.receiverType = :receiverType AND " +
+           "m.isRead = false AND m.id <= :upToId")
+    int markReadUpTo(@Param("caseId") Long caseId,
+                     @Param("receiverId") Long receiverId,
+                     @Param("receiverType") String receiverType,
+                     @Param("upToId") Long upToId);
+
+    @Query("SELECT MAX(m.id) FROM Message m WHERE m.caseId = :caseId")
+    Optional<Long> findMaxIdByCaseId(@Param("caseId") Long caseId);
+
+    @Query("SELECT COUNT(m) FROM Message m WHERE m.caseId = :caseId AND " +
+           "m.receiverId = :receiverId AND m.receiverType = :receiverType AND m.id > :afterId")
+    long countReceivedAfter(@Param("caseId") Long caseId,
+                            @Param("receiverId") Long receiverId,
+                            @Param("receiverType") String receiverType,
+                            @Param("afterId") Long afterId);
+
+    @Query("SELECT COUNT(m) FROM Message m WHERE m.receiverId = :receiverId AND m.receiverType = :receiverType AND " +
+           "m.id > COALESCE((SELECT w.lastReadMessageId FROM MessageReadState w WHERE w.caseId = m.caseId AND " +
+           "w.participantId = :receiverId AND w.participantType = :receiverType), 0)")
+    long countUnreadByWatermark(@Param("receiverId") Long receiverId, @Param("receiverType") String receiverType);
+
+    /**
+     * Unread counts per case for one receiver: rows of [caseId, count], cases with no unread omitted
+     */
+    @Query("SELECT m.caseId, COUNT(m) FROM Message m WHERE m.receiverId = :receiverId AND m.receiverType = :receiverType AND " +
+           "m.caseId IS NOT NULL AND " +
+           "m.id > COALESCE((SELECT w.lastReadMessageId FROM MessageReadState w WHERE w.caseId = m.caseId AND " +
+           "w.participantId = :receiverId AND w.participantType = :receiverType), 0) " +
+           "GROUP BY m.caseId")
+    List<Object[]> countUnreadByWatermarkPerCase(@Param("receiverId") Long receiverId, @Param("receiverType") String receiverType);
+
     /**
      * Get unread message count for a specific user in a specific case
      * Used for unread message indicators
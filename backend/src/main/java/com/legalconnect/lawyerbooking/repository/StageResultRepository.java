@@ -0,0 +1,48 @@
+package com.legalconnect.lawyerbooking.repository;
+
+import com.legalconnect.lawyerbooking.entity.StageResult;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StageResultRepository extends JpaRepository<StageResult, String> {
+
+    long countByStage(String stage);
+
+    @Query("SELECT DISTINCT r.stage FROM StageResult r")
+    List<String> findStages();
+
+    /**
+     * Least recently used entries of a stage, oldest first (for size-limit eviction)
+     */
+    @Query("SELECT r.id FROM StageResult r WHERE r.stage = :stage ORDER BY r.lastAccessedAt ASC")
+    List<String> findLeastRecentlyUsedIds(@Param("stage") String stage, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE StageResult r SET r.lastAccessedAt = :now WHERE r.id = :id")
+    int touch(@Param("id") String id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM StageResult r WHERE r.stage = :stage AND r.createdAt < :cutoff")
+    int deleteExpired(@Param("stage") String stage, @Param("cutoff") LocalDateTime cutoff);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM StageResult r WHERE r.id IN :ids")
+    int deleteByIds(@Param("ids") List<String> ids);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM StageResult r WHERE r.ownerId = :ownerId")
+    int deleteByOwnerId(@Param("ownerId") Long ownerId);
+}
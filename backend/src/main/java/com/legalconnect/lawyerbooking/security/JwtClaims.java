@@ -0,0 +1,61 @@
+package com.legalconnect.lawyerbooking.security;
+
+import java.util.Date;
+
+/**
+ * Immutable view of a JWT whose signature and expiry have already been verified.
+ * Produced once per token by JwtUtil.parseToken so callers never re-parse.
+ */
+public class JwtClaims {
+    private final Long userId;
+    private final String username;
+    private final String userType;
+    private final Date expiration;
+    private final Date issuedAt;
+
+    public JwtClaims(Long userId, String username, String userType, Date expiration, Date issuedAt) {
+        this.userId = userId;
+        this.username = username;
+        this.userType = userType;
+        this.expiration = expiration != null ? new Date(expiration.getTime()) : null;
+        this.issuedAt = issuedAt != null ? new Date(issuedAt.getTime()) : null;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getUserType() {
+        return userType;
+    }
+
+    public Date getExpiration() {
+        return expiration != null ? new Date(expiration.getTime()) : null;
+    }
+
+    public Date getIssuedAt() {
+        return issuedAt != null ? new Date(issuedAt.getTime()) : null;
+    }
+
+    public boolean isExpired() {
+        return expiration == null || expiration.before(new Date());
+    }
+
+    public UserPrincipal toPrincipal() {
+        return new UserPrincipal(userId, username, userType);
+    }
+
+    @Override
+    public String toString() {
+        return "JwtClaims{" +
+                "userId=" + userId +
+                ", username='" + username + '\'' +
+                ", userType='" + userType + '\'' +
+                ", expiration=" + expiration +
+                '}';
+    }
+}
@@ -0,0 +1,33 @@
+package com.legalconnect.lawyerbooking.security;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collections;
+import java.util.Locale;
+
+/**
+ * Authenticated STOMP session user.
+ * Named "{userType}:{userId}" so user destinations (convertAndSendToUser) address exactly one
+ * account, even when a user and a lawyer share a username.
+ */
+public class StompAuthentication extends UsernamePasswordAuthenticationToken {
+
+    public StompAuthentication(UserPrincipal principal) {
+        super(principal, null, Collections.singletonList(
+                new SimpleGrantedAuthority("ROLE_" + principal.getUserType().toUpperCase(Locale.ROOT))));
+    }
+
+    @Override
+    public String getName() {
+        UserPrincipal principal = (UserPrincipal) getPrincipal();
+        return userName(principal.getUserType(), principal.getUserId());
+    }
+
+    /**
+     * User destination name of an account, for convertAndSendToUser
+     */
+    public static String userName(String userType, Long userId) {
+        return userType.toLowerCase(Locale.ROOT) + ":" + userId;
+    }
+}
@@ -0,0 +1,181 @@
+package com.legalconnect.lawyerbooking.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TOKEN REVOCATION
+ *
+ * PURPOSE: Make logout and account deletion take effect on every node
+ *
+ * DESIGN:
+ * - Revocations are rows in the token_revocations table: either one token (SHA-256 digest,
+ *   on logout) or every token of an account issued up to revoked_at (account deletion)
+ * - Each node keeps the unexpired revocations in memory and checks them on every request,
+ *   whether or not the token came from VerifiedTokenCache
+ * - Every jwt.revocation.sync-interval-ms the node reads rows revoked since its last sync
+ *   (re-reading a jwt.revocation.sync-overlap-seconds window so late commits are not
+ *   missed) and drops the matching tokens from its VerifiedTokenCache
+ * - The node that revokes applies it locally at once; other nodes within one sync interval
+ * - Rows are kept until every token they can match has expired (jwt.expiration)
+ */
+@Component
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private VerifiedTokenCache tokenCache;
+
+    @Value("${jwt.expiration:86400000}")
+    private long tokenLifetimeMs;
+
+    @Value("${jwt.revocation.sync-overlap-seconds:60}")
+    private long syncOverlapSeconds;
+
+    // Token digest -> expiry; account "type:id" -> revoked at (tokens issued up to then are rejected)
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    private final Map<String, Long> revokedAccounts = new ConcurrentHashMap<>();
+
+    private volatile Timestamp lastSeen = new Timestamp(0);
+
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong syncFailures = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        sync();
+    }
+
+    /**
+     * Revoke one token, e.g. on logout
+     */
+    public void revokeToken(String token) {
+        revokeToken(token, null);
+    }
+
+    /**
+     * @param expiration the token's exp claim; the revocation is kept until then
+     */
+    public void revokeToken(String token, Date expiration) {
+        String digest = VerifiedTokenCache.digest(token);
+        long expiresAt = expiration != null ? expiration.getTime() : System.currentTimeMillis() + tokenLifetimeMs;
+        revokedTokens.put(digest, expiresAt);
+        tokenCache.invalidate(token);
+        jdbcTemplate.update(
+                "INSERT INTO token_revocations (token_digest, revoked_at, expires_at) VALUES (?, CURRENT_TIMESTAMP, ?)",
+                digest, new Timestamp(expiresAt));
+    }
+
+    /**
+     * Revoke every token issued so far to an account, e.g. after admin deletion
+     */
+    public void revokeUser(String userType, Long userId) {
+        if (userId == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        revokedAccounts.merge(accountKey(userType, userId), now, Math::max);
+        tokenCache.invalidateUser(userType, userId);
+        jdbcTemplate.update(
+                "INSERT INTO token_revocations (user_type, user_id, revoked_at, expires_at) VALUES (?, ?, CURRENT_TIMESTAMP, ?)",
+                userType.toLowerCase(), userId, new Timestamp(now + tokenLifetimeMs));
+    }
+
+    /**
+     * @param issuedAt the token's iat claim, or null when only the digest is to be checked
+     */
+    public boolean isRevoked(String token, UserPrincipal principal, Date issuedAt) {
+        boolean revoked = revokedTokens.containsKey(VerifiedTokenCache.digest(token));
+        if (!revoked && principal != null && principal.getUserId() != null) {
+            Long revokedAt = revokedAccounts.get(accountKey(principal.getUserType(), principal.getUserId()));
+            // Tokens without iat predate the revocation by definition
+            revoked = revokedAt != null && (issuedAt == null || issuedAt.getTime() <= revokedAt);
+        }
+        if (revoked) {
+            rejected.incrementAndGet();
+        }
+        return revoked;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval-ms:5000}",
+               initialDelayString = "${jwt.revocation.sync-interval-ms:5000}")
+    public void sync() {
+        try {
+            Timestamp since = new Timestamp(Math.max(0, lastSeen.getTime() - syncOverlapSeconds * 1000));
+            jdbcTemplate.query(
+                    "SELECT token_digest, user_type, user_id, revoked_at, expires_at FROM token_revocations " +
+                    "WHERE revoked_at >= ? AND expires_at > CURRENT_TIMESTAMP",
+                    rs -> {
+                        String digest = rs.getString(1);
+                        Timestamp revokedAt = rs.getTimestamp(4);
+                        if (digest != null) {
+                            if (revokedTokens.put(digest, rs.getTimestamp(5).getTime()) == null) {
+                                tokenCache.invalidateDigest(digest);
+                            }
+                        } else {
+                            String type = rs.getString(2);
+                            long userId = rs.getLong(3);
+                            Long previous = revokedAccounts.get(accountKey(type, userId));
+                            if (previous == null || previous < revokedAt.getTime()) {
+                                revokedAccounts.merge(accountKey(type, userId), revokedAt.getTime(), Math::max);
+                                tokenCache.invalidateUser(type, userId);
+                            }
+                        }
+                        if (revokedAt.after(lastSeen)) {
+                            lastSeen = revokedAt;
+                        }
+                    },
+                    since);
+
+            long now = System.currentTimeMillis();
+            revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+            revokedAccounts.values().removeIf(revokedAt -> revokedAt + tokenLifetimeMs <= now);
+        } catch (Exception e) {
+            syncFailures.incrementAndGet();
+            logger.warn("Token revocation sync failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.cleanup-interval-ms:3600000}")
+    public void deleteExpired() {
+        try {
+            int deleted = jdbcTemplate.update("DELETE FROM token_revocations WHERE expires_at <= CURRENT_TIMESTAMP");
+            if (deleted > 0) {
+                logger.debug("Deleted {} expired token revocations", deleted);
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to delete expired token revocations: {}", e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("revokedTokens", revokedTokens.size());
+        stats.put("revokedAccounts", revokedAccounts.size());
+        stats.put("rejected", rejected.get());
+        stats.put("syncFailures", syncFailures.get());
+        stats.put("lastSeen", lastSeen);
+        return stats;
+    }
+
+    private static String accountKey(String userType, Long userId) {
+        return userType.toLowerCase() + ":" + userId;
+    }
+}
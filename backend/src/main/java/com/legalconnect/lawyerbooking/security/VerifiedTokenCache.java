@@ -0,0 +1,183 @@
+package com.legalconnect.lawyerbooking.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * VERIFIED TOKEN CACHE
+ *
+ * PURPOSE: Skip signature verification for bearer tokens seen recently
+ *
+ * DESIGN:
+ * - Keyed by SHA-256 digest of the token (raw tokens are never stored)
+ * - Each entry lives until the token's own exp claim
+ * - Bounded LRU of jwt.cache.max-size entries; when full the least recently used token
+ *   is evicted (it is simply verified again on its next request)
+ * - Disabled unless jwt.cache.enabled=true
+ *
+ * INVALIDATION:
+ * - Revocations (logout, account deletion) are owned by TokenRevocationService, which
+ *   shares them across nodes and calls invalidate / invalidateUser on every node
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(VerifiedTokenCache.class);
+
+    @Value("${jwt.cache.enabled:false}")
+    private boolean enabled;
+
+    private final int maxSize;
+
+    // Access-ordered, so the eldest entry is the least recently used token
+    private final Map<String, Entry> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public VerifiedTokenCache(@Value("${jwt.cache.max-size:10000}") int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > VerifiedTokenCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Look up a previously verified token
+     *
+     * @return the cached principal, or null if absent, expired or caching is disabled
+     */
+    public UserPrincipal get(String token) {
+        if (!enabled) {
+            return null;
+        }
+        String key = digest(token);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            entries.remove(key, entry);
+            evictions.incrementAndGet();
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.principal;
+    }
+
+    /**
+     * Remember a token whose signature has just been verified
+     */
+    public void put(String token, UserPrincipal principal, Date expiration) {
+        if (!enabled || expiration == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (expiration.getTime() <= now) {
+            return;
+        }
+        entries.put(digest(token), new Entry(principal, expiration.getTime()));
+    }
+
+    /**
+     * Drop a single token (revoked on this or another node)
+     */
+    public void invalidate(String token) {
+        if (token == null) {
+            return;
+        }
+        invalidateDigest(digest(token));
+    }
+
+    void invalidateDigest(String digest) {
+        if (entries.remove(digest) != null) {
+            invalidations.incrementAndGet();
+        }
+    }
+
+    /**
+     * Drop every cached token belonging to an account, e.g. after admin deletion
+     */
+    public void invalidateUser(String userType, Long userId) {
+        if (userId == null) {
+            return;
+        }
+        synchronized (entries) {
+            entries.entrySet().removeIf(e -> {
+                UserPrincipal p = e.getValue().principal;
+                boolean match = userId.equals(p.getUserId()) && userType.equalsIgnoreCase(p.getUserType());
+                if (match) {
+                    invalidations.incrementAndGet();
+                }
+                return match;
+            });
+        }
+        logger.info("Invalidated cached tokens for {} {}", userType, userId);
+    }
+
+    /**
+     * Cache statistics for monitoring
+     */
+    public Map<String, Object> getStats() {
+        long h = hits.get();
+        long m = misses.get();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("size", entries.size());
+        stats.put("maxSize", maxSize);
+        stats.put("hits", h);
+        stats.put("misses", m);
+        stats.put("hitRate", h + m == 0 ? 0.0 : (double) h / (h + m));
+        stats.put("evictions", evictions.get());
+        stats.put("invalidations", invalidations.get());
+        return stats;
+    }
+
+    static String digest(String token) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] hash = md.digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class Entry {
+        private final UserPrincipal principal;
+        private final long expiresAt;
+
+        private Entry(UserPrincipal principal, long expiresAt) {
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return expiresAt <= now;
+        }
+    }
+}
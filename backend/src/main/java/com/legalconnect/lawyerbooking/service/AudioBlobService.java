@@ -0,0 +1,243 @@
+package com.legalconnect.lawyerbooking.service;
+
+import com.legalconnect.lawyerbooking.storage.AudioBlobStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * AUDIO BLOB TIER
+ *
+ * PURPOSE: Keep synthesized audio out of the client_audio LONGBLOB columns
+ *
+ * DESIGN:
+ * - audio.blob.store selects where new clips go: database (legacy, bytes stay in the row),
+ *   local (LocalDiskAudioBlobStore) or s3 (S3AudioBlobStore)
+ * - client_audio keeps only a reference "{store}:{sha256}" in english_audio_ref / gujarati_audio_ref;
+ *   references name their store, so clips written before a switch stay readable
+ *
+ * MIGRATION:
+ * - migrateBatch(afterId, N) moves the blobs of the next N rows with id > afterId into the
+ *   active store and clears each LONGBLOB in the same UPDATE that sets the reference
+ * - Rows are walked by id, so a row that keeps failing is skipped (and counted) instead of
+ *   being picked again at the head of every batch; it is retried on the next pass
+ * - With audio.blob.migration.enabled=true it runs every audio.blob.migration.interval-ms,
+ *   starting a new pass from id 0 whenever one ends; it can also be driven from
+ *   POST /api/admin/audio/migrate-blobs by feeding nextAfterId back as afterId
+ * - Run OPTIMIZE TABLE client_audio afterwards to give the space back to the tablespace
+ */
+@Service
+public class AudioBlobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AudioBlobService.class);
+
+    public static final String DATABASE = "database";
+
+    /**
+     * Audio LONGBLOB column → reference column
+     */
+    private static final Map<String, String> COLUMNS = Map.of(
+            "masked_text_audio", "english_audio_ref",
+            "masked_gujarati_audio", "gujarati_audio_ref");
+
+    @Autowired
+    private List<AudioBlobStore> storeList;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${audio.blob.store:database}")
+    private String activeStore;
+
+    @Value("${audio.blob.migration.enabled:false}")
+    private boolean migrationEnabled;
+
+    @Value("${audio.blob.migration.batch-size:50}")
+    private int migrationBatchSize;
+
+    private Map<String, AudioBlobStore> stores;
+
+    private final AtomicLong stored = new AtomicLong();
+    private final AtomicLong storedBytes = new AtomicLong();
+    private final AtomicLong migrated = new AtomicLong();
+    private final AtomicLong migrationFailures = new AtomicLong();
+    private final AtomicLong migrationCursor = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        stores = storeList.stream().collect(Collectors.toMap(AudioBlobStore::getName, Function.identity()));
+        if (!DATABASE.equals(activeStore) && !stores.containsKey(activeStore)) {
+            throw new IllegalStateException("audio.blob.store=" + activeStore + " is not configured; available: "
+                    + DATABASE + ", " + String.join(", ", stores.keySet()));
+        }
+        logger.info("Audio blobs are stored in: {}", activeStore);
+    }
+
+    /**
+     * True when new audio goes to a blob store instead of the client_audio row
+     */
+    public boolean isEnabled() {
+        return !DATABASE.equals(activeStore);
+    }
+
+    /**
+     * Store a clip in the active store
+     * @return the reference to keep on the record, or null for empty audio
+     */
+    public String store(byte[] data) throws IOException {
+        if (data == null || data.length == 0) {
+            return null;
+        }
+        String key = sha256(data);
+        stores.get(activeStore).put(key, data);
+        stored.incrementAndGet();
+        storedBytes.addAndGet(data.length);
+        return activeStore + ":" + key;
+    }
+
+    public byte[] read(String ref) throws IOException {
+        return store(ref).read(key(ref));
+    }
+
+    /**
+     * @return size in bytes, or -1 if the blob is missing
+     */
+    public long size(String ref) throws IOException {
+        return store(ref).size(key(ref));
+    }
+
+    public void copyRange(String ref, long start, long length, OutputStream out) throws IOException {
+        store(ref).copyRange(key(ref), start, length, out);
+    }
+
+    /**
+     * Content hash of the referenced clip (the blob key)
+     */
+    public static String key(String ref) {
+        int separator = ref.indexOf(':');
+        if (separator <= 0) {
+            throw new IllegalArgumentException("Invalid audio reference: " + ref);
+        }
+        return ref.substring(separator + 1);
+    }
+
+    /**
+     * Move the database blobs of the next {@code batchSize} rows after {@code afterId} into the active store
+     * @return movedPerColumn, moved, failed and nextAfterId (null once the last row has been visited)
+     */
+    public Map<String, Object> migrateBatch(long afterId, int batchSize) {
+        if (!isEnabled()) {
+            throw new IllegalStateException("audio.blob.store is 'database'; nothing to migrate to");
+        }
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM client_audio WHERE id > ? AND (" + String.join(" IS NOT NULL OR ", COLUMNS.keySet())
+                        + " IS NOT NULL) ORDER BY id LIMIT ?", Long.class, afterId, batchSize);
+
+        Map<String, Integer> movedPerColumn = new LinkedHashMap<>();
+        COLUMNS.keySet().forEach(column -> movedPerColumn.put(column, 0));
+        int failed = 0;
+        for (Long id : ids) {
+            for (Map.Entry<String, String> column : COLUMNS.entrySet()) {
+                try {
+                    if (migrateBlob(id, column.getKey(), column.getValue())) {
+                        movedPerColumn.merge(column.getKey(), 1, Integer::sum);
+                    }
+                } catch (Exception e) {
+                    failed++;
+                    migrationFailures.incrementAndGet();
+                    logger.warn("Failed to migrate {} of client_audio {}: {}", column.getKey(), id, e.getMessage());
+                }
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("movedPerColumn", movedPerColumn);
+        result.put("moved", movedPerColumn.values().stream().mapToInt(Integer::intValue).sum());
+        result.put("failed", failed);
+        result.put("nextAfterId", ids.size() < batchSize ? null : ids.get(ids.size() - 1));
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${audio.blob.migration.interval-ms:60000}",
+               initialDelayString = "${audio.blob.migration.interval-ms:60000}")
+    public void scheduledMigration() {
+        if (!migrationEnabled || !isEnabled()) {
+            return;
+        }
+        Map<String, Object> batch = migrateBatch(migrationCursor.get(), migrationBatchSize);
+        Long next = (Long) batch.get("nextAfterId");
+        migrationCursor.set(next == null ? 0 : next);
+        if ((Integer) batch.get("moved") > 0 || (Integer) batch.get("failed") > 0) {
+            logger.info("Audio blob migration batch: {}", batch);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("activeStore", activeStore);
+        stats.put("availableStores", stores.keySet());
+        stats.put("stored", stored.get());
+        stats.put("storedBytes", storedBytes.get());
+        stats.put("migrated", migrated.get());
+        stats.put("migrationFailures", migrationFailures.get());
+        stats.put("migrationCursor", migrationCursor.get());
+        stats.put("migrationEnabled", migrationEnabled);
+        return stats;
+    }
+
+    /**
+     * Move one row's blob; one blob at a time keeps the heap bounded
+     * @return false if the column was already empty
+     */
+    private boolean migrateBlob(Long id, String blobColumn, String refColumn) throws IOException {
+        List<byte[]> rows = jdbcTemplate.query(
+                "SELECT " + blobColumn + " FROM client_audio WHERE id = ? AND " + blobColumn + " IS NOT NULL",
+                (rs, i) -> rs.getBytes(1), id);
+        if (rows.isEmpty()) {
+            return false;
+        }
+        String ref = store(rows.get(0));
+        int updated = jdbcTemplate.update(
+                "UPDATE client_audio SET " + refColumn + " = ?, " + blobColumn + " = NULL WHERE id = ? AND "
+                        + blobColumn + " IS NOT NULL", ref, id);
+        if (updated == 0) {
+            return false;
+        }
+        migrated.incrementAndGet();
+        return true;
+    }
+
+    private AudioBlobStore store(String ref) {
+        String name = ref.substring(0, Math.max(0, ref.indexOf(':')));
+        AudioBlobStore store = stores.get(name);
+        if (store == null) {
+            throw new IllegalStateException("Audio reference " + ref + " points to unconfigured store '" + name + "'");
+        }
+        return store;
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
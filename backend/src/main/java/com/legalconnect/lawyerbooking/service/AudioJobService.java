@@ -0,0 +1,322 @@
+package com.legalconnect.lawyerbooking.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.legalconnect.lawyerbooking.dto.AudioJobDTO;
+import com.legalconnect.lawyerbooking.entity.AudioJob;
+import com.legalconnect.lawyerbooking.entity.ClientAudio;
+import com.legalconnect.lawyerbooking.exception.ResourceNotFoundException;
+import com.legalconnect.lawyerbooking.repository.AudioJobRepository;
+import com.legalconnect.lawyerbooking.security.StompAuthentication;
+import com.legalconnect.lawyerbooking.util.SpooledMultipartFile;
+
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Runs audio uploads as durable background jobs so the HTTP request returns immediately.
+ *
+ * Flow: upload is spooled to audio.jobs.spool-dir → audio_jobs row created →
+ * job queued on audioJobExecutor → AudioProcessingService checkpoints each stage
+ * on the row → status pushed to the uploader's /user/queue/audio-jobs.
+ *
+ * On startup and every audio.jobs.sweep-interval-ms, unfinished jobs are re-submitted and
+ * resume from their last checkpointed stage. A job is claimed with a conditional UPDATE
+ * before it runs, so no job runs twice:
+ * - Each run is owned by "{nodeId}/{process UUID}". A processing job is only taken over once
+ *   it has gone audio.jobs.stale-minutes without a checkpoint, even by its own node
+ * - The node id names the spool directory, not the host: audio.jobs.node-id, or else an id
+ *   generated once and kept in {spool-dir}/.node-id. Only processes of the same node (i.e.
+ *   with the same spool directory) can take over a job whose transcript is not checkpointed
+ *   yet; point audio.jobs.spool-dir at shared storage to let every node do so
+ * - A job another node cannot resume is failed after audio.jobs.orphan-minutes untouched
+ *
+ * A failed attempt re-queues the job while attempts remain; the spooled upload is kept
+ * until the job succeeds or its last attempt fails.
+ */
+@Service
+public class AudioJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AudioJobService.class);
+
+    public static final String STATUS_QUEUED = "queued";
+    public static final String STATUS_PROCESSING = "processing";
+    public static final String STATUS_COMPLETED = "completed";
+    public static final String STATUS_FAILED = "failed";
+
+    private static final List<String> PENDING_STATUSES = List.of(STATUS_QUEUED, STATUS_PROCESSING);
+    private static final List<String> FINISHED_STATUSES = List.of(STATUS_COMPLETED, STATUS_FAILED);
+
+    @Autowired
+    private AudioProcessingService audioService;
+
+    @Autowired
+    private AudioJobRepository jobRepository;
+
+    @Autowired
+    @Qualifier("audioJobExecutor")
+    private ThreadPoolTaskExecutor jobExecutor;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Value("${audio.jobs.retention-minutes:60}")
+    private long retentionMinutes;
+
+    @Value("${audio.jobs.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${audio.jobs.spool-dir:${java.io.tmpdir}/audio-jobs}")
+    private String spoolDir;
+
+    // Names the spool directory; blank = generated and kept in the spool directory
+    @Value("${audio.jobs.node-id:}")
+    private String nodeId;
+
+    // Owner of the jobs this process runs
+    private String workerId;
+
+    // Longer than any single stage: a running job checkpoints at least this often
+    @Value("${audio.jobs.stale-minutes:15}")
+    private long staleMinutes;
+
+    @Value("${audio.jobs.orphan-minutes:1440}")
+    private long orphanMinutes;
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (nodeId == null || nodeId.isBlank()) {
+            Path idFile = Paths.get(spoolDir, ".node-id");
+            Files.createDirectories(idFile.getParent());
+            if (!Files.exists(idFile)) {
+                try {
+                    Files.writeString(idFile, UUID.randomUUID().toString(), StandardCharsets.UTF_8,
+                            StandardOpenOption.CREATE_NEW);
+                } catch (FileAlreadyExistsException e) {
+                    // Another process sharing the spool directory created it first
+                }
+            }
+            nodeId = Files.readString(idFile, StandardCharsets.UTF_8).trim();
+        }
+        workerId = nodeId + "/" + UUID.randomUUID().toString().substring(0, 8);
+        logger.info("Audio jobs run as {} (spool {})", workerId, spoolDir);
+    }
+
+    /**
+     * Queue an upload for processing
+     *
+     * @return the queued job
+     * @throws TaskRejectedException if the job queue is full
+     */
+    public AudioJobDTO submit(MultipartFile file, Long userId, String caseTitle) throws IOException {
+        purgeFinishedJobs();
+
+        String jobId = UUID.randomUUID().toString();
+        SpooledMultipartFile spooled = SpooledMultipartFile.spool(file, Paths.get(spoolDir, jobId + ".upload"));
+
+        AudioJob job = new AudioJob();
+        job.setId(jobId);
+        job.setUserId(userId);
+        job.setCaseTitle(caseTitle);
+        job.setStatus(STATUS_QUEUED);
+        job.setWorkerId(workerId);
+        job.setFilePath(spooled.getPath().toString());
+        job.setOriginalFilename(spooled.getOriginalFilename());
+        job.setContentType(spooled.getContentType());
+        AudioJob saved = jobRepository.save(job);
+
+        try {
+            enqueue(jobId);
+        } catch (TaskRejectedException e) {
+            jobRepository.deleteById(jobId);
+            spooled.delete();
+            logger.warn("Audio job queue is full, rejecting upload for user {}", userId);
+            throw e;
+        }
+
+        logger.info("Queued audio job {} for user {} ({} bytes)", jobId, userId, spooled.getSize());
+        return toDTO(saved);
+    }
+
+    public AudioJobDTO getJob(String jobId) {
+        AudioJob job = jobRepository.findById(jobId)
+            .orElseThrow(() -> new ResourceNotFoundException("Audio job not found with id: " + jobId));
+        return toDTO(job);
+    }
+
+    /**
+     * Number of jobs waiting for a worker
+     */
+    public int getQueueDepth() {
+        return jobExecutor.getThreadPoolExecutor().getQueue().size();
+    }
+
+    /**
+     * Resume jobs interrupted by a shutdown or crash; those still owned by a live process
+     * are skipped by the claim
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePendingJobs() {
+        List<AudioJob> pending = jobRepository.findByStatusInOrderByCreatedAtAsc(PENDING_STATUSES);
+        if (pending.isEmpty()) {
+            return;
+        }
+        logger.info("Resuming {} unfinished audio jobs", pending.size());
+        for (AudioJob job : pending) {
+            try {
+                enqueue(job.getId());
+            } catch (TaskRejectedException e) {
+                // Left as queued; picked up again by the stale-job sweep
+                logger.warn("Job queue full while resuming, {} will wait for the stale-job sweep", job.getId());
+            }
+        }
+    }
+
+    /**
+     * Re-submit jobs that stopped making progress (dead process, retry lost to a full queue)
+     * and fail the ones whose upload only another, silent node has
+     */
+    @Scheduled(fixedDelayString = "${audio.jobs.sweep-interval-ms:60000}",
+               initialDelayString = "${audio.jobs.sweep-interval-ms:60000}")
+    public void sweepStaleJobs() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            int orphaned = jobRepository.failOrphans(PENDING_STATUSES, STATUS_FAILED,
+                    "Upload was spooled on a node that stopped processing it", nodeId, nodePattern(),
+                    now.minusMinutes(orphanMinutes), now);
+            if (orphaned > 0) {
+                logger.warn("Failed {} audio jobs whose upload is on an unresponsive node", orphaned);
+            }
+            for (String jobId : jobRepository.findStaleIds(PENDING_STATUSES, now.minusMinutes(staleMinutes))) {
+                enqueue(jobId);
+            }
+        } catch (TaskRejectedException e) {
+            logger.warn("Job queue full, stale audio jobs will be retried on the next sweep");
+        } catch (Exception e) {
+            logger.warn("Stale audio job sweep failed: {}", e.getMessage());
+        }
+    }
+
+    private String nodePattern() {
+        return nodeId + "/%";
+    }
+
+    private void enqueue(String jobId) {
+        jobExecutor.execute(() -> runJob(jobId));
+    }
+
+    private void runJob(String jobId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (jobRepository.claim(jobId, workerId, nodeId, nodePattern(), STATUS_QUEUED, STATUS_PROCESSING,
+                now.minusMinutes(staleMinutes), now) == 0) {
+            logger.debug("Audio job {} is finished, running or not resumable here, skipping", jobId);
+            return;
+        }
+        AudioJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            logger.warn("Audio job {} disappeared before it could run", jobId);
+            return;
+        }
+
+        Path spoolPath = Path.of(job.getFilePath());
+        boolean done = true;
+        try {
+            if (job.getAttempts() > maxAttempts) {
+                throw new IllegalStateException("Gave up after " + maxAttempts + " attempts");
+            }
+            SpooledMultipartFile file = SpooledMultipartFile.of(spoolPath, job.getOriginalFilename(), job.getContentType());
+            if (file.isEmpty() && job.getOriginalEnglishText() == null) {
+                throw new IllegalStateException("Spooled upload is missing and no transcript was checkpointed");
+            }
+
+            ClientAudio saved = audioService.processAndCreateCase(file, job.getUserId(), job.getCaseTitle(), job);
+            jobRepository.updateStatus(jobId, STATUS_COMPLETED, null, LocalDateTime.now());
+            logger.info("Audio job {} completed (audio {}, case {})", jobId, saved.getId(), saved.getCaseId());
+        } catch (Exception e) {
+            String error = e.getMessage() != null ? e.getMessage() : "Unknown error";
+            if (job.getAttempts() < maxAttempts) {
+                // Keep the spool; the retry resumes from the last checkpointed stage
+                logger.warn("Audio job {} attempt {} of {} failed, retrying: {}", jobId, job.getAttempts(), maxAttempts, error);
+                jobRepository.updateStatus(jobId, STATUS_QUEUED, error, LocalDateTime.now());
+                done = false;
+            } else {
+                logger.error("Audio job {} failed: {}", jobId, error, e);
+                jobRepository.updateStatus(jobId, STATUS_FAILED, error, LocalDateTime.now());
+            }
+        }
+
+        if (done) {
+            deleteSpool(spoolPath);
+            jobRepository.findById(jobId).ifPresent(finished -> notifyUser(toDTO(finished)));
+        } else {
+            try {
+                enqueue(jobId);
+            } catch (TaskRejectedException e) {
+                // Left as queued with its spool; picked up again by the stale-job sweep
+                logger.warn("Job queue full, retry of {} will wait for the stale-job sweep", jobId);
+            }
+        }
+    }
+
+    private void deleteSpool(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            // Best effort; a leftover spool file is harmless
+            logger.debug("Could not delete spool file {}: {}", path, e.getMessage());
+        }
+    }
+
+    private void notifyUser(AudioJobDTO job) {
+        if (job.getUserId() == null) {
+            return;
+        }
+        try {
+            messagingTemplate.convertAndSendToUser(StompAuthentication.userName("user", job.getUserId()), "/queue/audio-jobs", job);
+        } catch (Exception e) {
+            logger.error("Failed to push audio job {} status: {}", job.getJobId(), e.getMessage());
+        }
+    }
+
+    private void purgeFinishedJobs() {
+        try {
+            jobRepository.deleteFinishedBefore(FINISHED_STATUSES, LocalDateTime.now().minusMinutes(retentionMinutes));
+        } catch (Exception e) {
+            logger.warn("Failed to purge finished audio jobs: {}", e.getMessage());
+        }
+    }
+
+    private AudioJobDTO toDTO(AudioJob job) {
+        return new AudioJobDTO(
+            job.getId(),
+            job.getStatus(),
+            job.getUserId(),
+            job.getAudioId(),
+            job.getCaseId(),
+            job.getError(),
+            job.getCreatedAt(),
+            job.getUpdatedAt()
+        );
+    }
+}
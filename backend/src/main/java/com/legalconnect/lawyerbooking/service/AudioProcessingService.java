@@ -4,15 +4,25 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.legalconnect.lawyerbooking.entity.AudioJob;
 import com.legalconnect.lawyerbooking.entity.ClientAudio;
 import com.legalconnect.lawyerbooking.dto.CaseRequest;
 import com.legalconnect.lawyerbooking.dto.CaseDTO;
+import com.legalconnect.lawyerbooking.repository.AudioJobRepository;
 import com.legalconnect.lawyerbooking.repository.ClientAudioRepository;
 import com.legalconnect.lawyerbooking.exception.AudioProcessingException;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
 /**
  * Service responsible for processing audio files, including:
  * 1. Transcription (Whisper)
@@ -20,6 +30,12 @@ import com.legalconnect.lawyerbooking.exception.AudioProcessingException;
  * 3. Translation
  * 4. Text-to-Speech generation
  * 5. Case creation and linking
+ *
+ * Stage graph (after transcription):
+ *   mask ──┬── tts-en
+ *          └── translate ── tts-gu
+ * Independent stages run concurrently on the audioStageExecutor pool.
+ * Every AI stage is looked up in StageResultCache first, keyed by a hash of its input.
  */
 @Service
 public class AudioProcessingService {
@@ -31,8 +47,16 @@ public class AudioProcessingService {
     private final OpenAITextToSpeechService textToSpeechService;
     private final TextTranslationService translationService;
     private final ClientAudioRepository repository;
+    private final AudioJobRepository audioJobRepository;
     private final CaseService caseService;
     private final CaseClassificationService classificationService;
+    private final Executor stageExecutor;
+    private final PipelineStageMetrics stageMetrics;
+    private final StageResultCache resultCache;
+    private final AudioBlobService blobService;
+
+    @Value("${audio.pipeline.stage-timeout-seconds:180}")
+    private long stageTimeoutSeconds;
 
     @Autowired
     public AudioProcessingService(
@@ -41,15 +65,25 @@ public class AudioProcessingService {
             OpenAITextToSpeechService textToSpeechService,
             TextTranslationService translationService,
             ClientAudioRepository repository,
+            AudioJobRepository audioJobRepository,
             CaseService caseService,
-            CaseClassificationService classificationService) {
+            CaseClassificationService classificationService,
+            @Qualifier("audioStageExecutor") Executor stageExecutor,
+            PipelineStageMetrics stageMetrics,
+            StageResultCache resultCache,
+            AudioBlobService blobService) {
         this.whisperService = whisperService;
         this.maskingService = maskingService;
         this.textToSpeechService = textToSpeechService;
         this.translationService = translationService;
         this.repository = repository;
+        this.audioJobRepository = audioJobRepository;
         this.caseService = caseService;
         this.classificationService = classificationService;
+        this.stageExecutor = stageExecutor;
+        this.stageMetrics = stageMetrics;
+        this.resultCache = resultCache;
+        this.blobService = blobService;
     }
 
     /**
@@ -59,14 +93,27 @@ public class AudioProcessingService {
      * @param caseTitle The title for the created case (optional)
      * @return The processed and saved ClientAudio entity
      */
-    @Transactional
     public ClientAudio processAndCreateCase(MultipartFile audio, Long userId, String caseTitle) {
+        return processAndCreateCase(audio, userId, caseTitle, null);
+    }
+
+    /**
+     * Resumable variant used by AudioJobService. Stage outputs already checkpointed on the
+     * job are reused, and every newly finished stage is written back before moving on.
+     * No transaction spans the pipeline so each checkpoint commits independently.
+     */
+    public ClientAudio processAndCreateCase(MultipartFile audio, Long userId, String caseTitle, AudioJob job) {
         // Core Processing Phase
-        ClientAudio clientAudio = processAudioPipeline(audio, userId);
+        ClientAudio clientAudio = processAudioPipeline(audio, userId, job);
 
         // Case Creation Phase
         if (userId != null) {
-            linkToCase(clientAudio, userId, caseTitle, audio.getOriginalFilename());
+            if (clientAudio.getCaseId() == null) {
+                linkToCase(clientAudio, userId, caseTitle, audio.getOriginalFilename());
+            }
+            if (job != null && clientAudio.getCaseId() != null) {
+                audioJobRepository.saveCaseId(job.getId(), clientAudio.getCaseId(), LocalDateTime.now());
+            }
         } else {
             logger.warn("UserId is null, skipping case creation for audio ID: {}", clientAudio.getId());
         }
@@ -83,25 +130,61 @@ public class AudioProcessingService {
         return processAndCreateCase(audio, userId, null);
     }
 
-    private ClientAudio processAudioPipeline(MultipartFile audio, Long userId) {
+    private ClientAudio processAudioPipeline(MultipartFile audio, Long userId, AudioJob job) {
         try {
-            logger.info("Starting audio pipeline for file: {} (size: {} bytes)", 
-                       audio.getOriginalFilename(), audio.getSize());
+            // Already persisted before a restart: nothing left to compute
+            if (job != null && job.getAudioId() != null) {
+                var existing = repository.findById(job.getAudioId());
+                if (existing.isPresent()) {
+                    logger.info("Job {} already saved audio {}, skipping pipeline", job.getId(), job.getAudioId());
+                    return existing.get();
+                }
+            }
+
+            String jobId = job != null ? job.getId() : null;
+            logger.info("Starting audio pipeline for file: {} (size: {} bytes, job: {})", 
+                       audio.getOriginalFilename(), audio.getSize(), jobId);
+
+            // 1. Transcription (the most expensive call, never repeated once checkpointed)
+            String originalEnglish = job != null ? job.getOriginalEnglishText() : null;
+            if (originalEnglish == null) {
+                originalEnglish = timed("transcribe", () -> transcribeAudio(audio, userId));
+                checkpoint(jobId, originalEnglish, audioJobRepository::saveOriginalEnglishText);
+            }
+            final String transcript = originalEnglish;
 
-            // 1. Transcription
-            String originalEnglish = transcribeAudio(audio);
+            // 2. Masking: required, a failure fails the pipeline (unmasked text is never used)
+            CompletableFuture<String> masked = resumableStage("mask", jobId,
+                    job != null ? job.getMaskedEnglishText() : null,
+                    () -> maskPersonalInfo(transcript), null, true,
+                    audioJobRepository::saveMaskedEnglishText);
 
-            // 2. Masking
-            String maskedEnglish = maskPersonalInfo(originalEnglish);
+            // 3. Fan-out: English TTS and translation in parallel, Gujarati TTS as soon as translation is done
+            CompletableFuture<Clip> englishAudio = masked.thenCompose(
+                    text -> resumableStage("tts-en", jobId,
+                            job != null ? Clip.restored(job.getEnglishAudioRef()) : null,
+                            () -> generateEnglishAudio(text), null, false,
+                            (id, clip, now) -> clip.ref() != null
+                                    ? audioJobRepository.saveEnglishAudioRef(id, clip.ref(), now) : 0));
+            CompletableFuture<String> gujarati = masked.thenCompose(
+                    text -> resumableStage("translate", jobId,
+                            job != null ? job.getMaskedGujaratiText() : null,
+                            () -> translateToGujarati(text), null, false,
+                            audioJobRepository::saveMaskedGujaratiText));
+            CompletableFuture<Clip> gujaratiAudio = gujarati.thenCompose(
+                    text -> resumableStage("tts-gu", jobId,
+                            job != null ? Clip.restored(job.getGujaratiAudioRef()) : null,
+                            () -> generateGujaratiAudio(text), null, false,
+                            (id, clip, now) -> clip.ref() != null
+                                    ? audioJobRepository.saveGujaratiAudioRef(id, clip.ref(), now) : 0));
 
-            // 3. Audio & Translation Generation (Parallelizable in future)
-            byte[] maskedTextAudio = generateEnglishAudio(maskedEnglish);
-            String maskedGujarati = translateToGujarati(maskedEnglish);
-            byte[] maskedGujaratiAudio = generateGujaratiAudio(maskedGujarati);
+            CompletableFuture.allOf(englishAudio, gujaratiAudio).join();
 
             // 4. Persistence
-            return saveClientAudio(userId, originalEnglish, maskedEnglish, 
-                                 maskedTextAudio, maskedGujarati, maskedGujaratiAudio);
+            ClientAudio saved = saveClientAudio(userId, transcript, masked.join(), 
+                                 englishAudio.join(), gujarati.join(), gujaratiAudio.join());
+            checkpoint(jobId, saved.getId(), audioJobRepository::saveAudioId);
+            return saved;
 
         } catch (Exception e) {
             logger.error("Audio pipeline failed: {}", e.getMessage(), e);
@@ -109,14 +192,96 @@ public class AudioProcessingService {
         }
     }
 
-    private String transcribeAudio(MultipartFile audio) {
-        logger.debug("Step 1: Transcribing audio...");
-        String text = null;
+    /**
+     * Synthesized clip: a blob-store reference when a blob store is configured, otherwise the bytes.
+     * Only references are checkpointed, so with audio.blob.store=database TTS reruns on resume
+     * (cheap thanks to the TTS fragment cache) instead of parking MP3s on the job row.
+     */
+    private record Clip(byte[] data, String ref) {
+        static Clip restored(String ref) {
+            return ref != null ? new Clip(null, ref) : null;
+        }
+    }
+
+    /**
+     * Writes a finished stage's output to the job row
+     */
+    @FunctionalInterface
+    private interface CheckpointWriter<T> {
+        int save(String jobId, T value, LocalDateTime now);
+    }
+
+    private <T> void checkpoint(String jobId, T value, CheckpointWriter<T> writer) {
+        if (jobId == null || value == null) {
+            return;
+        }
         try {
-            text = whisperService.translateToEnglish(audio);
+            writer.save(jobId, value, LocalDateTime.now());
         } catch (Exception e) {
-             throw new AudioProcessingException("Whisper transcription failed", e);
+            // A lost checkpoint only costs a recomputation on resume
+            logger.warn("Failed to checkpoint job {}: {}", jobId, e.getMessage());
+        }
+    }
+
+    /**
+     * Stage that is skipped when a checkpointed output exists and checkpoints its result otherwise
+     */
+    private <T> CompletableFuture<T> resumableStage(String name, String jobId, T existing, Supplier<T> work,
+                                                    T fallback, boolean required, CheckpointWriter<T> writer) {
+        if (existing != null) {
+            logger.info("Stage {} restored from checkpoint for job {}", name, jobId);
+            return CompletableFuture.completedFuture(existing);
+        }
+        return stage(name, () -> {
+            T result = work.get();
+            checkpoint(jobId, result, writer);
+            return result;
+        }, fallback, required);
+    }
+
+    /**
+     * Runs a stage on the stage executor with its own timeout.
+     * A failed or timed-out stage resolves to the fallback instead of failing the pipeline,
+     * unless it is required.
+     */
+    private <T> CompletableFuture<T> stage(String name, Supplier<T> work, T fallback, boolean required) {
+        CompletableFuture<T> future = CompletableFuture.supplyAsync(() -> timed(name, work), stageExecutor)
+                .orTimeout(stageTimeoutSeconds, TimeUnit.SECONDS);
+        if (required) {
+            return future;
+        }
+        return future.exceptionally(ex -> {
+            logger.error("Stage {} failed or timed out, continuing without it: {}", name, ex.getMessage());
+            return fallback;
+        });
+    }
+
+    private <T> T timed(String name, Supplier<T> work) {
+        long start = System.currentTimeMillis();
+        boolean success = false;
+        try {
+            T result = work.get();
+            success = result != null; // stages signal non-blocking failure with null
+            return result;
+        } finally {
+            long elapsed = System.currentTimeMillis() - start;
+            stageMetrics.record(name, elapsed, success);
+            logger.info("Stage {} finished in {} ms (success: {})", name, elapsed, success);
         }
+    }
+
+    private String transcribeAudio(MultipartFile audio, Long userId) {
+        logger.debug("Step 1: Transcribing audio...");
+        // The transcript is unmasked: cached per user so it is purged with them, never for anonymous uploads
+        String audioHash = userId != null ? hashAudio(audio) : null;
+        String key = audioHash != null ? resultCache.hash(String.valueOf(userId), audioHash) : null;
+        String text = resultCache.text("transcribe", key, userId, () -> {
+            try {
+                return whisperService.translateToEnglish(audio);
+            } catch (Exception e) {
+                throw new AudioProcessingException("Whisper transcription failed", e);
+            }
+        }, result -> !result.trim().isEmpty());
         
         if (text == null || text.trim().isEmpty()) {
             throw new AudioProcessingException("Transcription returned empty text");
@@ -125,20 +290,34 @@ public class AudioProcessingService {
         return text;
     }
 
+    /**
+     * Content hash of the upload for the result cache; null (no caching) if it cannot be read
+     */
+    private String hashAudio(MultipartFile audio) {
+        try {
+            return resultCache.hash(audio);
+        } catch (Exception e) {
+            logger.warn("Could not hash audio for result cache: {}", e.getMessage());
+            return null;
+        }
+    }
+
     private String maskPersonalInfo(String text) {
         logger.debug("Step 2: Masking personal info...");
-        String masked = maskingService.maskEnglishPersonalInfo(text);
+        // The masking service throws on failure, so any result here is a real masked text
+        String masked = resultCache.text("mask", resultCache.hash(maskingService.cacheVariant(), text),
+                () -> maskingService.maskEnglishPersonalInfo(text),
+                result -> !result.trim().isEmpty());
         if (masked == null || masked.trim().isEmpty()) {
-            logger.warn("Masking returned empty, falling back to original");
-            return text;
+            throw new AudioProcessingException("Masking returned empty text");
         }
         return masked;
     }
 
-    private byte[] generateEnglishAudio(String text) {
+    private Clip generateEnglishAudio(String text) {
         logger.debug("Step 3: Generating English TTS...");
         try {
-            return textToSpeechService.textToSpeech(text, "en");
+            return synthesize("tts-en", text, "en");
         } catch (Exception e) {
             logger.error("English TTS failed", e);
             return null; // Non-blocking failure
@@ -148,35 +327,65 @@ public class AudioProcessingService {
     private String translateToGujarati(String text) {
         logger.debug("Step 4: Translating to Gujarati...");
         try {
-            return translationService.translateToGujarati(text);
+            // The translation service throws on failure, so any result here is a real translation
+            return resultCache.text("translate", resultCache.hash(text),
+                    () -> translationService.translateToGujarati(text),
+                    result -> !result.trim().isEmpty());
         } catch (Exception e) {
             logger.error("Gujarati translation failed", e);
             return null; // Non-blocking failure
         }
     }
 
-    private byte[] generateGujaratiAudio(String text) {
+    private Clip generateGujaratiAudio(String text) {
         if (text == null || text.trim().isEmpty()) return null;
         
         logger.debug("Step 5: Generating Gujarati TTS...");
         try {
-            return textToSpeechService.textToSpeech(text, "gu");
+            return synthesize("tts-gu", text, "gu");
         } catch (Exception e) {
             logger.error("Gujarati TTS failed", e);
             return null; // Non-blocking failure
         }
     }
 
+    /**
+     * With a blob store the clip goes straight into it (via the result cache) and only the
+     * reference travels through the pipeline
+     */
+    private Clip synthesize(String stage, String text, String language) throws IOException {
+        if (!blobService.isEnabled()) {
+            byte[] data = speak(text, language);
+            return data != null && data.length > 0 ? new Clip(data, null) : null;
+        }
+        return Clip.restored(resultCache.blob(stage, resultCache.hash(language, text), () -> speak(text, language)));
+    }
+
+    private byte[] speak(String text, String language) {
+        try {
+            return textToSpeechService.textToSpeech(text, language);
+        } catch (Exception e) {
+            throw new AudioProcessingException("Text-to-speech failed for language " + language, e);
+        }
+    }
+
     private ClientAudio saveClientAudio(Long userId, String original, String masked, 
-                                      byte[] audioEn, String gujarati, byte[] audioGu) {
+                                      Clip audioEn, String gujarati, Clip audioGu) {
         ClientAudio ca = new ClientAudio();
         ca.setUserId(userId);
         ca.setLanguage("english");
         ca.setOriginalEnglishText(original);
         ca.setMaskedEnglishText(masked);
-        ca.setMaskedTextAudio(audioEn);
         ca.setMaskedGujaratiText(gujarati);
-        ca.setMaskedGujaratiAudio(audioGu);
+        // Clips are already in the blob store when one is configured; the row keeps the reference
+        if (audioEn != null) {
+            ca.setMaskedTextAudio(audioEn.data());
+            ca.setEnglishAudioRef(audioEn.ref());
+        }
+        if (audioGu != null) {
+            ca.setMaskedGujaratiAudio(audioGu.data());
+            ca.setGujaratiAudioRef(audioGu.ref());
+        }
         return repository.save(ca);
     }
 
@@ -195,6 +404,7 @@ public class AudioProcessingService {
             logger.debug("Step 6: Classifying case category...");
             String category = classificationService.classifyCase(clientAudio.getMaskedEnglishText());
             caseRequest.setCaseCategory(category);
+            caseRequest.setCategoryAuto(true);
             
             // Generate description safely (max 500 chars)
             String description = clientAudio.getMaskedEnglishText() != null 
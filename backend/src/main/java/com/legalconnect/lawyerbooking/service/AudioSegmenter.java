@@ -0,0 +1,352 @@
+package com.legalconnect.lawyerbooking.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits long recordings into overlapping segments for parallel transcription.
+ *
+ * SUPPORTED FORMATS:
+ * - WAV (PCM / float): cut near the quietest 20ms frame around each window boundary
+ *   (16-bit PCM) or at fixed windows, each segment gets its own WAV header
+ * - MP3 (MPEG Layer III): cut at frame boundaries on fixed windows
+ * - Anything else (webm, m4a, ...) is returned as a single segment
+ *
+ * Segments are byte ranges of the original file; nothing is copied to the heap.
+ */
+@Component
+public class AudioSegmenter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AudioSegmenter.class);
+
+    private static final int[] MP3_BITRATES_V1 = {0, 32, 40, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320};
+    private static final int[] MP3_BITRATES_V2 = {0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160};
+    private static final int[] MP3_SAMPLE_RATES_V1 = {44100, 48000, 32000};
+
+    @Value("${audio.whisper.segment-seconds:300}")
+    private int segmentSeconds;
+
+    @Value("${audio.whisper.segment-overlap-seconds:2}")
+    private int overlapSeconds;
+
+    @Value("${audio.whisper.silence-search-seconds:3}")
+    private int silenceSearchSeconds;
+
+    /**
+     * A byte range of the source file, optionally preceded by a synthesized header
+     */
+    public static class AudioSegment {
+        private final int index;
+        private final long offset;
+        private final long length;
+        private final byte[] header;
+        private final String filename;
+
+        AudioSegment(int index, long offset, long length, byte[] header, String filename) {
+            this.index = index;
+            this.offset = offset;
+            this.length = length;
+            this.header = header;
+            this.filename = filename;
+        }
+
+        public int getIndex() { return index; }
+        public String getFilename() { return filename; }
+
+        public long getContentLength() {
+            return length + (header != null ? header.length : 0);
+        }
+
+        public InputStream open(Path source) throws IOException {
+            InputStream body = new RangeInputStream(FileChannel.open(source, StandardOpenOption.READ), offset, offset + length);
+            return header != null ? new SequenceInputStream(new ByteArrayInputStream(header), body) : body;
+        }
+    }
+
+    /**
+     * @return segments in playback order, or a single-element list when the file is short or cannot be split
+     */
+    public List<AudioSegment> split(Path file, String contentType, String filename) throws IOException {
+        String name = filename != null ? filename.toLowerCase() : "";
+        String type = contentType != null ? contentType.toLowerCase() : "";
+        List<AudioSegment> segments = null;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > 0) {
+                MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                if (type.contains("wav") || name.endsWith(".wav")) {
+                    segments = splitWav(buf, name);
+                } else if (type.contains("mpeg") || type.contains("mp3") || name.endsWith(".mp3")) {
+                    segments = splitMp3(buf, name);
+                }
+            }
+            if (segments == null || segments.size() < 2) {
+                return List.of(new AudioSegment(0, 0, size, null, filename));
+            }
+        }
+        logger.info("Split {} into {} segments of ~{}s", filename, segments.size(), segmentSeconds);
+        return segments;
+    }
+
+    // ================= WAV =================
+
+    private List<AudioSegment> splitWav(ByteBuffer buf, String name) {
+        buf.order(ByteOrder.LITTLE_ENDIAN);
+        int size = buf.limit();
+        if (size < 12 || !"RIFF".equals(fourCC(buf, 0)) || !"WAVE".equals(fourCC(buf, 8))) {
+            return null;
+        }
+
+        int format = -1, channels = 0, sampleRate = 0, byteRate = 0, blockAlign = 0, bits = 0;
+        long dataOffset = -1, dataLength = 0;
+        int pos = 12;
+        while (pos + 8 <= size) {
+            String id = fourCC(buf, pos);
+            long len = buf.getInt(pos + 4) & 0xFFFFFFFFL;
+            int body = pos + 8;
+            if ("fmt ".equals(id) && body + 16 <= size) {
+                format = buf.getShort(body) & 0xFFFF;
+                channels = buf.getShort(body + 2) & 0xFFFF;
+                sampleRate = buf.getInt(body + 4);
+                byteRate = buf.getInt(body + 8);
+                blockAlign = buf.getShort(body + 12) & 0xFFFF;
+                bits = buf.getShort(body + 14) & 0xFFFF;
+            } else if ("data".equals(id)) {
+                dataOffset = body;
+                dataLength = Math.min(len, size - body);
+                break;
+            }
+            pos = (int) Math.min((long) body + len + (len & 1), Integer.MAX_VALUE);
+        }
+
+        // Only plain PCM (1) and IEEE float (3) can be re-headered with a 16-byte fmt chunk
+        if (dataOffset < 0 || byteRate <= 0 || blockAlign <= 0 || (format != 1 && format != 3)) {
+            return null;
+        }
+        long windowBytes = align((long) segmentSeconds * byteRate, blockAlign);
+        if (windowBytes <= 0 || dataLength <= windowBytes) {
+            return null;
+        }
+
+        boolean pcm16 = format == 1 && bits == 16;
+        List<Long> cuts = new ArrayList<>();
+        cuts.add(0L);
+        for (long nominal = windowBytes; nominal < dataLength; nominal += windowBytes) {
+            long cut = pcm16
+                    ? quietestPoint(buf, dataOffset, dataLength, nominal, byteRate, blockAlign, sampleRate)
+                    : nominal;
+            if (cut > cuts.get(cuts.size() - 1) && cut < dataLength) {
+                cuts.add(cut);
+            }
+        }
+        cuts.add(dataLength);
+
+        long overlapBytes = align((long) overlapSeconds * byteRate, blockAlign);
+        List<AudioSegment> segments = new ArrayList<>();
+        for (int i = 0; i + 1 < cuts.size(); i++) {
+            long start = i == 0 ? 0 : Math.max(0, cuts.get(i) - overlapBytes);
+            long end = cuts.get(i + 1);
+            byte[] header = wavHeader(format, channels, sampleRate, byteRate, blockAlign, bits, end - start);
+            segments.add(new AudioSegment(i, dataOffset + start, end - start, header, segmentName(name, i, ".wav")));
+        }
+        return segments;
+    }
+
+    /**
+     * Lowest-energy 20ms frame within silenceSearchSeconds of the nominal cut (16-bit PCM only)
+     */
+    private long quietestPoint(ByteBuffer buf, long dataOffset, long dataLength, long nominal,
+                               int byteRate, int blockAlign, int sampleRate) {
+        long frameBytes = Math.max(blockAlign, align((long) blockAlign * (sampleRate / 50), blockAlign));
+        long search = align((long) silenceSearchSeconds * byteRate, blockAlign);
+        long from = Math.max(frameBytes, nominal - search);
+        long to = Math.min(dataLength - frameBytes, nominal + search);
+
+        long best = nominal;
+        double bestEnergy = Double.MAX_VALUE;
+        for (long f = align(from, blockAlign); f <= to; f += frameBytes) {
+            double energy = 0;
+            for (long b = f; b + 1 < f + frameBytes; b += 2) {
+                int sample = buf.getShort((int) (dataOffset + b));
+                energy += (double) sample * sample;
+            }
+            if (energy < bestEnergy) {
+                bestEnergy = energy;
+                best = f;
+            }
+        }
+        return best;
+    }
+
+    private static byte[] wavHeader(int format, int channels, int sampleRate, int byteRate,
+                                    int blockAlign, int bits, long dataLength) {
+        ByteBuffer h = ByteBuffer.allocate(44).order(ByteOrder.LITTLE_ENDIAN);
+        h.put("RIFF".getBytes(StandardCharsets.US_ASCII));
+        h.putInt((int) (36 + dataLength));
+        h.put("WAVE".getBytes(StandardCharsets.US_ASCII));
+        h.put("fmt ".getBytes(StandardCharsets.US_ASCII));
+        h.putInt(16);
+        h.putShort((short) format);
+        h.putShort((short) channels);
+        h.putInt(sampleRate);
+        h.putInt(byteRate);
+        h.putShort((short) blockAlign);
+        h.putShort((short) bits);
+        h.put("data".getBytes(StandardCharsets.US_ASCII));
+        h.putInt((int) dataLength);
+        return h.array();
+    }
+
+    // ================= MP3 =================
+
+    private List<AudioSegment> splitMp3(ByteBuffer buf, String name) {
+        buf.order(ByteOrder.BIG_ENDIAN);
+        int size = buf.limit();
+        int pos = 0;
+
+        // Skip ID3v2 tag
+        if (size >= 10 && buf.get(0) == 'I' && buf.get(1) == 'D' && buf.get(2) == '3') {
+            int tagSize = ((buf.get(6) & 0x7F) << 21) | ((buf.get(7) & 0x7F) << 14)
+                    | ((buf.get(8) & 0x7F) << 7) | (buf.get(9) & 0x7F);
+            pos = 10 + tagSize + ((buf.get(5) & 0x10) != 0 ? 10 : 0);
+        }
+
+        List<Integer> frameOffsets = new ArrayList<>();
+        List<Double> frameStarts = new ArrayList<>();
+        double time = 0;
+        while (pos + 4 <= size) {
+            int h = buf.getInt(pos);
+            int frameLength = 0;
+            double frameSeconds = 0;
+            if ((h >>> 21) == 0x7FF) {
+                int version = (h >>> 19) & 3;   // 0 = MPEG2.5, 2 = MPEG2, 3 = MPEG1
+                int layer = (h >>> 17) & 3;     // 1 = Layer III
+                int bitrateIndex = (h >>> 12) & 0xF;
+                int rateIndex = (h >>> 10) & 3;
+                int padding = (h >>> 9) & 1;
+                if (version != 1 && layer == 1 && bitrateIndex != 0 && bitrateIndex != 15 && rateIndex != 3) {
+                    boolean mpeg1 = version == 3;
+                    int bitrate = (mpeg1 ? MP3_BITRATES_V1 : MP3_BITRATES_V2)[bitrateIndex] * 1000;
+                    int sampleRate = MP3_SAMPLE_RATES_V1[rateIndex] >> (mpeg1 ? 0 : version == 2 ? 1 : 2);
+                    frameLength = (mpeg1 ? 144 : 72) * bitrate / sampleRate + padding;
+                    frameSeconds = (mpeg1 ? 1152.0 : 576.0) / sampleRate;
+                }
+            }
+            if (frameLength <= 4) {
+                pos++; // resync
+                continue;
+            }
+            frameOffsets.add(pos);
+            frameStarts.add(time);
+            time += frameSeconds;
+            pos += frameLength;
+        }
+
+        if (frameOffsets.isEmpty() || time <= segmentSeconds) {
+            return null;
+        }
+        int endOffset = Math.min(pos, size);
+
+        List<Integer> cutFrames = new ArrayList<>();
+        cutFrames.add(0);
+        double nextCut = segmentSeconds;
+        for (int i = 0; i < frameStarts.size(); i++) {
+            if (frameStarts.get(i) >= nextCut) {
+                cutFrames.add(i);
+                nextCut += segmentSeconds;
+            }
+        }
+
+        List<AudioSegment> segments = new ArrayList<>();
+        for (int s = 0; s < cutFrames.size(); s++) {
+            int startFrame = cutFrames.get(s);
+            if (s > 0) {
+                double overlapStart = frameStarts.get(startFrame) - overlapSeconds;
+                while (startFrame > 0 && frameStarts.get(startFrame - 1) >= overlapStart) {
+                    startFrame--;
+                }
+            }
+            int start = frameOffsets.get(startFrame);
+            int end = s + 1 < cutFrames.size() ? frameOffsets.get(cutFrames.get(s + 1)) : endOffset;
+            segments.add(new AudioSegment(s, start, end - start, null, segmentName(name, s, ".mp3")));
+        }
+        return segments;
+    }
+
+    // ================= Helpers =================
+
+    private static String fourCC(ByteBuffer buf, int pos) {
+        byte[] id = new byte[4];
+        for (int i = 0; i < 4; i++) {
+            id[i] = buf.get(pos + i);
+        }
+        return new String(id, StandardCharsets.US_ASCII);
+    }
+
+    private static long align(long value, int blockAlign) {
+        return value - (value % blockAlign);
+    }
+
+    private static String segmentName(String name, int index, String extension) {
+        String base = name.isEmpty() ? "audio" : name.replaceAll("\\.[^.]*$", "");
+        return base + "-part" + (index + 1) + extension;
+    }
+
+    /**
+     * Streams [start, end) of a file using positional reads
+     */
+    private static final class RangeInputStream extends InputStream {
+        private final FileChannel channel;
+        private long position;
+        private final long end;
+
+        RangeInputStream(FileChannel channel, long start, long end) {
+            this.channel = channel;
+            this.position = start;
+            this.end = end;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            int n = read(one, 0, 1);
+            return n < 0 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (position >= end) {
+                return -1;
+            }
+            int toRead = (int) Math.min(len, end - position);
+            int n = channel.read(ByteBuffer.wrap(b, off, toRead), position);
+            if (n < 0) {
+                return -1;
+            }
+            position += n;
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.legalconnect.lawyerbooking.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * AUDIO STREAMING
+ *
+ * PURPOSE: Serve synthesized audio as ranged binary streams
+ * - Clips with a blob reference are served by AudioBlobService; the content hash is the ETag
+ * - Clips still in the client_audio LONGBLOBs are read with SUBSTRING in chunks of
+ *   audio.stream.chunk-bytes, so neither the JDBC driver nor the heap ever holds the whole
+ *   clip; a seek costs only the requested range. Their ETag is the MD5 from the database
+ * - Length and ETag are looked up once per clip and kept in an LRU of
+ *   audio.stream.metadata-cache-size entries; clips are immutable once written
+ */
+@Service
+public class AudioStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AudioStreamService.class);
+
+    /**
+     * Language → LONGBLOB column and blob reference column; the only column names ever put into SQL
+     */
+    private static final Map<String, String[]> COLUMNS = Map.of(
+            "english", new String[] {"masked_text_audio", "english_audio_ref"},
+            "gujarati", new String[] {"masked_gujarati_audio", "gujarati_audio_ref"});
+
+    @Autowired
+    private AudioBlobService blobService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${audio.stream.chunk-bytes:262144}")
+    private int chunkBytes;
+
+    private final Map<String, AudioInfo> metadata;
+
+    public AudioStreamService(@Value("${audio.stream.metadata-cache-size:5000}") int metadataCacheSize) {
+        this.metadata = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, AudioInfo> eldest) {
+                return size() > metadataCacheSize;
+            }
+        });
+    }
+
+    /**
+     * Length and ETag of a clip; empty when the record or its audio does not exist
+     */
+    public Optional<AudioInfo> getInfo(Long id, String language) throws IOException {
+        String[] columns = columns(language);
+        String key = id + ":" + language;
+        AudioInfo cached = metadata.get(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        // Length and MD5 of the LONGBLOB are only computed for clips not yet moved to a blob store
+        List<Object[]> rows = jdbcTemplate.query(
+                "SELECT " + columns[1] + ", " +
+                "CASE WHEN " + columns[1] + " IS NULL THEN OCTET_LENGTH(" + columns[0] + ") END, " +
+                "CASE WHEN " + columns[1] + " IS NULL THEN MD5(" + columns[0] + ") END " +
+                "FROM client_audio WHERE id = ?",
+                (rs, i) -> new Object[] {rs.getString(1), rs.getObject(2) == null ? 0L : rs.getLong(2), rs.getString(3)},
+                id);
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+
+        String ref = (String) rows.get(0)[0];
+        AudioInfo info;
+        if (ref != null) {
+            long size = blobService.size(ref);
+            info = size > 0 ? new AudioInfo(size, "\"" + AudioBlobService.key(ref) + "\"", ref) : null;
+        } else {
+            long length = (Long) rows.get(0)[1];
+            info = length > 0 ? new AudioInfo(length, "\"" + rows.get(0)[2] + "\"", null) : null;
+        }
+        if (info == null) {
+            return Optional.empty();
+        }
+        metadata.put(key, info);
+        return Optional.of(info);
+    }
+
+    /**
+     * Copy bytes [start, start + length) of a clip to {@code out}
+     */
+    public void copyRange(Long id, String language, AudioInfo info, long start, long length, OutputStream out) throws IOException {
+        if (info.getRef() != null) {
+            blobService.copyRange(info.getRef(), start, length, out);
+            return;
+        }
+
+        String[] columns = columns(language);
+        String sql = "SELECT SUBSTRING(" + columns[0] + ", ?, ?), " + columns[1] + " FROM client_audio WHERE id = ?";
+        long position = start;
+        long end = start + length;
+        while (position < end) {
+            int size = (int) Math.min(chunkBytes, end - position);
+            // SUBSTRING positions are 1-based
+            List<Object[]> chunk = jdbcTemplate.query(sql, (rs, i) -> new Object[] {rs.getBytes(1), rs.getString(2)},
+                    position + 1, size, id);
+            byte[] bytes = chunk.isEmpty() ? null : (byte[]) chunk.get(0)[0];
+            if (bytes == null || bytes.length == 0) {
+                String ref = chunk.isEmpty() ? null : (String) chunk.get(0)[1];
+                if (ref != null) {
+                    // Moved to the blob store while streaming: same bytes, continue from there
+                    metadata.remove(id + ":" + language);
+                    blobService.copyRange(ref, position, end - position, out);
+                    return;
+                }
+                logger.warn("Audio {} ({}) ended at byte {} of {}", id, language, position, end);
+                break;
+            }
+            out.write(bytes);
+            position += bytes.length;
+        }
+        out.flush();
+    }
+
+    private static String[] columns(String language) {
+        String[] columns = COLUMNS.get(language);
+        if (columns == null) {
+            throw new IllegalArgumentException("Unsupported audio language: " + language);
+        }
+        return columns;
+    }
+
+    public static class AudioInfo {
+        private final long length;
+        private final String etag;
+        private final String ref;
+
+        AudioInfo(long length, String etag, String ref) {
+            this.length = length;
+            this.etag = etag;
+            this.ref = ref;
+        }
+
+        public long getLength() { return length; }
+        public String getEtag() { return etag; }
+        public String getRef() { return ref; }
+    }
+}
@@ -59,6 +59,17 @@ public class AuthorizationService {
         throw new com.legalconnect.lawyerbooking.exception.UnauthorizedException("User not authenticated");
     }
 
+    /**
+     * Verifies that the current principal is an admin
+     */
+    public void verifyAdmin() {
+        com.legalconnect.lawyerbooking.security.UserPrincipal currentUser = getCurrentUser();
+        if (!"admin".equalsIgnoreCase(currentUser.getUserType())) {
+            logger.warn("ACCESS DENIED: {} {} attempted an admin operation", currentUser.getUserType(), currentUser.getUserId());
+            throw new UnauthorizedException("Admin access required");
+        }
+    }
+
     /**
      * Verifies that the current user/lawyer has access to a specific case
      */
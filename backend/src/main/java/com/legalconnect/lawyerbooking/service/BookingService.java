@@ -15,8 +15,13 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -96,30 +101,22 @@ public class BookingService {
 
     public List<AppointmentDTO> getUserAppointments(Long userId) {
         List<Appointment> appointments = appointmentRepository.findByUserIdOrderByAppointmentDateDesc(userId);
-        return appointments.stream()
-            .map(this::convertToDTO)
-            .collect(Collectors.toList());
+        return convertToDTOs(appointments);
     }
 
     public List<AppointmentDTO> getLawyerAppointments(Long lawyerId) {
         List<Appointment> appointments = appointmentRepository.findByLawyerIdOrderByAppointmentDateDesc(lawyerId);
-        return appointments.stream()
-            .map(this::convertToDTO)
-            .collect(Collectors.toList());
+        return convertToDTOs(appointments);
     }
 
     public List<AppointmentDTO> getUpcomingUserAppointments(Long userId) {
         List<Appointment> appointments = appointmentRepository.findUpcomingByUserId(userId, LocalDateTime.now());
-        return appointments.stream()
-            .map(this::convertToDTO)
-            .collect(Collectors.toList());
+        return convertToDTOs(appointments);
     }
 
     public List<AppointmentDTO> getUpcomingLawyerAppointments(Long lawyerId) {
         List<Appointment> appointments = appointmentRepository.findUpcomingByLawyerId(lawyerId, LocalDateTime.now());
-        return appointments.stream()
-            .map(this::convertToDTO)
-            .collect(Collectors.toList());
+        return convertToDTOs(appointments);
     }
 
     public AppointmentDTO getAppointmentById(Long appointmentId) {
@@ -259,32 +256,54 @@ public class BookingService {
     }
 
     private AppointmentDTO convertToDTO(Appointment appointment) {
-        AppointmentDTO dto = new AppointmentDTO();
-        dto.setId(appointment.getId());
-        dto.setUserId(appointment.getUserId());
-        dto.setLawyerId(appointment.getLawyerId());
-        dto.setAppointmentDate(appointment.getAppointmentDate());
-        dto.setDurationMinutes(appointment.getDurationMinutes());
-        dto.setStatus(appointment.getStatus());
-        dto.setMeetingType(appointment.getMeetingType());
-        dto.setDescription(appointment.getDescription());
-        dto.setNotes(appointment.getNotes());
-        dto.setCaseId(appointment.getCaseId());
-        dto.setCreatedAt(appointment.getCreatedAt());
-        dto.setUpdatedAt(appointment.getUpdatedAt());
-
-        // Fetch user and lawyer names
-        Optional<User> userOpt = userRepository.findById(appointment.getUserId());
-        Optional<Lawyer> lawyerOpt = lawyerRepository.findById(appointment.getLawyerId());
-        
-        if (userOpt.isPresent()) {
-            dto.setUserFullName(userOpt.get().getFullName());
+        return convertToDTOs(List.of(appointment)).get(0);
+    }
+
+    /**
+     * Converts a list of appointments to DTOs, resolving user and lawyer names
+     * with one findAllById per table instead of two lookups per appointment.
+     */
+    private List<AppointmentDTO> convertToDTOs(List<Appointment> appointments) {
+        if (appointments.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> lawyerIds = new HashSet<>();
+        for (Appointment appointment : appointments) {
+            userIds.add(appointment.getUserId());
+            lawyerIds.add(appointment.getLawyerId());
+        }
+
+        Map<Long, String> userNames = new HashMap<>();
+        for (User user : userRepository.findAllById(userIds)) {
+            userNames.put(user.getId(), user.getFullName());
         }
-        if (lawyerOpt.isPresent()) {
-            dto.setLawyerFullName(lawyerOpt.get().getFullName());
+        Map<Long, String> lawyerNames = new HashMap<>();
+        for (Lawyer lawyer : lawyerRepository.findAllById(lawyerIds)) {
+            lawyerNames.put(lawyer.getId(), lawyer.getFullName());
         }
 
-        return dto;
+        List<AppointmentDTO> dtos = new ArrayList<>(appointments.size());
+        for (Appointment appointment : appointments) {
+            AppointmentDTO dto = new AppointmentDTO();
+            dto.setId(appointment.getId());
+            dto.setUserId(appointment.getUserId());
+            dto.setLawyerId(appointment.getLawyerId());
+            dto.setAppointmentDate(appointment.getAppointmentDate());
+            dto.setDurationMinutes(appointment.getDurationMinutes());
+            dto.setStatus(appointment.getStatus());
+            dto.setMeetingType(appointment.getMeetingType());
+            dto.setDescription(appointment.getDescription());
+            dto.setNotes(appointment.getNotes());
+            dto.setCaseId(appointment.getCaseId());
+            dto.setCreatedAt(appointment.getCreatedAt());
+            dto.setUpdatedAt(appointment.getUpdatedAt());
+            dto.setUserFullName(userNames.get(appointment.getUserId()));
+            dto.setLawyerFullName(lawyerNames.get(appointment.getLawyerId()));
+            dtos.add(dto);
+        }
+        return dtos;
     }
 
     private boolean isValidStatus(String status) {
@@ -7,12 +7,23 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import okhttp3.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class CaseClassificationService {
@@ -22,26 +33,49 @@ public class CaseClassificationService {
     @Value("${openai.api.key}")
     private String apiKey;
 
-    private static final String CHAT_COMPLETIONS_URL = "https://api.openai.com/v1/chat/completions";
+    // Overridable so tests can point at a local stub server
+    @Value("${openai.chat.url:https://api.openai.com/v1/chat/completions}")
+    private String chatCompletionsUrl;
 
-    private final OkHttpClient client = new OkHttpClient.Builder()
-            .connectTimeout(60, TimeUnit.SECONDS)
-            .readTimeout(60, TimeUnit.SECONDS)
-            .build();
+    private OkHttpClient client;
+
+    @Autowired
+    void setHttpClients(OpenAIHttpClients httpClients) {
+        // Shares the OpenAI connection pool; timeouts overridable per service
+        this.client = httpClients.forService("classification", 60, 60, 10);
+    }
 
     private final ObjectMapper mapper = new ObjectMapper();
 
-    private static final Map<String, String[]> KEYWORD_MAP = new HashMap<>();
+    @Autowired
+    private LocalCaseClassifier localClassifier;
 
-    static {
-        KEYWORD_MAP.put("Family", new String[]{"divorce", "custody", "alimony", "marriage", "child", "spouse", "parent"});
-        KEYWORD_MAP.put("Criminal", new String[]{"theft", "assault", "fraud", "arrest", "police", "fir", "jail", "crime", "murder"});
-        KEYWORD_MAP.put("Property", new String[]{"land", "rent", "deed", "house", "tenant", "landlord", "eviction", "mortgage"});
-        KEYWORD_MAP.put("Corporate", new String[]{"business", "contract", "merger", "startup", "company", "shares", "partnership"});
-        KEYWORD_MAP.put("Civil", new String[]{"dispute", "lawsuit", "compensation", "defamation", "negligence"});
-        KEYWORD_MAP.put("Cyber Crime", new String[]{"hacking", "online", "internet", "phishing", "scam", "cyber", "data"});
-        KEYWORD_MAP.put("Labour", new String[]{"employee", "employer", "workforce", "salary", "wage", "termination", "bonus", "union"});
-    }
+    // Below this local confidence the LLM is asked instead
+    @Value("${classification.local-confidence-threshold:0.6}")
+    private double localConfidenceThreshold;
+
+    @Value("${classification.cache.max-size:2000}")
+    private int cacheMaxSize;
+
+    // Descriptions sent to the LLM per batch prompt
+    @Value("${classification.batch-size:20}")
+    private int batchSize;
+
+    private static final int BATCH_MAX_CHARS_PER_CASE = 2000;
+
+    /**
+     * LRU cache: normalized-text hash → category
+     */
+    private final Map<String, String> cache = Collections.synchronizedMap(
+            new LinkedHashMap<String, String>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                    return size() > cacheMaxSize;
+                }
+            });
+
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
 
     private static final String CLASSIFICATION_PROMPT = """
             Act as a legal classification engine.
@@ -55,27 +89,180 @@ public class CaseClassificationService {
             Case Description:
             """;
 
+    private static final String BATCH_CLASSIFICATION_PROMPT = """
+            Act as a legal classification engine.
+            
+            For EACH numbered case description below, choose ONE category that best matches it:
+            
+            Criminal | Family | Civil | Corporate | Property | Cyber Crime | Labour
+            
+            If a description does not clearly match any category, choose "Civil".
+            Respond with a JSON object {"categories": [...]} containing exactly one category per
+            description, in the same order.
+            
+            Case Descriptions:
+            """;
+
     public String classifyCase(String maskedText) {
         if (maskedText == null || maskedText.trim().isEmpty()) {
-            return "Civil";
+            return LocalCaseClassifier.DEFAULT_CATEGORY;
+        }
+
+        // 1. Near-duplicate descriptions share a cache entry
+        String key = cacheKey(maskedText);
+        String cached = cache.get(key);
+        if (cached != null) {
+            cacheHits.incrementAndGet();
+            return cached;
         }
+        cacheMisses.incrementAndGet();
 
-        // 1. Try AI Classification
+        // 2. Local classifier; confident results skip the network round-trip
+        LocalCaseClassifier.Result local = localClassifier.classify(maskedText);
+        if (local.getConfidence() >= localConfidenceThreshold) {
+            logger.info("Classified locally as {} (confidence {})", local.getCategory(),
+                    String.format("%.2f", local.getConfidence()));
+            cache.put(key, local.getCategory());
+            return local.getCategory();
+        }
+
+        // 3. Try AI Classification
         try {
-            String aiResult = callOpenAI(maskedText);
-            System.out.println("DEBUG: AI Classification raw result: " + aiResult);
+            String aiResult = callOpenAI(CLASSIFICATION_PROMPT + maskedText + "\n\nRespond with only one word from the list.",
+                    "Respond with only one word from the specific list provided.", false);
+            logger.debug("AI classification raw result: {}", aiResult);
             if (aiResult != null && isValidCategory(aiResult)) {
                 String normalized = normalizeCategory(aiResult);
-                System.out.println("DEBUG: AI Categorized as: " + normalized);
+                logger.debug("AI categorized as: {}", normalized);
+                cache.put(key, normalized);
                 return normalized;
             }
         } catch (Exception e) {
-            System.out.println("DEBUG: AI Classification error: " + e.getMessage());
-            logger.warn("AI Classification failed, falling back to keywords: {}", e.getMessage());
+            logger.warn("AI Classification failed, falling back to local result: {}", e.getMessage());
         }
 
-        // 2. Keyword Fallback
-        return classifyWithKeywords(maskedText);
+        // 4. Low-confidence local result is still better than the default (not cached)
+        return fallbackCategory(local);
+    }
+
+    /**
+     * Classify many descriptions (admin reclassification, backfills).
+     * Cached and locally confident ones are resolved in-process; the rest go to the
+     * LLM in prompts of classification.batch-size descriptions each.
+     * @return one category per input, in input order
+     */
+    public List<String> classifyBatch(List<String> maskedTexts) {
+        long start = System.currentTimeMillis();
+        String[] results = new String[maskedTexts.size()];
+        List<Integer> pending = new ArrayList<>();
+        Map<Integer, LocalCaseClassifier.Result> locals = new HashMap<>();
+
+        for (int i = 0; i < maskedTexts.size(); i++) {
+            String text = maskedTexts.get(i);
+            if (text == null || text.trim().isEmpty()) {
+                results[i] = LocalCaseClassifier.DEFAULT_CATEGORY;
+                continue;
+            }
+            String cached = cache.get(cacheKey(text));
+            if (cached != null) {
+                cacheHits.incrementAndGet();
+                results[i] = cached;
+                continue;
+            }
+            cacheMisses.incrementAndGet();
+            LocalCaseClassifier.Result local = localClassifier.classify(text);
+            if (local.getConfidence() >= localConfidenceThreshold) {
+                results[i] = local.getCategory();
+                cache.put(cacheKey(text), results[i]);
+            } else {
+                locals.put(i, local);
+                pending.add(i);
+            }
+        }
+
+        int llmCalls = 0;
+        for (int from = 0; from < pending.size(); from += batchSize) {
+            List<Integer> group = pending.subList(from, Math.min(from + batchSize, pending.size()));
+            List<String> aiResults = classifyGroupWithAI(group, maskedTexts);
+            llmCalls++;
+            for (int g = 0; g < group.size(); g++) {
+                int index = group.get(g);
+                String aiResult = aiResults != null && g < aiResults.size() ? aiResults.get(g) : null;
+                if (aiResult != null && isValidCategory(aiResult)) {
+                    results[index] = normalizeCategory(aiResult);
+                    cache.put(cacheKey(maskedTexts.get(index)), results[index]);
+                } else {
+                    results[index] = fallbackCategory(locals.get(index));
+                }
+            }
+        }
+
+        long elapsed = Math.max(1, System.currentTimeMillis() - start);
+        logger.info("Batch classified {} cases ({} via LLM in {} calls) in {} ms ({} cases/s)",
+                results.length, pending.size(), llmCalls, elapsed,
+                String.format("%.1f", results.length * 1000.0 / elapsed));
+        return Arrays.asList(results);
+    }
+
+    public Map<String, Object> getCacheStats() {
+        long hits = cacheHits.get();
+        long total = hits + cacheMisses.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", cache.size());
+        stats.put("maxSize", cacheMaxSize);
+        stats.put("hits", hits);
+        stats.put("misses", cacheMisses.get());
+        stats.put("hitRate", total == 0 ? 0.0 : (double) hits / total);
+        return stats;
+    }
+
+    private List<String> classifyGroupWithAI(List<Integer> group, List<String> texts) {
+        StringBuilder prompt = new StringBuilder(BATCH_CLASSIFICATION_PROMPT);
+        for (int g = 0; g < group.size(); g++) {
+            String text = texts.get(group.get(g)).trim();
+            if (text.length() > BATCH_MAX_CHARS_PER_CASE) {
+                text = text.substring(0, BATCH_MAX_CHARS_PER_CASE);
+            }
+            prompt.append('\n').append(g + 1).append(". ").append(text.replaceAll("\\s+", " "));
+        }
+        try {
+            String content = callOpenAI(prompt.toString(),
+                    "Respond only with the requested JSON object.", true);
+            if (content == null) {
+                return null;
+            }
+            JsonNode categories = mapper.readTree(content).get("categories");
+            if (categories == null || !categories.isArray() || categories.size() != group.size()) {
+                logger.warn("Batch classification returned {} categories for {} cases",
+                        categories != null ? categories.size() : 0, group.size());
+                return null;
+            }
+            List<String> result = new ArrayList<>();
+            categories.forEach(c -> result.add(c.asText()));
+            return result;
+        } catch (Exception e) {
+            logger.warn("Batch AI classification failed, falling back to local results: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private String fallbackCategory(LocalCaseClassifier.Result local) {
+        return local.hasEvidence() ? local.getCategory() : LocalCaseClassifier.DEFAULT_CATEGORY;
+    }
+
+    /**
+     * Case, punctuation and whitespace differences map to the same key
+     */
+    private String cacheKey(String text) {
+        String normalized = text.toLowerCase(Locale.ROOT)
+                .replaceAll("[^\\p{L}\\p{N}\\[\\]_]+", " ")
+                .trim();
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(normalized.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            return normalized;
+        }
     }
 
     private boolean isValidCategory(String category) {
@@ -101,23 +288,26 @@ public class CaseClassificationService {
         return "Civil";
     }
 
-    private String callOpenAI(String text) throws Exception {
+    private String callOpenAI(String userContent, String systemContent, boolean jsonResponse) throws Exception {
         ObjectNode requestJson = mapper.createObjectNode();
         requestJson.put("model", "gpt-4o-mini");
         
         ArrayNode messages = mapper.createArrayNode();
         ObjectNode systemMessage = mapper.createObjectNode();
         systemMessage.put("role", "system");
-        systemMessage.put("content", "Respond with only one word from the specific list provided.");
+        systemMessage.put("content", systemContent);
         messages.add(systemMessage);
         
         ObjectNode userMessage = mapper.createObjectNode();
         userMessage.put("role", "user");
-        userMessage.put("content", CLASSIFICATION_PROMPT + text + "\n\nRespond with only one word from the list.");
+        userMessage.put("content", userContent);
         messages.add(userMessage);
         
         requestJson.set("messages", messages);
         requestJson.put("temperature", 0.0);
+        if (jsonResponse) {
+            requestJson.putObject("response_format").put("type", "json_object");
+        }
 
         RequestBody body = RequestBody.create(
                 mapper.writeValueAsString(requestJson),
@@ -125,7 +315,7 @@ public class CaseClassificationService {
         );
 
         Request request = new Request.Builder()
-                .url(CHAT_COMPLETIONS_URL)
+                .url(chatCompletionsUrl)
                 .addHeader("Authorization", "Bearer " + apiKey)
                 .post(body)
                 .build();
@@ -136,17 +326,4 @@ public class CaseClassificationService {
             return json.get("choices").get(0).get("message").get("content").asText().trim();
         }
     }
-
-    private String classifyWithKeywords(String text) {
-        String lowerText = text.toLowerCase();
-        for (Map.Entry<String, String[]> entry : KEYWORD_MAP.entrySet()) {
-            for (String keyword : entry.getValue()) {
-                if (lowerText.contains(keyword)) {
-                    logger.info("Classified via keyword '{}' as {}", keyword, entry.getKey());
-                    return entry.getKey();
-                }
-            }
-        }
-        return "Civil";
-    }
 }
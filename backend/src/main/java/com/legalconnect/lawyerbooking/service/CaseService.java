@@ -12,6 +12,7 @@ import com.legalconnect.lawyerbooking.repository.LawyerRepository;
 import com.legalconnect.lawyerbooking.repository.ClientAudioRepository;
 import com.legalconnect.lawyerbooking.dto.CaseDTO;
 import com.legalconnect.lawyerbooking.dto.CaseRequest;
+import com.legalconnect.lawyerbooking.util.LawyerRequestTopics;
 
 import java.util.List;
 import java.util.Map;
@@ -50,11 +51,14 @@ public class CaseService {
         
         // Automatic Classification if not provided
         String category = request.getCaseCategory();
+        boolean categoryAuto = request.isCategoryAuto();
         if (category == null || category.trim().isEmpty()) {
             category = classificationService.classifyCase(request.getDescription());
+            categoryAuto = true;
             logger.info("Automatically classified case as: {}", category);
         }
         caseEntity.setCaseCategory(category);
+        caseEntity.setCategoryAuto(categoryAuto); // only auto categories may be reclassified later
         
         caseEntity.setDescription(request.getDescription());
         caseEntity.setCaseStatus("open");
@@ -80,9 +84,10 @@ public class CaseService {
                 System.err.println(">>> [WS BROADCAST ERROR] messagingTemplate is NULL!");
                 logger.error("CRITICAL: messagingTemplate is NULL in CaseService!");
             } else {
-                logger.info("DEBUG: Attempting to send LawyerCaseRequest to /topic/lawyer/requests for Case ID: {}. Category: {}", requestPayload.getCaseId(), requestPayload.getCategory());
-                messagingTemplate.convertAndSend("/topic/lawyer/requests", requestPayload);
-                System.out.println(">>> [WS BROADCAST SUCCESS] Sent to /topic/lawyer/requests for Case: " + dto.getId());
+                // Only lawyers subscribed to this category's channel receive the request
+                String destination = LawyerRequestTopics.requests(requestPayload.getCategory());
+                logger.info("DEBUG: Attempting to send LawyerCaseRequest to {} for Case ID: {}. Category: {}", destination, requestPayload.getCaseId(), requestPayload.getCategory());
+                messagingTemplate.convertAndSend(destination, requestPayload);
                 logger.info("SUCCESS: Sent new case request for case ID: {}", dto.getId());
             }
         } catch (Exception e) {
@@ -162,21 +167,17 @@ public class CaseService {
         CaseDTO dto = convertToDTO(updated);
 
         // SYNC: Update any linked ClientAudio record so it reflects the assigned lawyer
+        // (one UPDATE; loading the entities would pull their audio LOBs)
         try {
-            java.util.List<com.legalconnect.lawyerbooking.entity.ClientAudio> audios = 
-                clientAudioRepository.findByCaseId(caseId);
-            for (com.legalconnect.lawyerbooking.entity.ClientAudio audio : audios) {
-                audio.setLawyerId(lawyerId);
-                clientAudioRepository.save(audio);
-                logger.info("Updated ClientAudio {} with lawyerId {}", audio.getId(), lawyerId);
-            }
+            int updatedAudios = clientAudioRepository.assignLawyerByCaseId(caseId, lawyerId);
+            logger.info("Updated {} ClientAudio records of case {} with lawyerId {}", updatedAudios, caseId, lawyerId);
         } catch (Exception e) {
             logger.error("Failed to sync ClientAudio with case assignment: {}", e.getMessage());
         }
 
-        // Broadcast that a case has been taken (to refresh other lawyers' lists)
+        // Broadcast that a case has been taken to the lawyers who were offered it
         try {
-            messagingTemplate.convertAndSend("/topic/lawyer/updates", Map.of(
+            messagingTemplate.convertAndSend(LawyerRequestTopics.updates(category), Map.of(
                 "type", "CASE_ASSIGNED",
                 "caseId", caseId,
                 "lawyerId", lawyerId
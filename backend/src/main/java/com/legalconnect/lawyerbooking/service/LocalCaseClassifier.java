@@ -0,0 +1,160 @@
+package com.legalconnect.lawyerbooking.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Offline case classifier using weighted keyword scoring.
+ *
+ * - Text is tokenized once; unigrams and bigrams are looked up in a term → weight lexicon
+ * - Repeated terms count sublinearly (1 + ln tf) so one word cannot dominate
+ * - Every category is scored; ties resolve in CATEGORIES order
+ * - Confidence = top / (top + runner-up + 1): high only with strong, unambiguous evidence
+ */
+@Component
+public class LocalCaseClassifier {
+
+    public static final String DEFAULT_CATEGORY = "Civil";
+
+    public static final List<String> CATEGORIES =
+            List.of("Criminal", "Family", "Civil", "Corporate", "Property", "Cyber Crime", "Labour");
+
+    private static final Pattern TOKEN = Pattern.compile("[\\p{L}\\p{N}]+");
+
+    /**
+     * term → (category → weight); 2.0 = specific to the category, 1.0 = typical, 0.5 = weak hint
+     */
+    private static final Map<String, Map<String, Double>> LEXICON = new HashMap<>();
+
+    static {
+        terms("Family", 2.0, "divorce", "custody", "alimony", "dowry", "adoption", "guardianship",
+                "domestic violence", "child custody", "matrimonial");
+        terms("Family", 1.5, "marriage", "spouse", "maintenance", "separation");
+        terms("Family", 1.0, "married", "husband", "wife", "child", "children", "parent", "parents");
+
+        terms("Criminal", 2.0, "theft", "robbery", "assault", "arrest", "arrested", "fir", "jail", "bail",
+                "murder", "kidnapping", "kidnapped", "extortion", "chargesheet");
+        terms("Criminal", 1.5, "fraud", "cheating", "stolen", "bribe", "threatened", "attacked");
+        terms("Criminal", 1.0, "police", "crime", "accused", "complaint");
+
+        terms("Property", 2.0, "deed", "sale deed", "tenant", "landlord", "eviction", "mortgage",
+                "encroachment", "mutation", "lease");
+        terms("Property", 1.5, "land", "rent", "property", "builder", "possession");
+        terms("Property", 1.0, "house", "plot", "flat", "registry", "society");
+
+        terms("Corporate", 2.0, "merger", "startup", "shareholder", "shareholders", "trademark", "incorporation");
+        terms("Corporate", 1.5, "company", "shares", "partnership", "gst", "directors", "investor");
+        terms("Corporate", 1.0, "business", "contract", "director", "invoice", "vendor");
+
+        terms("Civil", 2.0, "defamation", "injunction", "cheque bounce", "consumer court");
+        terms("Civil", 1.5, "lawsuit", "negligence", "consumer", "refund");
+        terms("Civil", 1.0, "dispute", "compensation", "damages", "recovery", "loan", "neighbour", "neighbor");
+
+        terms("Cyber Crime", 2.0, "hacking", "hacked", "phishing", "cyber", "otp", "morphed",
+                "fake profile", "cyber crime", "identity theft");
+        terms("Cyber Crime", 1.5, "scam", "upi", "password", "social media", "instagram", "facebook");
+        terms("Cyber Crime", 1.0, "online", "internet", "whatsapp", "email", "website");
+        terms("Cyber Crime", 0.5, "data");
+
+        terms("Labour", 2.0, "gratuity", "provident fund", "overtime", "wrongful termination");
+        terms("Labour", 1.5, "employee", "employer", "salary", "wage", "wages", "termination", "terminated", "pf");
+        terms("Labour", 1.0, "workforce", "bonus", "union", "fired", "dismissed", "workplace", "job");
+    }
+
+    private static void terms(String category, double weight, String... terms) {
+        for (String term : terms) {
+            LEXICON.computeIfAbsent(term, k -> new HashMap<>()).put(category, weight);
+        }
+    }
+
+    /**
+     * Scores for every category, the winner, and how sure the classifier is
+     */
+    public static class Result {
+        private final String category;
+        private final double confidence;
+        private final Map<String, Double> scores;
+
+        Result(String category, double confidence, Map<String, Double> scores) {
+            this.category = category;
+            this.confidence = confidence;
+            this.scores = Collections.unmodifiableMap(scores);
+        }
+
+        public String getCategory() { return category; }
+        public double getConfidence() { return confidence; }
+        public Map<String, Double> getScores() { return scores; }
+
+        public boolean hasEvidence() {
+            return scores.getOrDefault(category, 0.0) > 0;
+        }
+    }
+
+    public Result classify(String text) {
+        Map<String, Integer> termFrequency = new HashMap<>();
+        if (text != null) {
+            List<String> tokens = tokenize(text);
+            String previous = null;
+            for (String token : tokens) {
+                count(termFrequency, token);
+                if (previous != null) {
+                    count(termFrequency, previous + " " + token);
+                }
+                previous = token;
+            }
+        }
+
+        Map<String, Double> scores = new LinkedHashMap<>();
+        CATEGORIES.forEach(c -> scores.put(c, 0.0));
+        termFrequency.forEach((term, tf) -> {
+            double sublinear = 1 + Math.log(tf);
+            LEXICON.get(term).forEach((category, weight) -> scores.merge(category, weight * sublinear, Double::sum));
+        });
+
+        String best = DEFAULT_CATEGORY;
+        double top = 0;
+        double second = 0;
+        for (Map.Entry<String, Double> e : scores.entrySet()) {
+            double score = e.getValue();
+            if (score > top) {
+                second = top;
+                top = score;
+                best = e.getKey();
+            } else if (score > second) {
+                second = score;
+            }
+        }
+
+        double confidence = top / (top + second + 1.0);
+        return new Result(best, confidence, scores);
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        Matcher m = TOKEN.matcher(text.toLowerCase(Locale.ROOT));
+        while (m.find()) {
+            tokens.add(m.group());
+        }
+        return tokens;
+    }
+
+    private static void count(Map<String, Integer> termFrequency, String term) {
+        String match = LEXICON.containsKey(term) ? term : null;
+        // Light plural folding: "tenants" → "tenant"
+        if (match == null && term.length() > 3 && term.endsWith("s") && LEXICON.containsKey(term.substring(0, term.length() - 1))) {
+            match = term.substring(0, term.length() - 1);
+        }
+        if (match != null) {
+            termFrequency.merge(match, 1, Integer::sum);
+        }
+    }
+}
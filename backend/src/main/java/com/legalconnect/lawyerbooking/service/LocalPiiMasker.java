@@ -0,0 +1,166 @@
+package com.legalconnect.lawyerbooking.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-process PII masking with precompiled patterns and dictionaries.
+ * Uses the same mask tokens as the LLM prompt in TextMaskingService.
+ *
+ * Catches structured PII reliably (emails, phones, Aadhaar/PAN, dates of birth,
+ * street addresses, known city names) and names introduced by an honorific or
+ * a phrase like "my name is". Free-standing names need the LLM; mayContainNames
+ * decides conservatively whether a text can skip it.
+ */
+@Component
+public class LocalPiiMasker {
+
+    private static final String NAME = "[NAME_MASKED]";
+    private static final String PHONE = "[PHONE_MASKED]";
+    private static final String EMAIL = "[EMAIL_MASKED]";
+    private static final String ADDRESS = "[ADDRESS_MASKED]";
+    private static final String ID = "[ID_MASKED]";
+    private static final String DOB = "[DOB_MASKED]";
+
+    private static final String CITIES = String.join("|",
+            "Ahmedabad", "Surat", "Vadodara", "Baroda", "Rajkot", "Bhavnagar", "Jamnagar", "Gandhinagar",
+            "Junagadh", "Anand", "Nadiad", "Navsari", "Bharuch", "Mehsana", "Morbi", "Porbandar", "Valsad",
+            "Vapi", "Palanpur", "Bhuj", "Godhra", "Patan", "Amreli", "Surendranagar", "Botad", "Veraval",
+            "Mumbai", "Pune", "Delhi", "New Delhi", "Bengaluru", "Bangalore", "Chennai", "Kolkata",
+            "Hyderabad", "Jaipur", "Udaipur", "Indore", "Bhopal", "Lucknow", "Nagpur");
+
+    private static final String STREET_WORDS =
+            "(?:road|rd|street|st|lane|nagar|society|colony|marg|chowk|sector|apartments?|complex|park|vas|pol)\\b\\.?";
+
+    private static final String NAME_WORDS = "[A-Z][a-z]+(?:\\s+[A-Z][a-z]+){0,2}";
+
+    /**
+     * Applied in order; IDs before phones so a 12-digit Aadhaar is not read as a phone number
+     */
+    private static final List<Rule> RULES = List.of(
+            new Rule(Pattern.compile("[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}"), EMAIL),
+            new Rule(Pattern.compile("\\b[A-Z]{5}\\d{4}[A-Z]\\b"), ID),
+            new Rule(Pattern.compile("(?<![\\d-])[2-9]\\d{3}[\\s-]?\\d{4}[\\s-]?\\d{4}(?![\\d-])"), ID),
+            new Rule(Pattern.compile("(?<![\\w+])(?:(?:\\+|00)?91[\\s-]?|0)?[6-9]\\d{4}[\\s-]?\\d{5}(?!\\d)"), PHONE),
+            new Rule(Pattern.compile("(?<!\\d)0\\d{2,4}[\\s-]\\d{6,8}(?!\\d)"), PHONE),
+            new Rule(Pattern.compile("(?i)\\b(?:date of birth|d\\.?o\\.?b\\.?|born on)\\s*(?:is|:|-)?\\s*"
+                    + "(\\d{1,2}[/.-]\\d{1,2}[/.-]\\d{2,4}"
+                    + "|\\d{1,2}(?:st|nd|rd|th)?\\s+[A-Za-z]{3,9},?\\s+\\d{4}"
+                    + "|[A-Za-z]{3,9}\\s+\\d{1,2}(?:st|nd|rd|th)?,?\\s+\\d{4})"), DOB, 1),
+            new Rule(Pattern.compile("(?i)\\b(?:house|flat|plot|block|door|shop|h\\.?\\s?no\\.?)\\s*(?:no\\.?|number)?\\s*[:#-]?\\s*"
+                    + "\\d+[A-Za-z]?(?:\\s*/\\s*\\d+)?(?:[,\\s]+[A-Za-z0-9.'-]+){0,6}?[,\\s]+"
+                    + STREET_WORDS + "(?:\\s+" + STREET_WORDS + ")*"), ADDRESS),
+            new Rule(Pattern.compile("(?i)\\b(?:pin\\s?code|pin)\\s*[:-]?\\s*\\d{3}\\s?\\d{3}\\b"), ADDRESS),
+            new Rule(Pattern.compile("\\b(?:" + CITIES + ")\\b"), ADDRESS),
+            new Rule(Pattern.compile("\\b(?:Mr|Mrs|Ms|Miss|Dr|Shri|Shree|Smt|Kumari|Adv)\\.?\\s+(" + NAME_WORDS + ")"), NAME, 1),
+            new Rule(Pattern.compile("(?i:\\bmy name is|\\bname is|\\b(?:son|daughter|wife|husband) of)\\s+(" + NAME_WORDS + ")"), NAME, 1)
+    );
+
+    /**
+     * Any word starting with a capital letter, wherever it appears (sentence starts and
+     * two-letter names like "Om" included). Mask tokens never match: the "_" inside them
+     * is a word character, so there is no word boundary after NAME, PII, ...
+     */
+    private static final Pattern CAPITALIZED_WORD = Pattern.compile("\\b[A-Z][A-Za-z']*\\b");
+
+    /**
+     * Capitalized words known not to be names (lower case): calendar words, legal and
+     * place vocabulary, and the function words and fillers that start English sentences.
+     * Anything else capitalized is treated as a possible name.
+     */
+    private static final Set<String> COMMON_CAPITALIZED = Set.of(
+            "january", "february", "march", "april", "may", "june", "july", "august", "september",
+            "october", "november", "december", "monday", "tuesday", "wednesday", "thursday", "friday",
+            "saturday", "sunday", "court", "high", "supreme", "district", "police", "station", "act",
+            "section", "india", "indian", "gujarat", "gujarati", "english", "hindi", "government",
+            "bank", "limited", "ltd", "company", "rupees", "aadhaar", "aadhar", "pan", "fir", "ipc",
+            // Pronouns and determiners
+            "i", "me", "my", "mine", "we", "us", "our", "you", "your", "he", "him", "his", "she", "her",
+            "it", "its", "they", "them", "their", "this", "that", "these", "those", "the", "a", "an",
+            "some", "any", "all", "both", "each", "every", "no", "none", "one", "two", "three",
+            "another", "other", "such", "what", "which", "who", "whom", "whose", "when", "where",
+            "why", "how", "there", "here",
+            // Prepositions and conjunctions
+            "in", "on", "at", "by", "for", "from", "to", "of", "with", "without", "about", "after",
+            "before", "during", "since", "until", "till", "under", "over", "between", "against",
+            "and", "but", "or", "so", "because", "although", "though", "if", "unless", "while",
+            "as", "than", "then", "also", "however", "therefore", "moreover", "meanwhile",
+            // Common sentence-initial verbs, adverbs and fillers
+            "is", "are", "was", "were", "be", "been", "am", "do", "does", "did", "have", "has", "had",
+            "can", "could", "will", "would", "shall", "should", "must", "might", "please", "yes",
+            "ok", "okay", "sir", "madam", "hello", "thank", "thanks", "now", "today", "yesterday",
+            "tomorrow", "later", "last", "next", "first", "second", "third", "finally", "again",
+            "still", "even", "only", "just", "not", "never", "always", "sometimes", "once", "actually",
+            "basically", "recently", "suddenly", "let", "tell", "help", "give"
+    );
+
+    /**
+     * Mask all structured PII found by the local rules
+     */
+    public String mask(String text) {
+        if (text == null || text.isEmpty()) {
+            return text;
+        }
+        String result = text;
+        for (Rule rule : RULES) {
+            result = rule.apply(result);
+        }
+        return result;
+    }
+
+    /**
+     * True if the (already masked) text has any capitalized word that is not known
+     * vocabulary and so could be a name the local rules cannot recognise
+     */
+    public boolean mayContainNames(String maskedText) {
+        Matcher m = CAPITALIZED_WORD.matcher(maskedText);
+        while (m.find()) {
+            String word = m.group().toLowerCase();
+            if (word.endsWith("'s")) {
+                word = word.substring(0, word.length() - 2);
+            }
+            if (!COMMON_CAPITALIZED.contains(word)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Rule {
+        private final Pattern pattern;
+        private final String token;
+        private final int group;
+
+        Rule(Pattern pattern, String token) {
+            this(pattern, token, 0);
+        }
+
+        Rule(Pattern pattern, String token, int group) {
+            this.pattern = pattern;
+            this.token = token;
+            this.group = group;
+        }
+
+        String apply(String text) {
+            Matcher m = pattern.matcher(text);
+            if (!m.find()) {
+                return text;
+            }
+            StringBuilder sb = new StringBuilder(text.length());
+            int last = 0;
+            do {
+                // Replace only the captured group so lead-in words ("born on", "Mr.") stay readable
+                int start = m.start(group);
+                int end = m.end(group);
+                sb.append(text, last, start).append(token);
+                last = end;
+            } while (m.find());
+            sb.append(text, last, text.length());
+            return sb.toString();
+        }
+    }
+}
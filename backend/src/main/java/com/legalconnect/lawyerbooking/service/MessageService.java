@@ -4,13 +4,31 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import com.legalconnect.lawyerbooking.entity.Message;
+import com.legalconnect.lawyerbooking.entity.MessageReadState;
 import com.legalconnect.lawyerbooking.exception.BadRequestException;
+import com.legalconnect.lawyerbooking.exception.ResourceNotFoundException;
+import com.legalconnect.lawyerbooking.exception.UnauthorizedException;
+import com.legalconnect.lawyerbooking.security.UserPrincipal;
+import com.legalconnect.lawyerbooking.repository.MessageReadStateRepository;
 import com.legalconnect.lawyerbooking.repository.MessageRepository;
 import com.legalconnect.lawyerbooking.dto.MessageDTO;
+import com.legalconnect.lawyerbooking.dto.MessagePageDTO;
 import com.legalconnect.lawyerbooking.dto.MessageRequest;
 
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Service
@@ -18,9 +36,30 @@ public class MessageService {
 
     private static final Logger logger = LoggerFactory.getLogger(MessageService.class);
 
+    private static final int MAX_PAGE_SIZE = 200;
+
+    // Chat order, matching the ORDER BY of the keyset queries
+    private static final Comparator<Message> ORDER =
+            Comparator.comparing(Message::getCreatedAt).thenComparing(Message::getId);
+
     @Autowired
     private MessageRepository messageRepository;
 
+    @Autowired
+    private MessageReadStateRepository readStateRepository;
+
+    @Autowired
+    private UnreadCounterService unreadCounters;
+
+    @Autowired
+    private MessageWriteBehind writeBehind;
+
+    @Value("${messaging.sender-cache-seconds:300}")
+    private long senderCacheSeconds;
+
+    // "type:id" -> expiry (epoch ms) of senders already found in the database
+    private final Map<String, Long> knownSenders = new ConcurrentHashMap<>();
+
     @Autowired
     private AuthorizationService authorizationService;
 
@@ -47,12 +86,7 @@ public class MessageService {
             throw new BadRequestException("Sender ID and Type must be provided");
         }
 
-        boolean senderExists = false;
-        if ("user".equalsIgnoreCase(senderType)) {
-            senderExists = userRepository.existsById(senderId);
-        } else if ("lawyer".equalsIgnoreCase(senderType)) {
-            senderExists = lawyerRepository.existsById(senderId);
-        }
+        boolean senderExists = senderExists(senderId, senderType);
 
         if (!senderExists) {
             throw new com.legalconnect.lawyerbooking.exception.UnauthorizedException("Sender not found: " + senderType + " ID " + senderId);
@@ -75,9 +109,19 @@ public class MessageService {
         message.setReceiverType(request.getReceiverType());
         message.setMessageText(request.getMessageText().trim());
         message.setIsRead(false);
-        
-        Message saved = messageRepository.save(message);
+
+        Message saved;
+        if (writeBehind.isEnabled()) {
+            // Persisted by the background writer; the broadcast does not wait for the commit
+            message.setId(writeBehind.nextId());
+            message.setCreatedAt(LocalDateTime.now());
+            writeBehind.enqueue(message);
+            saved = message;
+        } else {
+            saved = messageRepository.save(message);
+        }
         MessageDTO dto = convertToDTO(saved);
+        unreadCounters.onMessageSent(saved.getCaseId(), saved.getReceiverId(), saved.getReceiverType());
         
         // Broadcast the message to the case topic
         messagingTemplate.convertAndSend("/topic/case/" + request.getCaseId(), dto);
@@ -85,25 +129,239 @@ public class MessageService {
         return dto;
     }
 
+    /**
+     * Positive lookups are remembered for messaging.sender-cache-seconds so a chat
+     * does not hit the users/lawyers table on every message
+     */
+    private boolean senderExists(Long senderId, String senderType) {
+        String key = senderType.toLowerCase(Locale.ROOT) + ":" + senderId;
+        long now = System.currentTimeMillis();
+        Long expiry = knownSenders.get(key);
+        if (expiry != null && expiry > now) {
+            return true;
+        }
+
+        boolean exists = false;
+        if ("user".equalsIgnoreCase(senderType)) {
+            exists = userRepository.existsById(senderId);
+        } else if ("lawyer".equalsIgnoreCase(senderType)) {
+            exists = lawyerRepository.existsById(senderId);
+        }
+
+        if (exists) {
+            if (knownSenders.size() > 10_000) {
+                knownSenders.values().removeIf(e -> e <= now);
+            }
+            knownSenders.put(key, now + senderCacheSeconds * 1000);
+        } else {
+            knownSenders.remove(key);
+        }
+        return exists;
+    }
+
     public List<MessageDTO> getMessagesByCaseId(Long caseId) {
         List<Message> messages = messageRepository.findByCaseIdOrderByCreatedAtAsc(caseId);
         return messages.stream().map(this::convertToDTO).collect(Collectors.toList());
     }
 
+    /**
+     * Keyset page of a case's chat history.
+     * No cursor: the newest {@code limit} messages. {@code before}: older than that message.
+     * {@code after}: newer than that message (catch-up after reconnect).
+     */
+    public MessagePageDTO getMessagePage(Long caseId, Long before, Long after, int limit) {
+        if (before != null && after != null) {
+            throw new BadRequestException("Use either 'before' or 'after', not both");
+        }
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // Fetch one extra row to know whether another page exists
+        PageRequest page = PageRequest.of(0, size + 1);
+
+        List<Message> rows;
+        boolean ascending = false;
+        Predicate<Message> inWindow;
+        if (before != null) {
+            LocalDateTime cursor = resolveCursor(caseId, before);
+            rows = messageRepository.findByCaseIdBefore(caseId, cursor, before, page);
+            inWindow = m -> ORDER.compare(m, cursorOf(cursor, before)) < 0;
+        } else if (after != null) {
+            LocalDateTime cursor = resolveCursor(caseId, after);
+            rows = messageRepository.findByCaseIdAfter(caseId, cursor, after, page);
+            inWindow = m -> ORDER.compare(m, cursorOf(cursor, after)) > 0;
+            ascending = true;
+        } else {
+            rows = messageRepository.findLatestByCaseId(caseId, page);
+            inWindow = m -> true;
+        }
+        rows = mergePending(caseId, rows, inWindow, ascending, size + 1);
+
+        boolean hasMore = rows.size() > size;
+        List<Message> visible = hasMore ? rows.subList(0, size) : rows;
+        List<MessageDTO> messages = visible.stream().map(this::convertToDTO).collect(Collectors.toList());
+        if (!ascending) {
+            Collections.reverse(messages);
+        }
+        return new MessagePageDTO(messages, hasMore);
+    }
+
+    /**
+     * Messages still queued by the write-behind writer are not in the table yet, but they were
+     * already broadcast: merge the ones inside the page window so history never misses them
+     */
+    private List<Message> mergePending(Long caseId, List<Message> rows, Predicate<Message> inWindow,
+                                       boolean ascending, int limit) {
+        if (!writeBehind.isEnabled()) {
+            return rows;
+        }
+        List<Message> queued = writeBehind.pendingForCase(caseId);
+        if (queued.isEmpty()) {
+            return rows;
+        }
+        // A message may be written between the query and this call: keep one copy per id
+        Map<Long, Message> byId = new LinkedHashMap<>();
+        rows.forEach(m -> byId.put(m.getId(), m));
+        queued.stream().filter(inWindow).forEach(m -> byId.putIfAbsent(m.getId(), m));
+        return byId.values().stream()
+                .sorted(ascending ? ORDER : ORDER.reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    private static Message cursorOf(LocalDateTime createdAt, Long id) {
+        Message cursor = new Message();
+        cursor.setId(id);
+        cursor.setCreatedAt(createdAt);
+        return cursor;
+    }
+
+    private LocalDateTime resolveCursor(Long caseId, Long messageId) {
+        Message queued = writeBehind.findPending(messageId);
+        if (queued != null && caseId.equals(queued.getCaseId())) {
+            return queued.getCreatedAt();
+        }
+        return messageRepository.findCreatedAtByIdAndCaseId(messageId, caseId)
+            .orElseThrow(() -> new BadRequestException("Message " + messageId + " does not belong to case " + caseId));
+    }
+
     public List<MessageDTO> getMessagesByReceiver(Long receiverId, String receiverType) {
         List<Message> messages = messageRepository.findByReceiverIdAndReceiverType(receiverId, receiverType);
         return messages.stream().map(this::convertToDTO).collect(Collectors.toList());
     }
 
+    /**
+     * Mark a single message read. Reading a message implies reading everything
+     * before it in the same chat, so this advances the receiver's watermark.
+     * Only the message's receiver, with access to its case, may do this.
+     */
     public void markMessageAsRead(Long messageId) {
-        Message message = messageRepository.findById(messageId)
-            .orElseThrow(() -> new RuntimeException("Message not found with id: " + messageId));
-        message.setIsRead(true);
-        messageRepository.save(message);
+        Message queued = writeBehind.findPending(messageId);
+        Message message = queued != null ? queued : messageRepository.findById(messageId)
+            .orElseThrow(() -> new ResourceNotFoundException("Message not found with id: " + messageId));
+        if (message.getCaseId() != null) {
+            authorizationService.verifyMessageAccess(message.getCaseId());
+        }
+        UserPrincipal currentUser = authorizationService.getCurrentUser();
+        if (!currentUser.getUserId().equals(message.getReceiverId())
+                || !currentUser.getUserType().equalsIgnoreCase(message.getReceiverType())) {
+            throw new UnauthorizedException("Only the receiver can mark a message as read");
+        }
+        if (message.getCaseId() == null) {
+            // Legacy message outside any case chat
+            message.setIsRead(true);
+            messageRepository.save(message);
+            return;
+        }
+        markCaseReadUpTo(message.getCaseId(), message.getReceiverId(), message.getReceiverType(), messageId);
+    }
+
+    /**
+     * Mark every message the participant received in the case up to {@code upToMessageId}
+     * (or the latest message when null) as read with one UPDATE, and advance their watermark.
+     * Ids past the case's latest message are clamped to it; ids of other cases are rejected.
+     * Messages still queued by the write-behind writer count as part of the case.
+     * @return number of messages that changed from unread to read
+     */
+    public int markCaseReadUpTo(Long caseId, Long participantId, String participantType, Long upToMessageId) {
+        String type = participantType.toLowerCase(Locale.ROOT);
+        // Queue first: a message written in between is then found in the database
+        Long latestQueued = writeBehind.latestPending(caseId);
+        Long latest = messageRepository.findMaxIdByCaseId(caseId).orElse(null);
+        if (latestQueued != null && (latest == null || latestQueued > latest)) {
+            latest = latestQueued;
+        }
+        if (latest == null) {
+            return 0;
+        }
+        long upTo;
+        if (upToMessageId == null || upToMessageId >= latest) {
+            upTo = latest;
+        } else if (isInCase(upToMessageId, caseId)) {
+            upTo = upToMessageId;
+        } else {
+            throw new BadRequestException("Message " + upToMessageId + " does not belong to case " + caseId);
+        }
+
+        int updated = messageRepository.markReadUpTo(caseId, participantId, type, upTo);
+        advanceWatermark(caseId, participantId, type, upTo);
+        long lastRead = getLastReadMessageId(caseId, participantId, type);
+        long remaining = messageRepository.countReceivedAfter(caseId, participantId, type, lastRead)
+            + writeBehind.countPendingReceivedAfter(caseId, participantId, type, lastRead);
+        unreadCounters.onRead(caseId, participantId, type, remaining);
+        logger.debug("Marked {} messages read in case {} for {} {} (up to {})", updated, caseId, type, participantId, upTo);
+        return updated;
+    }
+
+    private boolean isInCase(Long messageId, Long caseId) {
+        Message queued = writeBehind.findPending(messageId);
+        if (queued != null) {
+            return caseId.equals(queued.getCaseId());
+        }
+        return messageRepository.findCreatedAtByIdAndCaseId(messageId, caseId).isPresent();
+    }
+
+    /**
+     * Last message id the participant has read in the case, 0 if none
+     */
+    public long getLastReadMessageId(Long caseId, Long participantId, String participantType) {
+        return readStateRepository.findById(MessageReadState.key(caseId, participantType.toLowerCase(Locale.ROOT), participantId))
+            .map(MessageReadState::getLastReadMessageId)
+            .orElse(0L);
+    }
+
+    /**
+     * Served from UnreadCounterService; the database is only read on first access and reconciliation
+     */
+    public long getUnreadMessageCount(Long caseId, Long receiverId, String receiverType) {
+        return unreadCounters.getCaseCount(caseId, receiverId, receiverType);
     }
 
     public long getUnreadMessageCount(Long receiverId, String receiverType) {
-        return messageRepository.countByReceiverIdAndReceiverTypeAndIsRead(receiverId, receiverType, false);
+        return unreadCounters.getTotal(receiverId, receiverType);
+    }
+
+    /**
+     * Monotonic: a conditional UPDATE never moves the watermark back, so concurrent
+     * or out-of-order read receipts are harmless
+     */
+    private void advanceWatermark(Long caseId, Long participantId, String participantType, Long messageId) {
+        String key = MessageReadState.key(caseId, participantType, participantId);
+        LocalDateTime now = LocalDateTime.now();
+        if (readStateRepository.advance(key, messageId, now) > 0 || readStateRepository.existsById(key)) {
+            return;
+        }
+        MessageReadState state = new MessageReadState();
+        state.setId(key);
+        state.setCaseId(caseId);
+        state.setParticipantId(participantId);
+        state.setParticipantType(participantType);
+        state.setLastReadMessageId(messageId);
+        state.setUpdatedAt(now);
+        try {
+            readStateRepository.saveAndFlush(state);
+        } catch (DataIntegrityViolationException e) {
+            // Another request created the row first
+            readStateRepository.advance(key, messageId, now);
+        }
     }
 
     // Removed resolvePrincipal as we now pass senderId in payload
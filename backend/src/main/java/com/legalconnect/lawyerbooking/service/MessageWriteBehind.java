@@ -0,0 +1,444 @@
+package com.legalconnect.lawyerbooking.service;
+
+import com.legalconnect.lawyerbooking.entity.Message;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * MESSAGE WRITE-BEHIND
+ *
+ * PURPOSE: Take the database commit off the chat send path (messaging.write-behind.enabled=true)
+ * - sendMessage assigns an id, queues the message and broadcasts it immediately
+ * - One background writer drains the queue into JDBC batch inserts
+ *   (rewriteBatchedStatements=true on the MySQL URL sends each batch as one multi-row INSERT)
+ *
+ * IDS AND SINGLE WRITER:
+ * - Allocated in blocks of messaging.write-behind.id-block-size from the message_id_sequence
+ *   table, never below MAX(messages.id) + 1
+ * - Read watermarks compare ids, so ids must follow send order. Blocks handed to several
+ *   nodes would interleave out of order, so write-behind runs on ONE node only: it holds a
+ *   lease on the sequence row (messaging.write-behind.lease-seconds, renewed in the
+ *   background) and refuses to allocate ids without it
+ * - A second write-behind node waits for the lease at startup and fails if it stays taken;
+ *   a synchronous node refuses to start while the lease is held, since its AUTO_INCREMENT
+ *   inserts could take ids from an allocated block
+ *
+ * PENDING MESSAGES:
+ * - Queued messages are not in the database yet; findPending / pendingForCase / latestPending /
+ *   countPendingReceivedAfter let reads (history pages, mark-as-read, cursors) see them
+ *
+ * DURABILITY:
+ * - Bounded queue: when full, the sender waits up to enqueue-timeout-ms, then writes
+ *   the message itself (backpressure instead of unbounded memory)
+ * - Failed batches are retried, then inserted row by row so one bad row cannot block the rest
+ * - A row that still fails is parked in message_dead_letters with the error, never dropped;
+ *   if even that insert fails the full message is logged at ERROR as a last resort
+ * - On shutdown the queue is drained before the DataSource closes; messages sent after
+ *   that point are written synchronously
+ */
+@Component
+public class MessageWriteBehind {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageWriteBehind.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO messages (id, case_id, sender_id, sender_type, receiver_id, receiver_type, " +
+            "message_text, is_read, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String DEAD_LETTER_SQL =
+            "INSERT INTO message_dead_letters (id, case_id, sender_id, sender_type, receiver_id, receiver_type, " +
+            "message_text, created_at, error, failed_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)";
+
+    private static final String ALLOCATE_SQL =
+            "UPDATE message_id_sequence SET next_val = LAST_INSERT_ID(" +
+            "GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) + 1 FROM messages)) + ?) " +
+            "WHERE name = 'messages' AND owner = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${messaging.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${messaging.write-behind.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${messaging.write-behind.batch-size:200}")
+    private int batchSize;
+
+    @Value("${messaging.write-behind.flush-interval-ms:50}")
+    private long flushIntervalMs;
+
+    @Value("${messaging.write-behind.enqueue-timeout-ms:100}")
+    private long enqueueTimeoutMs;
+
+    @Value("${messaging.write-behind.max-retries:3}")
+    private int maxRetries;
+
+    @Value("${messaging.write-behind.id-block-size:1000}")
+    private int idBlockSize;
+
+    @Value("${messaging.write-behind.shutdown-timeout-seconds:30}")
+    private long shutdownTimeoutSeconds;
+
+    @Value("${messaging.write-behind.lease-seconds:30}")
+    private long leaseSeconds;
+
+    @Value("${messaging.write-behind.node-id:${HOSTNAME:local}}")
+    private String nodeId;
+
+    // Unique per process so a restarted node does not mistake an old lease for its own
+    private String owner;
+    private volatile boolean leaseHeld;
+
+    private BlockingQueue<Message> queue;
+
+    // Queued or being written, by id
+    private final Map<Long, Message> pending = new ConcurrentHashMap<>();
+    private Thread writer;
+    private volatile boolean running;
+
+    // Current id block [nextId, blockEnd)
+    private long nextId;
+    private long blockEnd;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong directWrites = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        owner = nodeId + ":" + UUID.randomUUID().toString().substring(0, 8);
+        if (!enabled) {
+            String holder = liveLeaseHolder();
+            if (holder != null) {
+                throw new IllegalStateException("Messages are written behind by " + holder +
+                        "; set messaging.write-behind.enabled the same way on every instance");
+            }
+            return;
+        }
+        acquireLease();
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        writer = new Thread(this::runWriter, "message-writer");
+        writer.start();
+        logger.info("Message write-behind enabled (queue {}, batch {}, flush every {} ms)",
+                queueCapacity, batchSize, flushIntervalMs);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Next message id from the current block; allocates a new block when it runs out
+     */
+    public synchronized long nextId() {
+        if (nextId >= blockEnd) {
+            if (!leaseHeld) {
+                throw new IllegalStateException("Message writer lease lost; this node may not allocate message ids");
+            }
+            long end = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+                // Both statements must run on the same connection for LAST_INSERT_ID()
+                try (PreparedStatement update = connection.prepareStatement(ALLOCATE_SQL)) {
+                    update.setInt(1, idBlockSize);
+                    update.setString(2, owner);
+                    if (update.executeUpdate() == 0) {
+                        leaseHeld = false;
+                        throw new IllegalStateException("Message writer lease lost or message_id_sequence row missing");
+                    }
+                }
+                try (Statement select = connection.createStatement();
+                     ResultSet rs = select.executeQuery("SELECT LAST_INSERT_ID()")) {
+                    rs.next();
+                    return rs.getLong(1);
+                }
+            });
+            nextId = end - idBlockSize;
+            blockEnd = end;
+            logger.debug("Allocated message ids [{}, {})", nextId, blockEnd);
+        }
+        return nextId++;
+    }
+
+    /**
+     * Queue a message that already has its id and createdAt set
+     */
+    public void enqueue(Message message) {
+        enqueued.incrementAndGet();
+        pending.put(message.getId(), message);
+        try {
+            if (running && queue.offer(message, enqueueTimeoutMs, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Queue full or shutting down: write on the caller's thread
+        directWrites.incrementAndGet();
+        try {
+            insert(List.of(message));
+            written.incrementAndGet();
+        } finally {
+            pending.remove(message.getId());
+        }
+    }
+
+    /**
+     * A message accepted but not yet written, or null
+     */
+    public Message findPending(Long id) {
+        return id == null ? null : pending.get(id);
+    }
+
+    /**
+     * Not yet written messages of the case, in no particular order
+     */
+    public List<Message> pendingForCase(Long caseId) {
+        return pending.values().stream()
+                .filter(m -> caseId.equals(m.getCaseId()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Id of the newest not yet written message of the case, or null
+     */
+    public Long latestPending(Long caseId) {
+        return pending.values().stream()
+                .filter(m -> caseId.equals(m.getCaseId()))
+                .map(Message::getId)
+                .max(Long::compare)
+                .orElse(null);
+    }
+
+    /**
+     * Not yet written messages the participant received in the case after {@code afterId}
+     */
+    public long countPendingReceivedAfter(Long caseId, Long receiverId, String receiverType, long afterId) {
+        return pending.values().stream()
+                .filter(m -> caseId.equals(m.getCaseId()) && receiverId.equals(m.getReceiverId())
+                        && receiverType.equalsIgnoreCase(m.getReceiverType()) && m.getId() > afterId)
+                .count();
+    }
+
+    @Scheduled(fixedDelayString = "${messaging.write-behind.lease-renew-ms:10000}")
+    public void renewLease() {
+        if (!enabled || !leaseHeld) {
+            return;
+        }
+        try {
+            if (jdbcTemplate.update(
+                    "UPDATE message_id_sequence SET lease_until = TIMESTAMPADD(SECOND, ?, CURRENT_TIMESTAMP) " +
+                    "WHERE name = 'messages' AND owner = ?",
+                    leaseSeconds, owner) == 0) {
+                leaseHeld = false;
+                logger.error("Message writer lease was taken over; new messages on this node will fail");
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to renew message writer lease: {}", e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("leaseHeld", leaseHeld);
+        stats.put("owner", enabled ? owner : null);
+        stats.put("queued", queue == null ? 0 : queue.size());
+        stats.put("pending", pending.size());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("enqueued", enqueued.get());
+        stats.put("written", written.get());
+        stats.put("batches", batches.get());
+        stats.put("averageBatchSize", batches.get() == 0 ? 0.0 : (double) (written.get() - directWrites.get()) / batches.get());
+        stats.put("retries", retries.get());
+        stats.put("directWrites", directWrites.get());
+        stats.put("failed", failed.get());
+        stats.put("deadLettered", deadLettered.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.interrupt();
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(shutdownTimeoutSeconds));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive() || !queue.isEmpty()) {
+            logger.error("Message writer did not finish within {}s; {} messages not persisted",
+                    shutdownTimeoutSeconds, queue.size());
+        } else {
+            logger.info("Message writer drained and stopped ({} messages written)", written.get());
+        }
+        try {
+            jdbcTemplate.update("UPDATE message_id_sequence SET owner = NULL, lease_until = NULL " +
+                    "WHERE name = 'messages' AND owner = ?", owner);
+        } catch (Exception e) {
+            logger.warn("Failed to release message writer lease: {}", e.getMessage());
+        }
+        leaseHeld = false;
+    }
+
+    /**
+     * Take the lease, waiting up to one lease period for a previous holder to expire
+     */
+    private void acquireLease() {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(leaseSeconds) + 5000;
+        while (true) {
+            int claimed = jdbcTemplate.update(
+                    "UPDATE message_id_sequence SET owner = ?, lease_until = TIMESTAMPADD(SECOND, ?, CURRENT_TIMESTAMP) " +
+                    "WHERE name = 'messages' AND " +
+                    "(owner IS NULL OR lease_until IS NULL OR lease_until < CURRENT_TIMESTAMP)",
+                    owner, leaseSeconds);
+            if (claimed > 0) {
+                leaseHeld = true;
+                logger.info("Message writer lease acquired by {}", owner);
+                return;
+            }
+            if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException("Message write-behind is already running on " + liveLeaseHolder() +
+                        "; only one instance may have messaging.write-behind.enabled=true");
+            }
+            sleepQuietly(1000);
+        }
+    }
+
+    private String liveLeaseHolder() {
+        try {
+            List<String> owners = jdbcTemplate.queryForList(
+                    "SELECT owner FROM message_id_sequence WHERE name = 'messages' AND owner IS NOT NULL " +
+                    "AND lease_until >= CURRENT_TIMESTAMP", String.class);
+            return owners.isEmpty() ? null : owners.get(0);
+        } catch (Exception e) {
+            // Table or columns absent: write-behind was never set up
+            return null;
+        }
+    }
+
+    private void runWriter() {
+        List<Message> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                if (running) {
+                    Message first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                }
+            } catch (InterruptedException e) {
+                // shutdown() interrupts the wait; the loop drains what is left
+                continue;
+            }
+            queue.drainTo(batch, batchSize - batch.size());
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<Message> batch) {
+        for (int attempt = 0; attempt <= maxRetries; attempt++) {
+            try {
+                insert(batch);
+                batches.incrementAndGet();
+                written.addAndGet(batch.size());
+                batch.forEach(m -> pending.remove(m.getId()));
+                return;
+            } catch (Exception e) {
+                logger.warn("Message batch insert failed (attempt {} of {}): {}", attempt + 1, maxRetries + 1, e.getMessage());
+                if (attempt < maxRetries) {
+                    retries.incrementAndGet();
+                    sleepQuietly(100L << attempt);
+                }
+            }
+        }
+
+        // Isolate the rows that fail
+        for (Message message : batch) {
+            try {
+                insert(List.of(message));
+                written.incrementAndGet();
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                deadLetter(message, e);
+            }
+            pending.remove(message.getId());
+        }
+    }
+
+    /**
+     * Park a message that cannot be inserted so it can be inspected and replayed
+     */
+    private void deadLetter(Message m, Exception cause) {
+        try {
+            jdbcTemplate.update(DEAD_LETTER_SQL, m.getId(), m.getCaseId(), m.getSenderId(), m.getSenderType(),
+                    m.getReceiverId(), m.getReceiverType(), m.getMessageText(),
+                    Timestamp.valueOf(m.getCreatedAt()), String.valueOf(cause.getMessage()));
+            deadLettered.incrementAndGet();
+            logger.error("Message {} for case {} moved to message_dead_letters after repeated insert failures: {}",
+                    m.getId(), m.getCaseId(), cause.getMessage());
+        } catch (Exception e) {
+            logger.error("Message {} could not be written or dead-lettered ({}); case={}, sender={} {}, receiver={} {}, " +
+                            "createdAt={}, text={}", m.getId(), e.getMessage(), m.getCaseId(), m.getSenderType(),
+                    m.getSenderId(), m.getReceiverType(), m.getReceiverId(), m.getCreatedAt(), m.getMessageText());
+        }
+    }
+
+    private void insert(List<Message> messages) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, messages, messages.size(), (ps, m) -> {
+            ps.setLong(1, m.getId());
+            ps.setObject(2, m.getCaseId());
+            ps.setLong(3, m.getSenderId());
+            ps.setString(4, m.getSenderType());
+            ps.setLong(5, m.getReceiverId());
+            ps.setString(6, m.getReceiverType());
+            ps.setString(7, m.getMessageText());
+            ps.setBoolean(8, Boolean.TRUE.equals(m.getIsRead()));
+            ps.setTimestamp(9, Timestamp.valueOf(m.getCreatedAt()));
+        });
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            // Shutdown: stop backing off and keep draining
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.legalconnect.lawyerbooking.service;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.ConnectionPool;
+import okhttp3.EventListener;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.ForwardingSource;
+import okio.Okio;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * OPENAI HTTP CLIENTS
+ *
+ * PURPOSE: One connection pool and concurrency limit for every OpenAI call
+ * - Whisper, TTS, masking, translation and classification all reuse the same
+ *   TLS connections (HTTP/2 multiplexed) instead of handshaking per service
+ *
+ * CONFIGURATION:
+ * - openai.http.max-idle-connections / keep-alive-seconds: connection pool
+ * - openai.http.max-requests: calls in flight across all services; further calls block
+ *   until one finishes (its response body is closed). Enforced by an interceptor because
+ *   OkHttp's dispatcher limits only apply to enqueue(), and every service uses execute()
+ * - openai.http.services.{service}.connect|read|write-timeout-seconds: per-service overrides
+ *
+ * METRICS: connections opened vs reused, TLS handshakes, pool state, calls in flight and waiting
+ */
+@Component
+public class OpenAIHttpClients {
+
+    private static final Logger logger = LoggerFactory.getLogger(OpenAIHttpClients.class);
+
+    private final Environment environment;
+    private final OkHttpClient sharedClient;
+    private final int maxIdleConnections;
+    private final long keepAliveSeconds;
+    private final int maxRequests;
+    private final Semaphore permits;
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong failedCalls = new AtomicLong();
+    private final AtomicLong connectionsAcquired = new AtomicLong();
+    private final AtomicLong connectionsOpened = new AtomicLong();
+    private final AtomicLong tlsHandshakes = new AtomicLong();
+    private final AtomicInteger waitingCalls = new AtomicInteger();
+
+    public OpenAIHttpClients(
+            Environment environment,
+            @Value("${openai.http.max-idle-connections:10}") int maxIdleConnections,
+            @Value("${openai.http.keep-alive-seconds:300}") long keepAliveSeconds,
+            @Value("${openai.http.max-requests:32}") int maxRequests) {
+        this.environment = environment;
+        this.maxIdleConnections = maxIdleConnections;
+        this.keepAliveSeconds = keepAliveSeconds;
+        this.maxRequests = maxRequests;
+        this.permits = new Semaphore(maxRequests, true);
+
+        this.sharedClient = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(maxIdleConnections, keepAliveSeconds, TimeUnit.SECONDS))
+                .addInterceptor(new ConcurrencyLimitInterceptor())
+                .eventListener(new MetricsListener())
+                .connectTimeout(60, TimeUnit.SECONDS)
+                .readTimeout(120, TimeUnit.SECONDS)
+                .writeTimeout(120, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * Client for one AI service: shares the pool and concurrency limit, with its own timeouts.
+     * Defaults can be overridden with openai.http.services.{service}.*-timeout-seconds.
+     */
+    public OkHttpClient forService(String service, long connectSeconds, long readSeconds, long writeSeconds) {
+        String prefix = "openai.http.services." + service + ".";
+        return sharedClient.newBuilder()
+                .connectTimeout(environment.getProperty(prefix + "connect-timeout-seconds", Long.class, connectSeconds), TimeUnit.SECONDS)
+                .readTimeout(environment.getProperty(prefix + "read-timeout-seconds", Long.class, readSeconds), TimeUnit.SECONDS)
+                .writeTimeout(environment.getProperty(prefix + "write-timeout-seconds", Long.class, writeSeconds), TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * Pool, concurrency and connection reuse counters
+     */
+    public Map<String, Object> getStats() {
+        ConnectionPool pool = sharedClient.connectionPool();
+        long acquired = connectionsAcquired.get();
+        long opened = connectionsOpened.get();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("connections", pool.connectionCount());
+        stats.put("idleConnections", pool.idleConnectionCount());
+        stats.put("maxIdleConnections", maxIdleConnections);
+        stats.put("keepAliveSeconds", keepAliveSeconds);
+        stats.put("runningCalls", maxRequests - permits.availablePermits());
+        stats.put("waitingCalls", waitingCalls.get());
+        stats.put("maxRequests", maxRequests);
+        stats.put("calls", calls.get());
+        stats.put("failedCalls", failedCalls.get());
+        stats.put("connectionsAcquired", acquired);
+        stats.put("connectionsOpened", opened);
+        stats.put("tlsHandshakes", tlsHandshakes.get());
+        stats.put("connectionReuseRate", acquired == 0 ? 0.0 : (double) Math.max(0, acquired - opened) / acquired);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sharedClient.dispatcher().executorService().shutdown();
+        sharedClient.connectionPool().evictAll();
+        logger.info("OpenAI HTTP client shut down");
+    }
+
+    /**
+     * Holds a permit from before the request is sent until the response body is closed
+     * (or the call fails), so streamed bodies count as in flight while they are read
+     */
+    private final class ConcurrencyLimitInterceptor implements Interceptor {
+
+        @Override
+        public Response intercept(Chain chain) throws IOException {
+            waitingCalls.incrementAndGet();
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for an OpenAI request slot");
+            } finally {
+                waitingCalls.decrementAndGet();
+            }
+
+            Response response;
+            try {
+                response = chain.proceed(chain.request());
+            } catch (IOException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+            ResponseBody body = response.body();
+            if (body == null) {
+                permits.release();
+                return response;
+            }
+
+            AtomicBoolean released = new AtomicBoolean();
+            ForwardingSource source = new ForwardingSource(body.source()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        if (released.compareAndSet(false, true)) {
+                            permits.release();
+                        }
+                    }
+                }
+            };
+            return response.newBuilder()
+                    .body(ResponseBody.create(Okio.buffer(source), body.contentType(), body.contentLength()))
+                    .build();
+        }
+    }
+
+    /**
+     * Counts connection setup vs reuse across all calls (shared by every derived client)
+     */
+    private final class MetricsListener extends EventListener {
+
+        @Override
+        public void callStart(Call call) {
+            calls.incrementAndGet();
+        }
+
+        @Override
+        public void callFailed(Call call, IOException ioe) {
+            failedCalls.incrementAndGet();
+        }
+
+        @Override
+        public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+            connectionsOpened.incrementAndGet();
+        }
+
+        @Override
+        public void secureConnectStart(Call call) {
+            tlsHandshakes.incrementAndGet();
+        }
+
+        @Override
+        public void connectionAcquired(Call call, Connection connection) {
+            connectionsAcquired.incrementAndGet();
+        }
+    }
+}
@@ -5,11 +5,25 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import okhttp3.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.legalconnect.lawyerbooking.util.CallGroup;
+import com.legalconnect.lawyerbooking.util.TextChunker;
+
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.util.concurrent.TimeUnit;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 @Service
 public class OpenAITextToSpeechService {
@@ -19,13 +33,38 @@ public class OpenAITextToSpeechService {
     @Value("${openai.api.key}")
     private String apiKey;
 
-    private static final String TTS_URL = "https://api.openai.com/v1/audio/speech";
+    // Overridable so tests can point at a local stub server
+    @Value("${openai.tts.url:https://api.openai.com/v1/audio/speech}")
+    private String ttsUrl;
+
+    // tts-1 (high quality) - tts-1-hd is even better but slower
+    private static final String MODEL = "tts-1";
+
+    // MPEG Layer III bitrates (kbps) by header index, for locating Xing/Info frames
+    private static final int[] MPEG1_L3_KBPS = {0, 32, 40, 48, 56, 64, 80, 96, 112, 128, 160, 192, 224, 256, 320};
+    private static final int[] MPEG2_L3_KBPS = {0, 8, 16, 24, 32, 40, 48, 56, 64, 80, 96, 112, 128, 144, 160};
     
-    private final OkHttpClient client = new OkHttpClient.Builder()
-            .connectTimeout(60, TimeUnit.SECONDS)
-            .readTimeout(120, TimeUnit.SECONDS)
-            .writeTimeout(120, TimeUnit.SECONDS)
-            .build();
+    private OkHttpClient client;
+
+    @Autowired
+    void setHttpClients(OpenAIHttpClients httpClients) {
+        // Shares the OpenAI connection pool; timeouts overridable per service
+        this.client = httpClients.forService("tts", 60, 120, 120);
+    }
+
+    // tts-1 accepts at most 4096 characters per request
+    @Value("${audio.tts.chunk-chars:1000}")
+    private int maxChunkChars;
+
+    @Value("${audio.tts.chunk-threads:4}")
+    private int chunkThreads;
+
+    @Autowired
+    @Qualifier("ttsChunkExecutor")
+    private Executor chunkExecutor;
+
+    @Autowired
+    private TtsFragmentCache fragmentCache;
 
     private final ObjectMapper mapper = new ObjectMapper();
 
@@ -45,54 +84,220 @@ public class OpenAITextToSpeechService {
      * @return Byte array containing the audio data (MP3 format)
      */
     public byte[] textToSpeech(String text, String languageCode) {
+        ByteArrayOutputStream audio = new ByteArrayOutputStream();
+        try {
+            writeSpeech(text, languageCode, audio);
+        } catch (IOException e) {
+            throw new RuntimeException("Text-to-speech conversion failed: " + e.getMessage(), e);
+        }
+        logger.info("Successfully generated audio: {} bytes", audio.size());
+        return audio.toByteArray();
+    }
+
+    /**
+     * Parallel chunked synthesis: writes the MP3 for {@code text} to {@code out}.
+     * The text is split at sentence boundaries into requests of at most audio.tts.chunk-chars
+     * characters, synthesized concurrently (at most audio.tts.chunk-threads in flight) and
+     * joined in order into one MP3: the first chunk's ID3 tag is kept, later chunks' tags and
+     * every chunk's Xing/Info header frame are dropped, since those describe one chunk only
+     * and would make players report the first chunk's duration for the whole file.
+     * Callers get the whole clip as a byte[] (it is stored, not played live), so this cuts
+     * latency, not memory: each in-flight chunk is buffered until its turn to be appended.
+     * When a chunk fails, chunks not yet sent are skipped and requests in flight are aborted.
+     */
+    private void writeSpeech(String text, String languageCode, OutputStream out) throws IOException {
         if (text == null || text.trim().isEmpty()) {
             throw new IllegalArgumentException("Text cannot be null or empty");
         }
 
+        List<SpeechUnit> chunks = fragmentCache.isEnabled()
+                ? plan(text.trim(), languageCode)
+                : TextChunker.sentences(text.trim(), maxChunkChars).stream().map(c -> new SpeechUnit(c, null)).toList();
+        if (chunks.size() == 1 && chunks.get(0).cacheKey == null) {
+            // A single response is a complete MP3 as it is
+            synthesize(chunks.get(0).text, languageCode, out, new CallGroup());
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        logger.info("Synthesizing {} chars as {} chunks", text.length(), chunks.size());
+        CallGroup calls = new CallGroup();
+        // Sliding window: only chunkThreads responses are buffered at any time
+        Deque<CompletableFuture<byte[]>> inFlight = new ArrayDeque<>();
+        int next = 0;
+        boolean first = true;
         try {
-            // Build the JSON request body
-            String requestBody = buildTTSRequest(text, languageCode);
-
-            RequestBody body = RequestBody.create(
-                    requestBody,
-                    MediaType.parse("application/json; charset=utf-8")
-            );
-
-            Request request = new Request.Builder()
-                    .url(TTS_URL)
-                    .addHeader("Authorization", "Bearer " + apiKey)
-                    .addHeader("Content-Type", "application/json")
-                    .post(body)
-                    .build();
-
-            try (Response response = client.newCall(request).execute()) {
-                logger.debug("OpenAI TTS Response Status: {}", response.code());
-
-                if (!response.isSuccessful()) {
-                    String errorBody = response.body() != null ? response.body().string() : "No error body";
-                    logger.error("OpenAI TTS Error (Status {}): {}", response.code(), errorBody);
-                    throw new RuntimeException("OpenAI TTS API call failed: " + response.code() + " - " + errorBody);
+            while (next < chunks.size() || !inFlight.isEmpty()) {
+                while (next < chunks.size() && inFlight.size() < chunkThreads) {
+                    SpeechUnit chunk = chunks.get(next++);
+                    byte[] cached = chunk.cacheKey != null ? fragmentCache.get(chunk.cacheKey) : null;
+                    inFlight.add(cached != null
+                            ? CompletableFuture.completedFuture(cached)
+                            : CompletableFuture.supplyAsync(() -> synthesize(chunk.text, languageCode, chunk.cacheKey, calls), chunkExecutor));
+                }
+                byte[] audio = inFlight.poll().join();
+                int tag = id3TagLength(audio);
+                if (first) {
+                    out.write(audio, 0, tag);
                 }
+                int offset = tag + infoFrameLength(audio, tag);
+                out.write(audio, offset, audio.length - offset);
+                first = false;
+            }
+        } catch (CompletionException e) {
+            calls.cancelAll(e.getCause());
+            // Report the chunk that actually failed, not one cancelled because of it
+            Throwable cause = calls.getFailure();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : e;
+        }
+        logger.info("Synthesized {} chunks in {} ms", chunks.size(), System.currentTimeMillis() - start);
+    }
 
-                // TTS API returns audio bytes directly
-                if (response.body() != null) {
-                    byte[] audioBytes = response.body().bytes();
-                    logger.info("Successfully generated audio: {} bytes", audioBytes.length);
-                    return audioBytes;
-                } else {
-                    logger.error("OpenAI TTS API returned empty response body");
-                    throw new RuntimeException("OpenAI TTS API returned empty response body");
+    /**
+     * Split the text into requests for the fragment cache: a sentence that is cached or has
+     * come up before is a unit of its own (served from or stored in the cache); runs of novel
+     * sentences are packed into requests of up to audio.tts.chunk-chars characters
+     */
+    private List<SpeechUnit> plan(String text, String languageCode) {
+        String voice = voiceFor(languageCode);
+        List<SpeechUnit> units = new ArrayList<>();
+        StringBuilder run = new StringBuilder();
+        for (String sentence : TextChunker.splitSentences(text, maxChunkChars)) {
+            String key = fragmentCache.key(MODEL, voice, sentence);
+            if (fragmentCache.markSeen(key)) {
+                if (run.length() > 0) {
+                    units.add(new SpeechUnit(run.toString(), null));
+                    run.setLength(0);
                 }
+                units.add(new SpeechUnit(sentence, key));
+                continue;
+            }
+            if (run.length() > 0 && run.length() + 1 + sentence.length() > maxChunkChars) {
+                units.add(new SpeechUnit(run.toString(), null));
+                run.setLength(0);
+            }
+            run.append(run.length() > 0 ? " " : "").append(sentence);
+        }
+        if (run.length() > 0) {
+            units.add(new SpeechUnit(run.toString(), null));
+        }
+        return units;
+    }
 
-            } catch (IOException e) {
-                logger.error("Error processing OpenAI TTS response", e);
-                throw new RuntimeException("Failed to process TTS response: " + e.getMessage(), e);
+    /**
+     * One TTS request, buffered; used for the chunks of a long text.
+     * The result is stored in the fragment cache under {@code cacheKey} when one is given.
+     * A failure cancels the rest of {@code calls}.
+     */
+    private byte[] synthesize(String text, String languageCode, String cacheKey, CallGroup calls) {
+        long start = System.currentTimeMillis();
+        ByteArrayOutputStream audio = new ByteArrayOutputStream();
+        try {
+            synthesize(text, languageCode, audio, calls);
+        } catch (IOException e) {
+            RuntimeException failure = new RuntimeException("Failed to process TTS response: " + e.getMessage(), e);
+            calls.cancelAll(failure);
+            throw failure;
+        } catch (RuntimeException e) {
+            calls.cancelAll(e);
+            throw e;
+        }
+        byte[] bytes = audio.toByteArray();
+        if (cacheKey != null) {
+            fragmentCache.put(cacheKey, bytes, System.currentTimeMillis() - start);
+        }
+        return bytes;
+    }
+
+    /**
+     * One TTS request, copied from the response body to {@code out}
+     */
+    private void synthesize(String text, String languageCode, OutputStream out, CallGroup calls) throws IOException {
+        RequestBody body = RequestBody.create(
+                buildTTSRequest(text, languageCode),
+                MediaType.parse("application/json; charset=utf-8")
+        );
+
+        Request request = new Request.Builder()
+                .url(ttsUrl)
+                .addHeader("Authorization", "Bearer " + apiKey)
+                .addHeader("Content-Type", "application/json")
+                .post(body)
+                .build();
+
+        try (Response response = calls.execute(client, request)) {
+            logger.debug("OpenAI TTS Response Status: {}", response.code());
+
+            if (!response.isSuccessful()) {
+                String errorBody = response.body() != null ? response.body().string() : "No error body";
+                logger.error("OpenAI TTS Error (Status {}): {}", response.code(), errorBody);
+                throw new RuntimeException("OpenAI TTS API call failed: " + response.code() + " - " + errorBody);
             }
 
-        } catch (Exception e) {
-            logger.error("Error calling OpenAI TTS API", e);
-            throw new RuntimeException("Text-to-speech conversion failed: " + e.getMessage(), e);
+            // TTS API returns audio bytes directly
+            if (response.body() == null) {
+                logger.error("OpenAI TTS API returned empty response body");
+                throw new RuntimeException("OpenAI TTS API returned empty response body");
+            }
+            try (InputStream in = response.body().byteStream()) {
+                in.transferTo(out);
+            }
+        }
+    }
+
+    /**
+     * Length of a leading ID3v2 tag, so only the first chunk's tag ends up in the joined MP3
+     */
+    static int id3TagLength(byte[] audio) {
+        if (audio.length < 10 || audio[0] != 'I' || audio[1] != 'D' || audio[2] != '3') {
+            return 0;
+        }
+        // Tag size is a 28-bit "synchsafe" integer; a footer adds another 10 bytes
+        int size = ((audio[6] & 0x7f) << 21) | ((audio[7] & 0x7f) << 14) | ((audio[8] & 0x7f) << 7) | (audio[9] & 0x7f);
+        int length = 10 + size + ((audio[5] & 0x10) != 0 ? 10 : 0);
+        return Math.min(length, audio.length);
+    }
+
+    /**
+     * Length of the MPEG Layer III frame at {@code offset} if it is a Xing, Info or VBRI
+     * header frame (no audio, only the frame count and seek table of its own chunk), else 0
+     */
+    static int infoFrameLength(byte[] audio, int offset) {
+        if (audio.length < offset + 4 || (audio[offset] & 0xff) != 0xff || (audio[offset + 1] & 0xe0) != 0xe0) {
+            return 0;
+        }
+        int version = (audio[offset + 1] >> 3) & 0x03;   // 3 = MPEG1, 2 = MPEG2, 0 = MPEG2.5
+        int layer = (audio[offset + 1] >> 1) & 0x03;     // 1 = Layer III
+        int bitrateIndex = (audio[offset + 2] >> 4) & 0x0f;
+        int sampleRateIndex = (audio[offset + 2] >> 2) & 0x03;
+        int padding = (audio[offset + 2] >> 1) & 0x01;
+        boolean mono = ((audio[offset + 3] >> 6) & 0x03) == 3;
+        if (version == 1 || layer != 1 || bitrateIndex == 0 || bitrateIndex == 15 || sampleRateIndex == 3) {
+            return 0;
         }
+
+        boolean mpeg1 = version == 3;
+        int bitrate = (mpeg1 ? MPEG1_L3_KBPS : MPEG2_L3_KBPS)[bitrateIndex] * 1000;
+        int sampleRate = new int[] {44100, 48000, 32000}[sampleRateIndex] >> (mpeg1 ? 0 : version == 2 ? 1 : 2);
+        int frameLength = (mpeg1 ? 144 : 72) * bitrate / sampleRate + padding;
+
+        // Xing/Info sit right after the side information, VBRI at a fixed 32 bytes
+        int sideInfo = mpeg1 ? (mono ? 17 : 32) : (mono ? 9 : 17);
+        boolean info = hasTag(audio, offset + 4 + sideInfo, "Xing") || hasTag(audio, offset + 4 + sideInfo, "Info")
+                || hasTag(audio, offset + 4 + 32, "VBRI");
+        return info && offset + frameLength <= audio.length ? frameLength : 0;
+    }
+
+    private static boolean hasTag(byte[] audio, int offset, String tag) {
+        if (offset + tag.length() > audio.length) {
+            return false;
+        }
+        for (int i = 0; i < tag.length(); i++) {
+            if (audio[offset + i] != tag.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -101,20 +306,35 @@ public class OpenAITextToSpeechService {
      * @param languageCode Language code (e.g., "en" for English, "gu" for Gujarati)
      * @return JSON string for the request
      */
-    private String buildTTSRequest(String text, String languageCode) throws Exception {
-        // Using tts-1 model (high quality) - you can also use tts-1-hd for even better quality
-        // Voice options: alloy, echo, fable, onyx, nova, shimmer
+    private String buildTTSRequest(String text, String languageCode) throws IOException {
         ObjectNode requestJson = mapper.createObjectNode();
-        requestJson.put("model", "tts-1");
+        requestJson.put("model", MODEL);
         requestJson.put("input", text);
-        
-        // Select voice based on language - using "nova" for Gujarati as it works well with Indian languages
-        // For English, keep "alloy" as default
-        String voice = "gu".equals(languageCode) ? "nova" : "alloy";
-        requestJson.put("voice", voice);
+        requestJson.put("voice", voiceFor(languageCode));
         requestJson.put("response_format", "mp3");
         
         return mapper.writeValueAsString(requestJson);
     }
+
+    /**
+     * Text of one TTS request; {@code cacheKey} is set for a single sentence kept in the fragment cache
+     */
+    private static final class SpeechUnit {
+        private final String text;
+        private final String cacheKey;
+
+        private SpeechUnit(String text, String cacheKey) {
+            this.text = text;
+            this.cacheKey = cacheKey;
+        }
+    }
+
+    /**
+     * Voice options: alloy, echo, fable, onyx, nova, shimmer
+     */
+    private static String voiceFor(String languageCode) {
+        // "nova" works well with Indian languages; English keeps "alloy" as default
+        return "gu".equals(languageCode) ? "nova" : "alloy";
+    }
 }
 
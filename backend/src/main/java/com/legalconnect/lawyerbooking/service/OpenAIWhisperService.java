@@ -5,11 +5,27 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import okhttp3.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.util.concurrent.TimeUnit;
+import com.legalconnect.lawyerbooking.service.AudioSegmenter.AudioSegment;
+import com.legalconnect.lawyerbooking.util.CallGroup;
+import com.legalconnect.lawyerbooking.util.SpooledMultipartFile;
+import com.legalconnect.lawyerbooking.util.StreamingRequestBody;
+import com.legalconnect.lawyerbooking.util.TextChunker;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 @Service
 public class OpenAIWhisperService {
@@ -19,15 +35,27 @@ public class OpenAIWhisperService {
     @Value("${openai.api.key}")
     private String apiKey;
 
-    private static final String TRANSLATE_URL =
-            "https://api.openai.com/v1/audio/translations";
+    // Overridable so tests can point at a local stub server
+    @Value("${openai.whisper.url:https://api.openai.com/v1/audio/translations}")
+    private String translateUrl;
 
-    // Increased timeouts for long audio files (Whisper can take time for long audio)
-    private final OkHttpClient client = new OkHttpClient.Builder()
-            .connectTimeout(60, TimeUnit.SECONDS)
-            .readTimeout(300, TimeUnit.SECONDS) // 5 minutes for long audio processing
-            .writeTimeout(120, TimeUnit.SECONDS)
-            .build();
+    // Words compared when removing text repeated in the overlap between segments
+    private static final int MAX_OVERLAP_WORDS = 30;
+
+    @Autowired
+    private AudioSegmenter segmenter;
+
+    @Autowired
+    @Qualifier("audioSegmentExecutor")
+    private Executor segmentExecutor;
+
+    private OkHttpClient client;
+
+    @Autowired
+    void setHttpClients(OpenAIHttpClients httpClients) {
+        // Long audio needs the longer read timeout (5 minutes)
+        this.client = httpClients.forService("whisper", 60, 300, 120);
+    }
     
     private final ObjectMapper mapper = new ObjectMapper();
 
@@ -38,28 +66,87 @@ public class OpenAIWhisperService {
         logger.info("Starting Whisper translation for file: {} (size: {} bytes)", 
                    file.getOriginalFilename(), fileSize);
 
-        MediaType mediaType = MediaType.parse(
-                file.getContentType() != null ? file.getContentType() : "audio/wav"
-        );
+        String contentType = file.getContentType() != null ? file.getContentType() : "audio/wav";
+        MediaType mediaType = MediaType.parse(contentType);
+
+        // Segmenting needs random access, so work from a file on disk
+        Path path = file instanceof SpooledMultipartFile ? ((SpooledMultipartFile) file).getPath() : null;
+        boolean tempCopy = path == null;
+        try {
+            if (tempCopy) {
+                path = Files.createTempFile("whisper-", ".upload");
+                try (InputStream in = file.getInputStream()) {
+                    Files.copy(in, path, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+
+            List<AudioSegment> segments = segmenter.split(path, contentType, file.getOriginalFilename());
+            if (segments.size() == 1) {
+                // Stream from the upload instead of copying it onto the heap
+                return transcribe(file.getOriginalFilename(),
+                        new StreamingRequestBody(mediaType, fileSize, file::getInputStream), new CallGroup());
+            }
+            return transcribeSegments(path, mediaType, segments);
+        } finally {
+            if (tempCopy && path != null) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
 
+    /**
+     * Transcribe segments concurrently on audioSegmentExecutor (bounded by its pool size)
+     * and stitch the results back together in playback order.
+     * The first failed segment cancels the rest: queued ones never send, in-flight calls are aborted.
+     */
+    private String transcribeSegments(Path path, MediaType mediaType, List<AudioSegment> segments) throws Exception {
+        long start = System.currentTimeMillis();
+        CallGroup calls = new CallGroup();
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (AudioSegment segment : segments) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return transcribe(segment.getFilename(), new StreamingRequestBody(
+                            mediaType, segment.getContentLength(), () -> segment.open(path)), calls);
+                } catch (Exception e) {
+                    calls.cancelAll(e);
+                    throw new CompletionException(e);
+                }
+            }, segmentExecutor));
+        }
+
+        StringBuilder transcript = new StringBuilder();
+        try {
+            for (CompletableFuture<String> future : futures) {
+                TextChunker.appendWithoutOverlap(transcript, future.join(), MAX_OVERLAP_WORDS);
+            }
+        } catch (CompletionException e) {
+            calls.cancelAll(e.getCause());
+            // Report the segment that actually failed, not one cancelled because of it
+            Throwable cause = calls.getFailure();
+            throw cause instanceof Exception ? (Exception) cause : new RuntimeException(cause);
+        }
+
+        logger.info("Transcribed {} segments in {} ms. Text length: {} characters",
+                segments.size(), System.currentTimeMillis() - start, transcript.length());
+        return transcript.toString();
+    }
+
+    private String transcribe(String filename, RequestBody filePart, CallGroup calls) throws Exception {
         RequestBody body = new MultipartBody.Builder()
                 .setType(MultipartBody.FORM)
-                .addFormDataPart(
-                        "file",
-                        file.getOriginalFilename(),
-                        RequestBody.create(file.getBytes(), mediaType)
-                )
+                .addFormDataPart("file", filename, filePart)
                 // 🔥 STABLE MODEL
                 .addFormDataPart("model", "whisper-1")
                 .build();
 
         Request request = new Request.Builder()
-                .url(TRANSLATE_URL)
+                .url(translateUrl)
                 .addHeader("Authorization", "Bearer " + apiKey)
                 .post(body)
                 .build();
 
-        try (Response response = client.newCall(request).execute()) {
+        try (Response response = calls.execute(client, request)) {
 
             String responseBody = response.body() != null
                     ? response.body().string()
@@ -99,7 +186,7 @@ public class OpenAIWhisperService {
             }
 
             String translatedText = json.get("text").asText();
-            logger.info("Whisper translation completed. Text length: {} characters", translatedText.length());
+            logger.info("Whisper translation of {} completed. Text length: {} characters", filename, translatedText.length());
             
             return translatedText;
         } catch (java.net.SocketTimeoutException e) {
@@ -107,7 +194,11 @@ public class OpenAIWhisperService {
             throw new RuntimeException("Whisper API request timed out. The audio file might be too long. " +
                                      "Please try with a shorter audio file or check your network connection.", e);
         } catch (Exception e) {
-            logger.error("Error in Whisper translation: {}", e.getMessage(), e);
+            if (calls.isCancelled()) {
+                logger.debug("Whisper request for {} cancelled: {}", filename, e.getMessage());
+            } else {
+                logger.error("Error in Whisper translation: {}", e.getMessage(), e);
+            }
             throw e;
         }
     }
@@ -0,0 +1,53 @@
+package com.legalconnect.lawyerbooking.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory latency counters per audio pipeline stage
+ * (transcribe, mask, tts-en, translate, tts-gu, ...).
+ */
+@Component
+public class PipelineStageMetrics {
+
+    private final Map<String, StageStats> stages = new ConcurrentHashMap<>();
+
+    public void record(String stage, long elapsedMillis, boolean success) {
+        StageStats stats = stages.computeIfAbsent(stage, k -> new StageStats());
+        stats.count.incrementAndGet();
+        stats.totalMillis.addAndGet(elapsedMillis);
+        stats.maxMillis.accumulateAndGet(elapsedMillis, Math::max);
+        if (!success) {
+            stats.failures.incrementAndGet();
+        }
+    }
+
+    /**
+     * Snapshot of count, failures, average and max latency for every stage
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new TreeMap<>();
+        stages.forEach((stage, stats) -> {
+            long count = stats.count.get();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("count", count);
+            entry.put("failures", stats.failures.get());
+            entry.put("avgMillis", count == 0 ? 0 : stats.totalMillis.get() / count);
+            entry.put("maxMillis", stats.maxMillis.get());
+            result.put(stage, entry);
+        });
+        return result;
+    }
+
+    private static final class StageStats {
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong totalMillis = new AtomicLong();
+        private final AtomicLong maxMillis = new AtomicLong();
+    }
+}
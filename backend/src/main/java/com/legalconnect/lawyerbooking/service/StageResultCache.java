@@ -0,0 +1,315 @@
+package com.legalconnect.lawyerbooking.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.legalconnect.lawyerbooking.entity.StageResult;
+import com.legalconnect.lawyerbooking.repository.StageResultRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * STAGE RESULT CACHE
+ *
+ * PURPOSE: Stop re-billing the AI stages when the same recording is uploaded again
+ *
+ * DESIGN:
+ * - Content-addressed: key is SHA-256 of the audio bytes (transcribe) or of the
+ *   input text and the settings that shape the output (mask, translate, tts-*),
+ *   stored in the stage_result_cache table
+ * - Per-stage switch, TTL and entry limit:
+ *     audio.cache.stages.{stage}.enabled / ttl-hours / max-entries
+ *   falling back to audio.cache.enabled / audio.cache.ttl-hours / audio.cache.max-entries
+ * - Expiry and the entry limit are enforced by a sweep every audio.cache.sweep-interval-ms,
+ *   not on the write path; between sweeps a stage may briefly exceed its limit.
+ *   Over the limit, least recently used entries are evicted
+ * - Only results the stage reports as successful are stored: stages throw on failure
+ *   instead of returning a fallback value
+ * - Cache failures are treated as misses; the stage still runs
+ *
+ * PRIVACY:
+ * - transcribe is the only stage holding unmasked text. It is off unless
+ *   audio.cache.stages.transcribe.enabled=true, its entries are keyed per user and
+ *   carry owner_id so purgeOwner() can drop them when the user is deleted
+ *
+ * AUDIO:
+ * - blob() keeps only an AudioBlobService reference ("{store}:{sha256}"), never the clip.
+ *   The blob store is content-addressed, so the cached clip, the job checkpoint and the
+ *   saved record all point to one copy.
+ *   With audio.blob.store=database there is nowhere to put the clip and TTS is not cached here
+ */
+@Component
+public class StageResultCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(StageResultCache.class);
+
+    @Autowired
+    private StageResultRepository repository;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private AudioBlobService blobService;
+
+    @Value("${audio.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${audio.cache.ttl-hours:720}")
+    private long defaultTtlHours;
+
+    @Value("${audio.cache.max-entries:1000}")
+    private int defaultMaxEntries;
+
+    /**
+     * Stages that are only cached when explicitly enabled
+     */
+    private static final Set<String> OFF_BY_DEFAULT = Set.of("transcribe");
+
+    private final Map<String, StageCounters> counters = new ConcurrentHashMap<>();
+
+    /**
+     * SHA-256 of an upload, streamed so the file is never loaded onto the heap
+     */
+    public String hash(MultipartFile file) throws IOException {
+        MessageDigest digest = newDigest();
+        try (InputStream in = file.getInputStream()) {
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * SHA-256 of one or more text parts (e.g. language + text for TTS)
+     */
+    public String hash(String... parts) {
+        MessageDigest digest = newDigest();
+        for (String part : parts) {
+            digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Return the cached text for this stage and key, or compute and store it.
+     * Null results and results rejected by {@code cacheable} are not stored.
+     */
+    public String text(String stage, String key, Supplier<String> work, Predicate<String> cacheable) {
+        return text(stage, key, null, work, cacheable);
+    }
+
+    /**
+     * Same as {@link #text(String, String, Supplier, Predicate)}, recording the user the
+     * entry belongs to so it can be purged with {@link #purgeOwner(Long)}
+     */
+    public String text(String stage, String key, Long ownerId, Supplier<String> work, Predicate<String> cacheable) {
+        StageResult cached = lookup(stage, key);
+        if (cached != null && cached.getTextValue() != null) {
+            return cached.getTextValue();
+        }
+        String result = work.get();
+        if (result != null && cacheable.test(result)) {
+            StageResult entry = newEntry(stage, key);
+            entry.setOwnerId(ownerId);
+            entry.setTextValue(result);
+            store(entry);
+        }
+        return result;
+    }
+
+    /**
+     * Return the blob reference cached for this stage and key, or compute the clip, put it in
+     * the blob store and cache its reference. Hits never download the clip.
+     * Requires a blob store (audio.blob.store other than database).
+     * @return the reference, or null if the stage produced no audio
+     */
+    public String blob(String stage, String key, Supplier<byte[]> work) throws IOException {
+        StageResult cached = lookup(stage, key);
+        if (cached != null && cached.getBlobRef() != null) {
+            return cached.getBlobRef();
+        }
+        String ref = blobService.store(work.get());
+        if (ref != null) {
+            StageResult entry = newEntry(stage, key);
+            entry.setBlobRef(ref);
+            store(entry);
+        }
+        return ref;
+    }
+
+    /**
+     * Drop every entry recorded for this user (see {@link #text(String, String, Long, Supplier, Predicate)})
+     * @return entries deleted
+     */
+    public int purgeOwner(Long ownerId) {
+        if (ownerId == null) {
+            return 0;
+        }
+        int deleted = repository.deleteByOwnerId(ownerId);
+        if (deleted > 0) {
+            logger.info("Purged {} result cache entries of user {}", deleted, ownerId);
+        }
+        return deleted;
+    }
+
+    /**
+     * Hits, misses, stores, evictions and hit rate per stage
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new TreeMap<>();
+        counters.forEach((stage, c) -> {
+            long hits = c.hits.get();
+            long total = hits + c.misses.get();
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("hits", hits);
+            entry.put("misses", c.misses.get());
+            entry.put("stores", c.stores.get());
+            entry.put("evictions", c.evictions.get());
+            entry.put("hitRate", total == 0 ? 0.0 : (double) hits / total);
+            entry.put("enabled", isEnabled(stage));
+            entry.put("ttlHours", ttlHours(stage));
+            entry.put("maxEntries", maxEntries(stage));
+            result.put(stage, entry);
+        });
+        result.put("enabled", enabled);
+        return result;
+    }
+
+    private StageResult lookup(String stage, String key) {
+        if (!isEnabled(stage) || key == null) {
+            return null;
+        }
+        StageCounters c = counters(stage);
+        try {
+            StageResult cached = repository.findById(id(stage, key)).orElse(null);
+            LocalDateTime now = LocalDateTime.now();
+            if (cached == null || cached.getCreatedAt().isBefore(now.minusHours(ttlHours(stage)))) {
+                c.misses.incrementAndGet();
+                return null;
+            }
+            repository.touch(cached.getId(), now);
+            c.hits.incrementAndGet();
+            logger.info("Stage {} served from result cache", stage);
+            return cached;
+        } catch (Exception e) {
+            c.misses.incrementAndGet();
+            logger.warn("Result cache lookup failed for stage {}: {}", stage, e.getMessage());
+            return null;
+        }
+    }
+
+    private StageResult newEntry(String stage, String key) {
+        LocalDateTime now = LocalDateTime.now();
+        StageResult entry = new StageResult();
+        entry.setId(id(stage, key));
+        entry.setStage(stage);
+        entry.setCreatedAt(now);
+        entry.setLastAccessedAt(now);
+        return entry;
+    }
+
+    private void store(StageResult entry) {
+        String stage = entry.getStage();
+        if (!isEnabled(stage)) {
+            return;
+        }
+        StageCounters c = counters(stage);
+        try {
+            repository.save(entry);
+            c.stores.incrementAndGet();
+        } catch (Exception e) {
+            logger.warn("Failed to store result cache entry for stage {}: {}", stage, e.getMessage());
+        }
+    }
+
+    /**
+     * Delete expired entries and evict least recently used ones over each stage's limit
+     */
+    @Scheduled(fixedDelayString = "${audio.cache.sweep-interval-ms:300000}",
+               initialDelayString = "${audio.cache.sweep-interval-ms:300000}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            for (String stage : repository.findStages()) {
+                int expired = repository.deleteExpired(stage, LocalDateTime.now().minusHours(ttlHours(stage)));
+                long excess = repository.countByStage(stage) - maxEntries(stage);
+                int evicted = 0;
+                if (excess > 0) {
+                    List<String> ids = repository.findLeastRecentlyUsedIds(stage, PageRequest.of(0, (int) excess));
+                    evicted = ids.isEmpty() ? 0 : repository.deleteByIds(ids);
+                }
+                counters(stage).evictions.addAndGet(expired + evicted);
+                if (expired + evicted > 0) {
+                    logger.debug("Result cache sweep for stage {}: {} expired, {} evicted", stage, expired, evicted);
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Result cache sweep failed: {}", e.getMessage());
+        }
+    }
+
+    private boolean isEnabled(String stage) {
+        return enabled && environment.getProperty("audio.cache.stages." + stage + ".enabled", Boolean.class,
+                !OFF_BY_DEFAULT.contains(stage));
+    }
+
+    private long ttlHours(String stage) {
+        return environment.getProperty("audio.cache.stages." + stage + ".ttl-hours", Long.class, defaultTtlHours);
+    }
+
+    private int maxEntries(String stage) {
+        return environment.getProperty("audio.cache.stages." + stage + ".max-entries", Integer.class, defaultMaxEntries);
+    }
+
+    private StageCounters counters(String stage) {
+        return counters.computeIfAbsent(stage, k -> new StageCounters());
+    }
+
+    private static String id(String stage, String key) {
+        return stage + ":" + key;
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class StageCounters {
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+        private final AtomicLong stores = new AtomicLong();
+        private final AtomicLong evictions = new AtomicLong();
+    }
+}
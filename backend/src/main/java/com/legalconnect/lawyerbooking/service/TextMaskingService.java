@@ -7,10 +7,15 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import okhttp3.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.concurrent.TimeUnit;
+import com.legalconnect.lawyerbooking.util.TextChunker;
+
+import java.io.IOException;
+import java.util.concurrent.Executor;
 
 @Service
 public class TextMaskingService {
@@ -20,22 +25,44 @@ public class TextMaskingService {
     @Value("${openai.api.key}")
     private String apiKey;
 
-    private static final String CHAT_COMPLETIONS_URL =
-            "https://api.openai.com/v1/chat/completions";
+    // Overridable so tests can point at a local stub server
+    @Value("${openai.chat.url:https://api.openai.com/v1/chat/completions}")
+    private String chatCompletionsUrl;
+
+    private OkHttpClient client;
 
-    private final OkHttpClient client = new OkHttpClient.Builder()
-            .connectTimeout(60, TimeUnit.SECONDS)
-            .readTimeout(120, TimeUnit.SECONDS)
-            .writeTimeout(120, TimeUnit.SECONDS)
-            .build();
+    @Autowired
+    void setHttpClients(OpenAIHttpClients httpClients) {
+        // Shares the OpenAI connection pool; timeouts overridable per service
+        this.client = httpClients.forService("masking", 60, 120, 120);
+    }
     
     // Maximum tokens for input (gpt-4o-mini supports ~128k, but we'll use a safe limit)
     private static final int MAX_INPUT_TOKENS = 100000; // Safe limit for context window
     private static final int CHUNK_SIZE = 50000; // Characters per chunk (roughly ~12k tokens)
-    private static final int OVERLAP_SIZE = 500; // Overlap to avoid splitting in middle of sentences
+
+    private final TextChunker chunker = new TextChunker(CHUNK_SIZE); // Sentence-aligned, no overlap
+
+    // local = regex/dictionary only, hybrid = local pre-mask then LLM, llm = LLM only
+    @Value("${masking.mode:hybrid}")
+    private String maskingMode;
+
+    // In hybrid mode, texts up to this length with no name-like word at all skip the LLM
+    @Value("${masking.local-max-chars:1000}")
+    private int localMaxChars;
+
+    @Autowired
+    private LocalPiiMasker localMasker;
+
+    @Autowired
+    @Qualifier("textChunkExecutor")
+    private Executor chunkExecutor;
 
     private final ObjectMapper mapper = new ObjectMapper();
 
+    // Using gpt-4o-mini for cost-effective and fast NLP-based masking
+    private static final String MODEL = "gpt-4o-mini";
+
     private static final String MASKING_PROMPT = """
             You are a privacy protection assistant. Your task is to mask ONLY personal information in the given legal case text, while preserving ALL case-related information.
             
@@ -70,146 +97,124 @@ public class TextMaskingService {
             Text to mask:
             """;
 
+    /**
+     * Settings that change the masked output for the same input; part of the result cache key
+     */
+    public String cacheVariant() {
+        return maskingMode + "/" + MODEL + "/" + localMaxChars;
+    }
+
     /**
      * Uses OpenAI GPT to intelligently mask personal information while preserving case information
      * Handles long texts by chunking if necessary
-     * @param text The original text containing both personal and case information
+     * Depending on masking.mode, structured PII is masked locally first (see LocalPiiMasker)
+     * @param originalText The original text containing both personal and case information
      * @return Text with personal information masked but case information preserved
+     * @throws RuntimeException if the LLM call fails; partially masked text is never returned
      */
-    public String maskEnglishPersonalInfo(String text) {
-        if (text == null || text.trim().isEmpty()) {
-            return text;
+    public String maskEnglishPersonalInfo(String originalText) {
+        if (originalText == null || originalText.trim().isEmpty()) {
+            return originalText;
         }
 
-        try {
-            // For very long texts, process in chunks
-            if (text.length() > CHUNK_SIZE) {
-                logger.info("Text is long ({} chars), processing in chunks...", text.length());
-                return maskLongText(text);
+        String text = originalText;
+        if (!"llm".equalsIgnoreCase(maskingMode)) {
+            text = localMasker.mask(originalText);
+            if ("local".equalsIgnoreCase(maskingMode)) {
+                return text;
             }
+            if (text.length() <= localMaxChars && !localMasker.mayContainNames(text)) {
+                logger.info("Masked locally without LLM call (length: {})", text.length());
+                return text;
+            }
+            // The LLM only sees pre-masked text
+        }
 
-            // For normal length texts, process directly
-            return maskTextChunk(text);
-
-        } catch (Exception e) {
-            logger.error("Error in maskEnglishPersonalInfo", e);
-            // Fallback: return original text if processing fails
-            return text;
+        // For very long texts, process in chunks
+        if (chunker.needsChunking(text)) {
+            logger.info("Text is long ({} chars), processing in chunks...", text.length());
+            return chunker.process(text, this::maskTextChunk, chunkExecutor);
         }
+
+        // For normal length texts, process directly
+        return maskTextChunk(text);
     }
 
     /**
      * Masks a single chunk of text using OpenAI API
+     * @throws RuntimeException on any API or response failure
      */
     private String maskTextChunk(String text) {
+        Request request;
         try {
-            // Build the request payload
-            String requestBody = buildChatRequest(text);
-
             RequestBody body = RequestBody.create(
-                    requestBody,
+                    buildChatRequest(text),
                     MediaType.parse("application/json; charset=utf-8")
             );
 
-            Request request = new Request.Builder()
-                    .url(CHAT_COMPLETIONS_URL)
+            request = new Request.Builder()
+                    .url(chatCompletionsUrl)
                     .addHeader("Authorization", "Bearer " + apiKey)
                     .addHeader("Content-Type", "application/json")
                     .post(body)
                     .build();
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to build masking request: " + e.getMessage(), e);
+        }
 
-            try (Response response = client.newCall(request).execute()) {
-                String responseBody = response.body() != null
-                        ? response.body().string()
-                        : "";
-
-                logger.debug("OpenAI Masking Response Status: {}", response.code());
-
-                if (!response.isSuccessful()) {
-                    logger.error("OpenAI Masking Error (Status {}): {}", response.code(), responseBody);
-                    // Fallback: return original text if API call fails
-                    return text;
-                }
-
-                JsonNode json = mapper.readTree(responseBody);
-
-                // Check for API errors in response
-                if (json.has("error")) {
-                    JsonNode error = json.get("error");
-                    String errorMsg = error.has("message") ? error.get("message").asText() : "Unknown error";
-                    logger.error("OpenAI API Error: {}", errorMsg);
-                    return text;
-                }
-
-                // Extract the masked text from the response
-                if (json.has("choices") && json.get("choices").isArray() && json.get("choices").size() > 0) {
-                    JsonNode firstChoice = json.get("choices").get(0);
-                    if (firstChoice.has("message") && firstChoice.get("message").has("content")) {
-                        String maskedText = firstChoice.get("message").get("content").asText().trim();
-                        logger.info("Successfully masked text using OpenAI NLP (length: {})", maskedText.length());
-                        return maskedText;
-                    }
-                }
+        String responseBody;
+        try (Response response = client.newCall(request).execute()) {
+            responseBody = response.body() != null
+                    ? response.body().string()
+                    : "";
 
-                logger.error("Invalid OpenAI response structure: {}", responseBody);
-                return text;
+            logger.debug("OpenAI Masking Response Status: {}", response.code());
 
-            } catch (Exception e) {
-                logger.error("Error processing OpenAI response", e);
-                return text;
+            if (!response.isSuccessful()) {
+                logger.error("OpenAI Masking Error (Status {}): {}", response.code(), responseBody);
+                throw new RuntimeException("OpenAI masking API call failed: " + response.code());
             }
-
-        } catch (Exception e) {
+        } catch (IOException e) {
             logger.error("Error calling OpenAI API for text masking", e);
-            // Fallback: return original text if API call fails
-            return text;
+            throw new RuntimeException("OpenAI masking API call failed: " + e.getMessage(), e);
         }
-    }
 
-    /**
-     * Processes very long texts by splitting into chunks and masking each chunk
-     */
-    private String maskLongText(String text) {
-        StringBuilder maskedResult = new StringBuilder();
-        int totalLength = text.length();
-        int processed = 0;
+        JsonNode json;
+        try {
+            json = mapper.readTree(responseBody);
+        } catch (IOException e) {
+            throw new RuntimeException("Invalid OpenAI masking response: " + e.getMessage(), e);
+        }
 
-        while (processed < totalLength) {
-            int chunkEnd = Math.min(processed + CHUNK_SIZE, totalLength);
-            
-            // Try to break at sentence boundary if not at end
-            if (chunkEnd < totalLength) {
-                int lastPeriod = text.lastIndexOf('.', chunkEnd);
-                int lastNewline = text.lastIndexOf('\n', chunkEnd);
-                int breakPoint = Math.max(lastPeriod, lastNewline);
-                
-                if (breakPoint > processed + CHUNK_SIZE / 2) {
-                    chunkEnd = breakPoint + 1;
+        // Check for API errors in response
+        if (json.has("error")) {
+            JsonNode error = json.get("error");
+            String errorMsg = error.has("message") ? error.get("message").asText() : "Unknown error";
+            logger.error("OpenAI API Error: {}", errorMsg);
+            throw new RuntimeException("OpenAI masking API error: " + errorMsg);
+        }
+
+        // Extract the masked text from the response
+        if (json.has("choices") && json.get("choices").isArray() && json.get("choices").size() > 0) {
+            JsonNode firstChoice = json.get("choices").get(0);
+            if (firstChoice.has("message") && firstChoice.get("message").has("content")) {
+                String maskedText = firstChoice.get("message").get("content").asText().trim();
+                if (maskedText.isEmpty()) {
+                    throw new RuntimeException("OpenAI masking returned empty text");
                 }
+                logger.info("Successfully masked text using OpenAI NLP (length: {})", maskedText.length());
+                return maskedText;
             }
-
-            String chunk = text.substring(processed, chunkEnd);
-            logger.debug("Processing chunk {} (chars {}-{} of {})", 
-                        processed / CHUNK_SIZE + 1, processed, chunkEnd, totalLength);
-
-            String maskedChunk = maskTextChunk(chunk);
-            maskedResult.append(maskedChunk);
-
-            // Move forward, with overlap to avoid missing context
-            processed = chunkEnd - OVERLAP_SIZE;
-            if (processed < 0) processed = chunkEnd;
         }
 
-        return maskedResult.toString();
+        logger.error("Invalid OpenAI response structure: {}", responseBody);
+        throw new RuntimeException("Invalid OpenAI masking response structure");
     }
 
     /**
      * Builds the JSON request body for OpenAI Chat Completions API using Jackson
      */
     private String buildChatRequest(String text) throws Exception {
-        // Using gpt-4o-mini for cost-effective and fast NLP-based masking
-        String model = "gpt-4o-mini";
-        
         String fullPrompt = MASKING_PROMPT + text;
 
         // Calculate max_tokens dynamically based on input length
@@ -225,7 +230,7 @@ public class TextMaskingService {
 
         // Build JSON using Jackson ObjectMapper for robustness
         ObjectNode requestJson = mapper.createObjectNode();
-        requestJson.put("model", model);
+        requestJson.put("model", MODEL);
         
         ArrayNode messages = mapper.createArrayNode();
         
@@ -7,10 +7,15 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import okhttp3.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.concurrent.TimeUnit;
+import com.legalconnect.lawyerbooking.util.TextChunker;
+
+import java.io.IOException;
+import java.util.concurrent.Executor;
 
 @Service
 public class TextTranslationService {
@@ -23,14 +28,21 @@ public class TextTranslationService {
     private static final String CHAT_COMPLETIONS_URL =
             "https://api.openai.com/v1/chat/completions";
 
-    private final OkHttpClient client = new OkHttpClient.Builder()
-            .connectTimeout(60, TimeUnit.SECONDS)
-            .readTimeout(120, TimeUnit.SECONDS)
-            .writeTimeout(120, TimeUnit.SECONDS)
-            .build();
+    private OkHttpClient client;
+
+    @Autowired
+    void setHttpClients(OpenAIHttpClients httpClients) {
+        // Shares the OpenAI connection pool; timeouts overridable per service
+        this.client = httpClients.forService("translation", 60, 120, 120);
+    }
     
     private static final int CHUNK_SIZE = 50000; // Characters per chunk
-    private static final int OVERLAP_SIZE = 500; // Overlap to avoid splitting in middle of sentences
+
+    private final TextChunker chunker = new TextChunker(CHUNK_SIZE); // Sentence-aligned, no overlap
+
+    @Autowired
+    @Qualifier("textChunkExecutor")
+    private Executor chunkExecutor;
 
     private final ObjectMapper mapper = new ObjectMapper();
 
@@ -50,132 +62,92 @@ public class TextTranslationService {
      * Translates English masked text to Gujarati
      * @param englishText The English text to translate
      * @return Gujarati translated text with mask tokens preserved
+     * @throws RuntimeException if the API call fails; the English text is never returned in its place
      */
     public String translateToGujarati(String englishText) {
         if (englishText == null || englishText.trim().isEmpty()) {
             return englishText;
         }
 
-        try {
-            // For very long texts, process in chunks
-            if (englishText.length() > CHUNK_SIZE) {
-                logger.info("Text is long ({} chars), translating in chunks...", englishText.length());
-                return translateLongText(englishText);
-            }
-
-            // For normal length texts, process directly
-            return translateTextChunk(englishText);
-
-        } catch (Exception e) {
-            logger.error("Error in translateToGujarati", e);
-            // Fallback: return original text if translation fails
-            return englishText;
+        // For very long texts, process in chunks
+        if (chunker.needsChunking(englishText)) {
+            logger.info("Text is long ({} chars), translating in chunks...", englishText.length());
+            return chunker.process(englishText, this::translateTextChunk, chunkExecutor);
         }
+
+        // For normal length texts, process directly
+        return translateTextChunk(englishText);
     }
 
     /**
      * Translates a single chunk of text using OpenAI API
+     * @throws RuntimeException on any API or response failure
      */
     private String translateTextChunk(String text) {
+        Request request;
         try {
-            // Build the request payload
-            String requestBody = buildTranslationRequest(text);
-
             RequestBody body = RequestBody.create(
-                    requestBody,
+                    buildTranslationRequest(text),
                     MediaType.parse("application/json; charset=utf-8")
             );
 
-            Request request = new Request.Builder()
+            request = new Request.Builder()
                     .url(CHAT_COMPLETIONS_URL)
                     .addHeader("Authorization", "Bearer " + apiKey)
                     .addHeader("Content-Type", "application/json")
                     .post(body)
                     .build();
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to build translation request: " + e.getMessage(), e);
+        }
 
-            try (Response response = client.newCall(request).execute()) {
-                String responseBody = response.body() != null
-                        ? response.body().string()
-                        : "";
-
-                logger.debug("OpenAI Translation Response Status: {}", response.code());
-
-                if (!response.isSuccessful()) {
-                    logger.error("OpenAI Translation Error (Status {}): {}", response.code(), responseBody);
-                    // Fallback: return original text if API call fails
-                    return text;
-                }
-
-                JsonNode json = mapper.readTree(responseBody);
-
-                // Check for API errors in response
-                if (json.has("error")) {
-                    JsonNode error = json.get("error");
-                    String errorMsg = error.has("message") ? error.get("message").asText() : "Unknown error";
-                    logger.error("OpenAI API Error: {}", errorMsg);
-                    return text;
-                }
-
-                // Extract the translated text from the response
-                if (json.has("choices") && json.get("choices").isArray() && json.get("choices").size() > 0) {
-                    JsonNode firstChoice = json.get("choices").get(0);
-                    if (firstChoice.has("message") && firstChoice.get("message").has("content")) {
-                        String translatedText = firstChoice.get("message").get("content").asText().trim();
-                        logger.info("Successfully translated text to Gujarati (length: {})", translatedText.length());
-                        return translatedText;
-                    }
-                }
+        String responseBody;
+        try (Response response = client.newCall(request).execute()) {
+            responseBody = response.body() != null
+                    ? response.body().string()
+                    : "";
 
-                logger.error("Invalid OpenAI response structure: {}", responseBody);
-                return text;
+            logger.debug("OpenAI Translation Response Status: {}", response.code());
 
-            } catch (Exception e) {
-                logger.error("Error processing OpenAI response", e);
-                return text;
+            if (!response.isSuccessful()) {
+                logger.error("OpenAI Translation Error (Status {}): {}", response.code(), responseBody);
+                throw new RuntimeException("OpenAI translation API call failed: " + response.code());
             }
-
-        } catch (Exception e) {
+        } catch (IOException e) {
             logger.error("Error calling OpenAI API for translation", e);
-            // Fallback: return original text if API call fails
-            return text;
+            throw new RuntimeException("OpenAI translation API call failed: " + e.getMessage(), e);
         }
-    }
 
-    /**
-     * Processes very long texts by splitting into chunks and translating each chunk
-     */
-    private String translateLongText(String text) {
-        StringBuilder translatedResult = new StringBuilder();
-        int totalLength = text.length();
-        int processed = 0;
+        JsonNode json;
+        try {
+            json = mapper.readTree(responseBody);
+        } catch (IOException e) {
+            throw new RuntimeException("Invalid OpenAI translation response: " + e.getMessage(), e);
+        }
 
-        while (processed < totalLength) {
-            int chunkEnd = Math.min(processed + CHUNK_SIZE, totalLength);
-            
-            // Try to break at sentence boundary if not at end
-            if (chunkEnd < totalLength) {
-                int lastPeriod = text.lastIndexOf('.', chunkEnd);
-                int lastNewline = text.lastIndexOf('\n', chunkEnd);
-                int breakPoint = Math.max(lastPeriod, lastNewline);
-                
-                if (breakPoint > processed + CHUNK_SIZE / 2) {
-                    chunkEnd = breakPoint + 1;
+        // Check for API errors in response
+        if (json.has("error")) {
+            JsonNode error = json.get("error");
+            String errorMsg = error.has("message") ? error.get("message").asText() : "Unknown error";
+            logger.error("OpenAI API Error: {}", errorMsg);
+            throw new RuntimeException("OpenAI translation API error: " + errorMsg);
+        }
+
+        // Extract the translated text from the response
+        if (json.has("choices") && json.get("choices").isArray() && json.get("choices").size() > 0) {
+            JsonNode firstChoice = json.get("choices").get(0);
+            if (firstChoice.has("message") && firstChoice.get("message").has("content")) {
+                String translatedText = firstChoice.get("message").get("content").asText().trim();
+                if (translatedText.isEmpty()) {
+                    throw new RuntimeException("OpenAI translation returned empty text");
                 }
+                logger.info("Successfully translated text to Gujarati (length: {})", translatedText.length());
+                return translatedText;
             }
-
-            String chunk = text.substring(processed, chunkEnd);
-            logger.debug("Translating chunk {} (chars {}-{} of {})", 
-                        processed / CHUNK_SIZE + 1, processed, chunkEnd, totalLength);
-
-            String translatedChunk = translateTextChunk(chunk);
-            translatedResult.append(translatedChunk);
-
-            // Move forward, with overlap to avoid missing context
-            processed = chunkEnd - OVERLAP_SIZE;
-            if (processed < 0) processed = chunkEnd;
         }
 
-        return translatedResult.toString();
+        logger.error("Invalid OpenAI response structure: {}", responseBody);
+        throw new RuntimeException("Invalid OpenAI translation response structure");
     }
 
     /**
@@ -0,0 +1,288 @@
+package com.legalconnect.lawyerbooking.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * TTS FRAGMENT CACHE
+ *
+ * PURPOSE: Stop re-synthesizing sentences that recur across transcripts
+ * ("[NAME_MASKED] said that ...", standard legal phrases)
+ *
+ * DESIGN:
+ * - One MP3 fragment per sentence, keyed by SHA-256 of model, voice and the
+ *   whitespace-normalized sentence
+ * - Only recurring sentences are synthesized on their own and stored: the keys of sentences
+ *   seen so far (at most audio.tts.fragment-cache.seen-max, least recently seen dropped) are
+ *   remembered, and a sentence is cached the second time it comes up. Novel sentences are
+ *   packed into regular multi-sentence requests, so a transcript of new text costs no more
+ *   requests than without the cache
+ * - Stored on disk under audio.tts.fragment-cache.dir as ab/{sha256}.{apiMillis}.mp3;
+ *   apiMillis is how long the API took to produce the fragment, so a hit knows what it saved
+ * - Bounded by audio.tts.fragment-cache.max-bytes; least recently used fragments are
+ *   deleted first. The LRU index lives in memory; hits refresh the file's modification
+ *   time so the index can be rebuilt from the directory in the same order at startup
+ * - Cache failures are treated as misses; the sentence is synthesized as usual
+ *
+ * METRICS: hits, misses, hit ratio and API seconds saved
+ */
+@Component
+public class TtsFragmentCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TtsFragmentCache.class);
+
+    private static final Pattern FILE_NAME = Pattern.compile("([0-9a-f]{64})\\.(\\d+)\\.mp3");
+
+    @Value("${audio.tts.fragment-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${audio.tts.fragment-cache.dir:data/tts-fragments}")
+    private String dir;
+
+    @Value("${audio.tts.fragment-cache.max-bytes:536870912}")
+    private long maxBytes;
+
+    @Value("${audio.tts.fragment-cache.seen-max:100000}")
+    private int seenMax;
+
+    private Path root;
+
+    // Access-ordered: iteration starts at the least recently used fragment
+    private final LinkedHashMap<String, Fragment> index = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    // Keys of sentences synthesized before, cached or not; access-ordered like the index
+    private final LinkedHashMap<String, Boolean> seen = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong stores = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong apiMillisSaved = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        root = Paths.get(dir).toAbsolutePath().normalize();
+        try {
+            Files.createDirectories(root);
+            List<Path> files;
+            try (Stream<Path> walk = Files.walk(root, 2)) {
+                files = walk.filter(Files::isRegularFile)
+                        .sorted(Comparator.comparingLong(TtsFragmentCache::lastModified))
+                        .collect(Collectors.toList());
+            }
+            synchronized (this) {
+                for (Path file : files) {
+                    Matcher matcher = FILE_NAME.matcher(file.getFileName().toString());
+                    if (matcher.matches()) {
+                        add(matcher.group(1), new Fragment(file, Files.size(file), Long.parseLong(matcher.group(2))));
+                    } else if (file.getFileName().toString().endsWith(".tmp")) {
+                        Files.deleteIfExists(file);
+                    }
+                }
+                evict();
+            }
+            logger.info("TTS fragment cache at {}: {} fragments, {} bytes", root, index.size(), totalBytes);
+        } catch (IOException e) {
+            logger.warn("TTS fragment cache disabled, cannot use {}: {}", root, e.getMessage());
+            enabled = false;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Cache key of one sentence for a model and voice
+     */
+    public String key(String model, String voice, String sentence) {
+        String normalized = sentence.trim().replaceAll("\\s+", " ");
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : new String[] {model, voice, normalized}) {
+                digest.update(part.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Record that the sentence is about to be synthesized
+     * @return true if it is cached or was synthesized before, i.e. worth a request of its own
+     */
+    public synchronized boolean markSeen(String key) {
+        if (index.containsKey(key)) {
+            return true;
+        }
+        boolean before = seen.put(key, Boolean.TRUE) != null;
+        if (seen.size() > seenMax) {
+            Iterator<String> eldest = seen.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+        return before;
+    }
+
+    /**
+     * @return the cached fragment, or null on a miss
+     */
+    public byte[] get(String key) {
+        if (!enabled) {
+            return null;
+        }
+        Fragment fragment;
+        synchronized (this) {
+            fragment = index.get(key);
+        }
+        if (fragment == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        try {
+            byte[] audio = Files.readAllBytes(fragment.path);
+            Files.setLastModifiedTime(fragment.path, FileTime.fromMillis(System.currentTimeMillis()));
+            hits.incrementAndGet();
+            apiMillisSaved.addAndGet(fragment.apiMillis);
+            return audio;
+        } catch (IOException e) {
+            logger.warn("Dropping unreadable TTS fragment {}: {}", fragment.path, e.getMessage());
+            synchronized (this) {
+                if (index.get(key) == fragment) {
+                    index.remove(key);
+                    totalBytes -= fragment.size;
+                }
+            }
+            misses.incrementAndGet();
+            return null;
+        }
+    }
+
+    /**
+     * Store a freshly synthesized fragment and how long the API took for it
+     */
+    public void put(String key, byte[] audio, long apiMillis) {
+        if (!enabled || audio == null || audio.length == 0 || audio.length > maxBytes) {
+            return;
+        }
+        Path path = root.resolve(key.substring(0, 2)).resolve(key + "." + apiMillis + ".mp3");
+        try {
+            Files.createDirectories(path.getParent());
+            Path temp = Files.createTempFile(path.getParent(), key, ".tmp");
+            try {
+                Files.write(temp, audio);
+                Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to store TTS fragment {}: {}", key, e.getMessage());
+            return;
+        }
+        synchronized (this) {
+            add(key, new Fragment(path, audio.length, apiMillis));
+            evict();
+        }
+        stores.incrementAndGet();
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        synchronized (this) {
+            stats.put("fragments", index.size());
+            stats.put("bytes", totalBytes);
+            stats.put("seenSentences", seen.size());
+        }
+        stats.put("maxBytes", maxBytes);
+        stats.put("hits", hitCount);
+        stats.put("misses", misses.get());
+        stats.put("hitRatio", total == 0 ? 0.0 : (double) hitCount / total);
+        stats.put("stores", stores.get());
+        stats.put("evictions", evictions.get());
+        stats.put("apiSecondsSaved", apiMillisSaved.get() / 1000.0);
+        return stats;
+    }
+
+    private void add(String key, Fragment fragment) {
+        Fragment previous = index.put(key, fragment);
+        totalBytes += fragment.size;
+        if (previous != null) {
+            totalBytes -= previous.size;
+            if (!previous.path.equals(fragment.path)) {
+                deleteQuietly(previous.path);
+            }
+        }
+    }
+
+    private void evict() {
+        Iterator<Fragment> eldest = index.values().iterator();
+        while (totalBytes > maxBytes && eldest.hasNext()) {
+            Fragment fragment = eldest.next();
+            eldest.remove();
+            totalBytes -= fragment.size;
+            deleteQuietly(fragment.path);
+            evictions.incrementAndGet();
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Failed to delete TTS fragment {}: {}", path, e.getMessage());
+        }
+    }
+
+    private static long lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static final class Fragment {
+        private final Path path;
+        private final long size;
+        private final long apiMillis;
+
+        private Fragment(Path path, long size, long apiMillis) {
+            this.path = path;
+            this.size = size;
+            this.apiMillis = apiMillis;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.legalconnect.lawyerbooking.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.ReactorNettyTcpStompClient;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.lang.reflect.Type;
+import java.util.Map;
+
+/**
+ * UNREAD COUNTER RELAY
+ *
+ * PURPOSE: Keep UnreadCounterService counters in step across nodes in relay mode
+ * (websocket.broker.mode=relay)
+ *
+ * DESIGN:
+ * - Holds one STOMP session to the broker (websocket.broker.relay.* settings, system
+ *   credentials) subscribed to UnreadCounterService.DELTA_TOPIC
+ * - Every delta another node publishes is applied to this node's counters
+ * - Reconnects every messaging.unread.relay-reconnect-ms while the broker is unreachable;
+ *   deltas missed meanwhile are corrected by UnreadCounterService.reconcile()
+ */
+@Component
+@ConditionalOnProperty(name = "websocket.broker.mode", havingValue = "relay")
+public class UnreadCounterRelay extends StompSessionHandlerAdapter {
+
+    private static final Logger logger = LoggerFactory.getLogger(UnreadCounterRelay.class);
+
+    @Autowired
+    private UnreadCounterService unreadCounters;
+
+    @Value("${websocket.broker.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${websocket.broker.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${websocket.broker.relay.virtual-host:}")
+    private String relayVirtualHost;
+
+    @Value("${websocket.broker.relay.system-login:guest}")
+    private String relaySystemLogin;
+
+    @Value("${websocket.broker.relay.system-passcode:guest}")
+    private String relaySystemPasscode;
+
+    private ReactorNettyTcpStompClient client;
+    private volatile StompSession session;
+    private volatile boolean connecting;
+
+    @Scheduled(fixedDelayString = "${messaging.unread.relay-reconnect-ms:10000}")
+    public synchronized void connect() {
+        if (connecting || (session != null && session.isConnected())) {
+            return;
+        }
+        if (client == null) {
+            client = new ReactorNettyTcpStompClient(relayHost, relayPort);
+            client.setMessageConverter(new MappingJackson2MessageConverter());
+        }
+        StompHeaders headers = new StompHeaders();
+        headers.setLogin(relaySystemLogin);
+        headers.setPasscode(relaySystemPasscode);
+        if (!relayVirtualHost.isEmpty()) {
+            headers.setHost(relayVirtualHost);
+        }
+        connecting = true;
+        client.connectAsync(headers, this).whenComplete((s, e) -> {
+            connecting = false;
+            if (e != null) {
+                logger.warn("Unread counter relay cannot reach {}:{}: {}", relayHost, relayPort, e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void afterConnected(StompSession session, StompHeaders connectedHeaders) {
+        this.session = session;
+        session.subscribe(UnreadCounterService.DELTA_TOPIC, this);
+        logger.info("Unread counter relay subscribed to {}", UnreadCounterService.DELTA_TOPIC);
+    }
+
+    @Override
+    public Type getPayloadType(StompHeaders headers) {
+        return Map.class;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void handleFrame(StompHeaders headers, Object payload) {
+        try {
+            unreadCounters.applyDelta((Map<String, Object>) payload);
+        } catch (Exception e) {
+            logger.warn("Ignoring malformed unread delta: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void handleException(StompSession session, StompCommand command, StompHeaders headers,
+                                byte[] payload, Throwable exception) {
+        logger.warn("Unread counter relay error: {}", exception.getMessage());
+    }
+
+    @Override
+    public void handleTransportError(StompSession session, Throwable exception) {
+        logger.warn("Unread counter relay disconnected: {}", exception.getMessage());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        StompSession current = session;
+        if (current != null && current.isConnected()) {
+            current.disconnect();
+        }
+        if (client != null) {
+            client.shutdown();
+        }
+    }
+}
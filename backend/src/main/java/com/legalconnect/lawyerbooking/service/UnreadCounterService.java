@@ -0,0 +1,296 @@
+package com.legalconnect.lawyerbooking.service;
+
+import com.legalconnect.lawyerbooking.repository.MessageRepository;
+import com.legalconnect.lawyerbooking.security.StompAuthentication;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UNREAD MESSAGE COUNTERS
+ *
+ * PURPOSE: Serve unread badges from memory instead of a COUNT query per poll
+ *
+ * DESIGN:
+ * - Counters per receiver, broken down per case; the total is the sum of the cases
+ * - Loaded from the database (read watermarks) the first time a receiver is asked for,
+ *   dropped by reconcile() after messaging.unread.idle-minutes without access
+ * - sendMessage increments, mark-as-read sets the case to its remaining count
+ * - Every change is pushed to the receiver's /user/queue/unread (authenticated STOMP
+ *   sessions only) so clients can stop polling
+ * - Increments racing a first load can drift; reconcile() reloads every loaded receiver
+ *   from the database every messaging.unread.reconcile-interval-ms and pushes corrections
+ *
+ * RELAY MODE (websocket.broker.mode=relay):
+ * - Counters live on every node that served the receiver, so each change is also published
+ *   to DELTA_TOPIC on the broker; UnreadCounterRelay applies other nodes' deltas here
+ * - The node where the change happens pushes it; the broker routes the push to the node
+ *   holding the receiver's session, so it always loads the receiver before pushing
+ */
+@Component
+public class UnreadCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UnreadCounterService.class);
+
+    /** Broker topic carrying counter changes between nodes in relay mode */
+    public static final String DELTA_TOPIC = "/topic/unread-deltas";
+
+    private static final String SENT = "sent";
+    private static final String READ = "read";
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    private final Map<String, ReceiverCounters> counters = new ConcurrentHashMap<>();
+
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong pushes = new AtomicLong();
+    private final AtomicLong reconciliations = new AtomicLong();
+    private final AtomicLong corrections = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong deltasPublished = new AtomicLong();
+    private final AtomicLong deltasApplied = new AtomicLong();
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Value("${messaging.unread.idle-minutes:30}")
+    private long idleMinutes;
+
+    @Value("${websocket.broker.mode:simple}")
+    private String brokerMode;
+
+    public long getTotal(Long receiverId, String receiverType) {
+        return counters(receiverId, receiverType).total();
+    }
+
+    public long getCaseCount(Long caseId, Long receiverId, String receiverType) {
+        return counters(receiverId, receiverType).get(caseId);
+    }
+
+    /**
+     * A message was stored for this receiver
+     */
+    public void onMessageSent(Long caseId, Long receiverId, String receiverType) {
+        if (caseId == null || receiverId == null || receiverType == null) {
+            return;
+        }
+        if (isRelay()) {
+            publishDelta(SENT, caseId, receiverId, receiverType, 0);
+            // Loading reads the database, which already includes the new message
+            boolean loaded = counters.containsKey(key(receiverId, receiverType));
+            ReceiverCounters c = counters(receiverId, receiverType);
+            long count = loaded ? c.perCase.computeIfAbsent(caseId, k -> new AtomicLong()).incrementAndGet() : c.get(caseId);
+            push(receiverId, receiverType, caseId, count, c.total());
+            return;
+        }
+        // Receivers not in memory are loaded from the database (message included) on next access
+        ReceiverCounters c = counters.get(key(receiverId, receiverType));
+        if (c != null) {
+            long count = c.perCase.computeIfAbsent(caseId, k -> new AtomicLong()).incrementAndGet();
+            push(receiverId, receiverType, caseId, count, c.total());
+        }
+    }
+
+    /**
+     * The receiver read messages in this case; {@code remaining} is what is still unread
+     */
+    public void onRead(Long caseId, Long receiverId, String receiverType, long remaining) {
+        if (isRelay()) {
+            publishDelta(READ, caseId, receiverId, receiverType, remaining);
+        }
+        ReceiverCounters c = isRelay() ? counters(receiverId, receiverType) : counters.get(key(receiverId, receiverType));
+        if (c == null) {
+            return;
+        }
+        long previous = c.set(caseId, remaining);
+        if (previous != remaining) {
+            push(receiverId, receiverType, caseId, remaining, c.total());
+        }
+    }
+
+    /**
+     * Apply a change published by another node; its origin already pushed it to the client
+     */
+    public void applyDelta(Map<String, Object> delta) {
+        if (nodeId.equals(delta.get("node"))) {
+            return;
+        }
+        Long caseId = ((Number) delta.get("caseId")).longValue();
+        Long receiverId = ((Number) delta.get("receiverId")).longValue();
+        ReceiverCounters c = counters.get(key(receiverId, (String) delta.get("receiverType")));
+        if (c == null) {
+            return;
+        }
+        if (SENT.equals(delta.get("op"))) {
+            c.perCase.computeIfAbsent(caseId, k -> new AtomicLong()).incrementAndGet();
+        } else if (READ.equals(delta.get("op"))) {
+            c.set(caseId, ((Number) delta.get("remaining")).longValue());
+        }
+        deltasApplied.incrementAndGet();
+    }
+
+    /**
+     * Drop idle receivers, reload the rest from the database and push any counter that drifted
+     */
+    @Scheduled(fixedDelayString = "${messaging.unread.reconcile-interval-ms:60000}",
+               initialDelayString = "${messaging.unread.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        int drifted = 0;
+        long idleBefore = System.currentTimeMillis() - idleMinutes * 60_000;
+        for (Map.Entry<String, ReceiverCounters> entry : counters.entrySet()) {
+            ReceiverCounters c = entry.getValue();
+            if (c.lastAccess < idleBefore) {
+                if (counters.remove(entry.getKey(), c)) {
+                    evictions.incrementAndGet();
+                }
+                continue;
+            }
+            try {
+                Map<Long, Long> actual = query(c.receiverId, c.receiverType);
+                Map<Long, Long> changed = new HashMap<>();
+                for (Long caseId : c.perCase.keySet()) {
+                    if (!actual.containsKey(caseId) && c.set(caseId, 0) != 0) {
+                        changed.put(caseId, 0L);
+                    }
+                }
+                actual.forEach((caseId, count) -> {
+                    if (c.set(caseId, count) != count) {
+                        changed.put(caseId, count);
+                    }
+                });
+                if (!changed.isEmpty()) {
+                    drifted++;
+                    corrections.addAndGet(changed.size());
+                    long total = c.total();
+                    changed.forEach((caseId, count) -> push(c.receiverId, c.receiverType, caseId, count, total));
+                }
+            } catch (Exception e) {
+                logger.warn("Unread counter reconciliation failed for {}: {}", entry.getKey(), e.getMessage());
+            }
+        }
+        reconciliations.incrementAndGet();
+        if (drifted > 0) {
+            logger.info("Unread counter reconciliation corrected {} of {} receivers", drifted, counters.size());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("receivers", counters.size());
+        stats.put("lookups", lookups.get());
+        stats.put("loads", loads.get());
+        stats.put("pushes", pushes.get());
+        stats.put("reconciliations", reconciliations.get());
+        stats.put("corrections", corrections.get());
+        stats.put("evictions", evictions.get());
+        stats.put("deltasPublished", deltasPublished.get());
+        stats.put("deltasApplied", deltasApplied.get());
+        return stats;
+    }
+
+    private ReceiverCounters counters(Long receiverId, String receiverType) {
+        String type = receiverType.toLowerCase(Locale.ROOT);
+        lookups.incrementAndGet();
+        ReceiverCounters counter = counters.computeIfAbsent(key(receiverId, type), k -> {
+            loads.incrementAndGet();
+            ReceiverCounters c = new ReceiverCounters(receiverId, type);
+            query(receiverId, type).forEach(c::set);
+            return c;
+        });
+        counter.lastAccess = System.currentTimeMillis();
+        return counter;
+    }
+
+    private Map<Long, Long> query(Long receiverId, String receiverType) {
+        List<Object[]> rows = messageRepository.countUnreadByWatermarkPerCase(receiverId, receiverType);
+        Map<Long, Long> result = new HashMap<>();
+        for (Object[] row : rows) {
+            result.put((Long) row[0], ((Number) row[1]).longValue());
+        }
+        return result;
+    }
+
+    private void push(Long receiverId, String receiverType, Long caseId, long caseCount, long total) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("caseId", caseId);
+        payload.put("caseCount", caseCount);
+        payload.put("total", total);
+        try {
+            messagingTemplate.convertAndSendToUser(StompAuthentication.userName(receiverType, receiverId), "/queue/unread", payload);
+            pushes.incrementAndGet();
+        } catch (Exception e) {
+            logger.warn("Failed to push unread count to {} {}: {}", receiverType, receiverId, e.getMessage());
+        }
+    }
+
+    private void publishDelta(String op, Long caseId, Long receiverId, String receiverType, long remaining) {
+        Map<String, Object> delta = new LinkedHashMap<>();
+        delta.put("node", nodeId);
+        delta.put("op", op);
+        delta.put("caseId", caseId);
+        delta.put("receiverId", receiverId);
+        delta.put("receiverType", receiverType.toLowerCase(Locale.ROOT));
+        delta.put("remaining", remaining);
+        try {
+            messagingTemplate.convertAndSend(DELTA_TOPIC, delta);
+            deltasPublished.incrementAndGet();
+        } catch (Exception e) {
+            // Other nodes catch up at their next reconcile()
+            logger.warn("Failed to publish unread delta for {} {}: {}", receiverType, receiverId, e.getMessage());
+        }
+    }
+
+    private boolean isRelay() {
+        return "relay".equalsIgnoreCase(brokerMode);
+    }
+
+    private static String key(Long receiverId, String receiverType) {
+        return receiverType.toLowerCase(Locale.ROOT) + ":" + receiverId;
+    }
+
+    private static final class ReceiverCounters {
+        private final Long receiverId;
+        private final String receiverType;
+        private final Map<Long, AtomicLong> perCase = new ConcurrentHashMap<>();
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        ReceiverCounters(Long receiverId, String receiverType) {
+            this.receiverId = receiverId;
+            this.receiverType = receiverType;
+        }
+
+        long get(Long caseId) {
+            AtomicLong count = perCase.get(caseId);
+            return count == null ? 0 : count.get();
+        }
+
+        /**
+         * @return the previous value
+         */
+        long set(Long caseId, long value) {
+            AtomicLong count = perCase.computeIfAbsent(caseId, k -> new AtomicLong());
+            return count.getAndSet(Math.max(0, value));
+        }
+
+        long total() {
+            return perCase.values().stream().mapToLong(AtomicLong::get).sum();
+        }
+    }
+}
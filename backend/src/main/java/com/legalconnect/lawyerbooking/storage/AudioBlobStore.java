@@ -0,0 +1,33 @@
+package com.legalconnect.lawyerbooking.storage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Content-addressed storage for synthesized audio kept outside MySQL.
+ * Keys are the lowercase hex SHA-256 of the bytes, so a put is idempotent and
+ * the same clip is stored once however many records reference it.
+ */
+public interface AudioBlobStore {
+
+    /**
+     * Name used in stored references ("{name}:{key}") and in audio.blob.store
+     */
+    String getName();
+
+    void put(String key, byte[] data) throws IOException;
+
+    /**
+     * @return size in bytes, or -1 if the blob does not exist
+     */
+    long size(String key) throws IOException;
+
+    byte[] read(String key) throws IOException;
+
+    /**
+     * Write bytes [start, start + length) of the blob to {@code out}
+     */
+    void copyRange(String key, long start, long length, OutputStream out) throws IOException;
+
+    void delete(String key) throws IOException;
+}
@@ -0,0 +1,101 @@
+package com.legalconnect.lawyerbooking.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.regex.Pattern;
+
+/**
+ * Audio blobs on local disk (audio.blob.local.root) under {root}/ab/cd/{sha256}.mp3.
+ * Writes go to a temp file and are moved into place atomically; ranges are served
+ * with FileChannel.transferTo, which only reads the requested bytes and never holds the
+ * whole clip in memory. The target is a plain OutputStream, so the bytes still pass
+ * through a small heap buffer on their way out (no sendfile zero-copy).
+ */
+@Component
+public class LocalDiskAudioBlobStore implements AudioBlobStore {
+
+    private static final Pattern KEY = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path root;
+
+    public LocalDiskAudioBlobStore(@Value("${audio.blob.local.root:data/audio-blobs}") String root) {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public String getName() {
+        return "local";
+    }
+
+    @Override
+    public void put(String key, byte[] data) throws IOException {
+        Path path = path(key);
+        if (Files.exists(path) && Files.size(path) == data.length) {
+            return; // Same content already stored
+        }
+        Files.createDirectories(path.getParent());
+        Path temp = Files.createTempFile(path.getParent(), key, ".tmp");
+        try {
+            Files.write(temp, data);
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (FileAlreadyExistsException e) {
+            // Written concurrently by another request
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public long size(String key) throws IOException {
+        Path path = path(key);
+        return Files.exists(path) ? Files.size(path) : -1;
+    }
+
+    @Override
+    public byte[] read(String key) throws IOException {
+        return Files.readAllBytes(path(key));
+    }
+
+    @Override
+    public void copyRange(String key, long start, long length, OutputStream out) throws IOException {
+        try (FileChannel channel = FileChannel.open(path(key), StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, target);
+                if (sent <= 0) {
+                    throw new NoSuchFileException(key, null, "Blob ended at byte " + position);
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+        out.flush();
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(path(key));
+    }
+
+    private Path path(String key) {
+        if (key == null || !KEY.matcher(key).matches()) {
+            throw new IllegalArgumentException("Invalid blob key: " + key);
+        }
+        return root.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key + ".mp3");
+    }
+}
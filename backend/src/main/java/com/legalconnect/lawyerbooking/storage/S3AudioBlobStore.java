@@ -0,0 +1,202 @@
+package com.legalconnect.lawyerbooking.storage;
+
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Audio blobs in an S3-compatible object store (AWS S3, MinIO, Ceph, ...).
+ * Enabled when audio.blob.s3.bucket is set; a local MinIO container works as a stand-in.
+ *
+ * - Path-style URLs: {endpoint}/{bucket}/{prefix}{sha256}.mp3
+ * - Requests are signed with AWS Signature V4 over OkHttp (no SDK dependency)
+ * - Ranges are fetched with an HTTP Range header and streamed straight to the client;
+ *   anything but 206 Partial Content is rejected unless the range is the whole object
+ */
+@Component
+@ConditionalOnProperty(name = "audio.blob.s3.bucket")
+public class S3AudioBlobStore implements AudioBlobStore {
+
+    private static final MediaType AUDIO_MPEG = MediaType.parse("audio/mpeg");
+    private static final DateTimeFormatter AMZ_DATE = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+    private static final String EMPTY_SHA256 = "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855";
+
+    private final HttpUrl endpoint;
+    private final String region;
+    private final String bucket;
+    private final String prefix;
+    private final String accessKey;
+    private final String secretKey;
+    private final OkHttpClient client;
+
+    public S3AudioBlobStore(
+            @Value("${audio.blob.s3.endpoint:https://s3.amazonaws.com}") String endpoint,
+            @Value("${audio.blob.s3.region:us-east-1}") String region,
+            @Value("${audio.blob.s3.bucket}") String bucket,
+            @Value("${audio.blob.s3.prefix:audio/}") String prefix,
+            @Value("${audio.blob.s3.access-key:}") String accessKey,
+            @Value("${audio.blob.s3.secret-key:}") String secretKey,
+            @Value("${audio.blob.s3.timeout-seconds:60}") long timeoutSeconds) {
+        this.endpoint = HttpUrl.get(endpoint);
+        this.region = region;
+        this.bucket = bucket;
+        this.prefix = prefix;
+        this.accessKey = accessKey;
+        this.secretKey = secretKey;
+        this.client = new OkHttpClient.Builder()
+                .connectTimeout(timeoutSeconds, TimeUnit.SECONDS)
+                .readTimeout(timeoutSeconds, TimeUnit.SECONDS)
+                .writeTimeout(timeoutSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return "s3";
+    }
+
+    @Override
+    public void put(String key, byte[] data) throws IOException {
+        // The key is the SHA-256 of the bytes, which is exactly the payload hash SigV4 needs
+        Request request = signed(new Request.Builder().url(url(key)).put(RequestBody.create(data, AUDIO_MPEG)), "PUT", key, key);
+        try (Response response = client.newCall(request).execute()) {
+            check(response, key);
+        }
+    }
+
+    @Override
+    public long size(String key) throws IOException {
+        Request request = signed(new Request.Builder().url(url(key)).head(), "HEAD", key, EMPTY_SHA256);
+        try (Response response = client.newCall(request).execute()) {
+            if (response.code() == 404) {
+                return -1;
+            }
+            check(response, key);
+            String length = response.header("Content-Length");
+            return length == null ? -1 : Long.parseLong(length);
+        }
+    }
+
+    @Override
+    public byte[] read(String key) throws IOException {
+        Request request = signed(new Request.Builder().url(url(key)).get(), "GET", key, EMPTY_SHA256);
+        try (Response response = client.newCall(request).execute()) {
+            check(response, key);
+            return response.body().bytes();
+        }
+    }
+
+    @Override
+    public void copyRange(String key, long start, long length, OutputStream out) throws IOException {
+        Request request = signed(new Request.Builder().url(url(key)).get()
+                .header("Range", "bytes=" + start + "-" + (start + length - 1)), "GET", key, EMPTY_SHA256);
+        try (Response response = client.newCall(request).execute()) {
+            check(response, key);
+            ResponseBody body = response.body();
+            // A store that ignores Range answers 200 with the whole object, which is only the
+            // requested bytes when the range starts at 0 and spans the full length
+            if (response.code() != 206 && (start != 0 || body.contentLength() != length)) {
+                throw new IOException("S3 ignored Range " + start + "+" + length + " for blob " + key
+                        + ": HTTP " + response.code() + ", " + body.contentLength() + " bytes");
+            }
+            try (InputStream in = body.byteStream()) {
+                in.transferTo(out);
+            }
+        }
+        out.flush();
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Request request = signed(new Request.Builder().url(url(key)).delete(), "DELETE", key, EMPTY_SHA256);
+        try (Response response = client.newCall(request).execute()) {
+            if (response.code() != 404) {
+                check(response, key);
+            }
+        }
+    }
+
+    private HttpUrl url(String key) {
+        return endpoint.newBuilder()
+                .addPathSegment(bucket)
+                .addPathSegments(prefix + key + ".mp3")
+                .build();
+    }
+
+    private Request signed(Request.Builder builder, String method, String key, String payloadHash) {
+        HttpUrl url = url(key);
+        ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+        String amzDate = AMZ_DATE.format(now);
+        String dateStamp = amzDate.substring(0, 8);
+        String host = url.port() == HttpUrl.defaultPort(url.scheme()) ? url.host() : url.host() + ":" + url.port();
+
+        String signedHeaders = "host;x-amz-content-sha256;x-amz-date";
+        String canonicalRequest = method + "\n"
+                + url.encodedPath() + "\n"
+                + "\n"
+                + "host:" + host + "\n"
+                + "x-amz-content-sha256:" + payloadHash + "\n"
+                + "x-amz-date:" + amzDate + "\n"
+                + "\n"
+                + signedHeaders + "\n"
+                + payloadHash;
+        String scope = dateStamp + "/" + region + "/s3/aws4_request";
+        String stringToSign = "AWS4-HMAC-SHA256\n" + amzDate + "\n" + scope + "\n" + sha256Hex(canonicalRequest);
+
+        byte[] signingKey = hmac(hmac(hmac(hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), dateStamp),
+                region), "s3"), "aws4_request");
+        String signature = HexFormat.of().formatHex(hmac(signingKey, stringToSign));
+
+        return builder
+                .header("x-amz-date", amzDate)
+                .header("x-amz-content-sha256", payloadHash)
+                .header("Authorization", "AWS4-HMAC-SHA256 Credential=" + accessKey + "/" + scope
+                        + ", SignedHeaders=" + signedHeaders + ", Signature=" + signature)
+                .build();
+    }
+
+    private static void check(Response response, String key) throws IOException {
+        if (!response.isSuccessful()) {
+            throw new IOException("S3 request for blob " + key + " failed: HTTP " + response.code());
+        }
+    }
+
+    private static byte[] hmac(byte[] key, String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+
+    private static String sha256Hex(String data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
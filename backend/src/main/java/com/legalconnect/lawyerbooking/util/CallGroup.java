@@ -0,0 +1,67 @@
+package com.legalconnect.lawyerbooking.util;
+
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * OkHttp calls fanned out for one piece of work (segments of an upload, chunks of a text).
+ *
+ * CompletableFuture.cancel(true) neither interrupts a supplyAsync task nor aborts its HTTP call,
+ * so when one part fails the others would keep running (and billing). cancelAll() marks the group
+ * failed, so parts that have not started yet never send their request, and Call.cancel()s the
+ * ones already on the wire.
+ */
+public class CallGroup {
+
+    private final Set<Call> calls = ConcurrentHashMap.newKeySet();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    /**
+     * Execute a request as part of this group
+     * @throws IOException if the group was cancelled before or during the call
+     */
+    public Response execute(OkHttpClient client, Request request) throws IOException {
+        checkNotCancelled();
+        Call call = client.newCall(request);
+        calls.add(call);
+        if (isCancelled()) {
+            // Raced with cancelAll(), which may have missed this call
+            call.cancel();
+        }
+        return call.execute();
+    }
+
+    /**
+     * Fail the group: no new requests are sent and in-flight ones are aborted.
+     * Only the first cause is kept.
+     */
+    public void cancelAll(Throwable cause) {
+        if (failure.compareAndSet(null, cause != null ? cause : new IOException("Canceled"))) {
+            calls.forEach(Call::cancel);
+        }
+    }
+
+    public boolean isCancelled() {
+        return failure.get() != null;
+    }
+
+    /**
+     * The failure that cancelled the group, or null
+     */
+    public Throwable getFailure() {
+        return failure.get();
+    }
+
+    public void checkNotCancelled() throws IOException {
+        if (isCancelled()) {
+            throw new IOException("Canceled: another request of the same job failed");
+        }
+    }
+}
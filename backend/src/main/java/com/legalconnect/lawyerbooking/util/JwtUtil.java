@@ -1,6 +1,8 @@
 package com.legalconnect.lawyerbooking.util;
 
+import com.legalconnect.lawyerbooking.security.JwtClaims;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
@@ -28,6 +30,10 @@ import java.util.function.Function;
  * - Better error handling
  * - Secret key validation
  * - Token expiration handling
+ *
+ * PERFORMANCE:
+ * - Signing key and parser are built once and reused
+ * - parseToken() verifies the signature once and returns all claims
  */
 @Component
 public class JwtUtil {
@@ -38,15 +44,57 @@ public class JwtUtil {
     @Value("${jwt.expiration:86400000}") // 24 hours in milliseconds
     private Long expiration;
 
+    private volatile SecretKey signingKey;
+
+    private volatile JwtParser jwtParser;
+
     /**
      * Get signing key for JWT token
      * Ensures secret key is long enough for HS256 algorithm
+     * The key is derived once and cached for the lifetime of the bean
      */
     private SecretKey getSigningKey() {
-        if (secret == null || secret.length() < 32) {
-            throw new IllegalStateException("JWT secret must be at least 32 characters long for HS256 algorithm");
+        SecretKey key = signingKey;
+        if (key == null) {
+            if (secret == null || secret.length() < 32) {
+                throw new IllegalStateException("JWT secret must be at least 32 characters long for HS256 algorithm");
+            }
+            key = Keys.hmacShaKeyFor(secret.getBytes());
+            signingKey = key;
+        }
+        return key;
+    }
+
+    /**
+     * Get the shared parser (JwtParser is immutable and thread-safe)
+     */
+    private JwtParser getParser() {
+        JwtParser parser = jwtParser;
+        if (parser == null) {
+            parser = Jwts.parser()
+                    .verifyWith(getSigningKey())
+                    .build();
+            jwtParser = parser;
         }
-        return Keys.hmacShaKeyFor(secret.getBytes());
+        return parser;
+    }
+
+    /**
+     * Verify the token once and return all claims the application needs.
+     * Expired or tampered tokens are rejected by the parser itself.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     */
+    public JwtClaims parseToken(String token) {
+        Claims claims = extractAllClaims(token);
+        Object userId = claims.get("userId");
+        return new JwtClaims(
+                userId instanceof Number ? ((Number) userId).longValue() : null,
+                claims.getSubject(),
+                claims.get("userType", String.class),
+                claims.getExpiration(),
+                claims.getIssuedAt()
+        );
     }
 
     /**
@@ -97,9 +145,7 @@ public class JwtUtil {
      */
     private Claims extractAllClaims(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
+            return getParser()
                     .parseSignedClaims(token)
                     .getPayload();
         } catch (io.jsonwebtoken.security.SignatureException e) {
@@ -107,30 +153,18 @@ public class JwtUtil {
         } catch (io.jsonwebtoken.MalformedJwtException e) {
             throw new io.jsonwebtoken.MalformedJwtException("Malformed JWT token", e);
         } catch (io.jsonwebtoken.ExpiredJwtException e) {
-            throw new io.jsonwebtoken.ExpiredJwtException(token, null, "JWT token has expired", e);
+            throw new io.jsonwebtoken.ExpiredJwtException(e.getHeader(), e.getClaims(), "JWT token has expired", e);
         } catch (Exception e) {
             throw new io.jsonwebtoken.JwtException("Failed to parse JWT token", e);
         }
     }
 
-    /**
-     * Check if token is expired
-     */
-    private Boolean isTokenExpired(String token) {
-        try {
-            return extractExpiration(token).before(new Date());
-        } catch (Exception e) {
-            // If we can't extract expiration, consider token expired
-            return true;
-        }
-    }
-
     /**
      * Generate JWT token with user claims
      * 
      * @param userId User's unique identifier
      * @param username User's username (will be subject)
-     * @param userType User's type ("user" or "lawyer")
+     * @param userType User's type ("user", "lawyer" or "admin")
      * @return JWT token string
      */
     public String generateToken(Long userId, String username, String userType) {
@@ -139,8 +173,9 @@ public class JwtUtil {
             throw new IllegalArgumentException("userId, username, and userType cannot be null");
         }
         
-        if (!userType.equalsIgnoreCase("user") && !userType.equalsIgnoreCase("lawyer")) {
-            throw new IllegalArgumentException("userType must be 'user' or 'lawyer'");
+        if (!userType.equalsIgnoreCase("user") && !userType.equalsIgnoreCase("lawyer")
+                && !userType.equalsIgnoreCase("admin")) {
+            throw new IllegalArgumentException("userType must be 'user', 'lawyer' or 'admin'");
         }
 
         Map<String, Object> claims = new HashMap<>();
@@ -172,15 +207,15 @@ public class JwtUtil {
      */
     public Boolean validateToken(String token, String username) {
         try {
-            final String tokenUsername = extractUsername(token);
+            final JwtClaims claims = parseToken(token);
             
             // Check if username matches
-            if (!tokenUsername.equals(username)) {
+            if (!claims.getUsername().equals(username)) {
                 return false;
             }
             
             // Check if token is expired
-            return !isTokenExpired(token);
+            return !claims.isExpired();
             
         } catch (Exception e) {
             // Any exception during validation means token is invalid
@@ -194,7 +229,7 @@ public class JwtUtil {
      */
     public Boolean validateToken(String token) {
         try {
-            return !isTokenExpired(token);
+            return !parseToken(token).isExpired();
         } catch (Exception e) {
             return false;
         }
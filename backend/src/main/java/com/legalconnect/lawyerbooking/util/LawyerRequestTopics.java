@@ -0,0 +1,74 @@
+package com.legalconnect.lawyerbooking.util;
+
+import com.legalconnect.lawyerbooking.service.LocalCaseClassifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Per-category STOMP destinations for new case requests and assignment updates.
+ * A case is published only to the channel of its category, so lawyers receive
+ * frames for the categories they practise instead of filtering every case.
+ *
+ * - Known categories (LocalCaseClassifier.CATEGORIES) get their own channel: "Cyber Crime" → "cyber-crime"
+ * - Any other category goes to "other", a blank category to "general"
+ * - Lawyers without specializations subscribe to every channel
+ */
+public final class LawyerRequestTopics {
+
+    public static final String REQUESTS_PREFIX = "/topic/lawyer/requests/";
+    public static final String UPDATES_PREFIX = "/topic/lawyer/updates/";
+
+    static final String GENERAL = "general";
+    static final String OTHER = "other";
+
+    private LawyerRequestTopics() {
+    }
+
+    public static String requests(String category) {
+        return REQUESTS_PREFIX + channel(category);
+    }
+
+    public static String updates(String category) {
+        return UPDATES_PREFIX + channel(category);
+    }
+
+    /**
+     * Channels a lawyer should subscribe to; a category matches when the lawyer's
+     * specializations mention it (same rule as the assignment check in CaseService)
+     */
+    public static List<String> channelsFor(String specialization, String specializations) {
+        String specs = ((specialization == null ? "" : specialization) + ","
+                + (specializations == null ? "" : specializations)).toLowerCase(Locale.ROOT);
+        boolean unrestricted = specs.replace(",", "").trim().isEmpty();
+
+        List<String> channels = new ArrayList<>();
+        for (String category : LocalCaseClassifier.CATEGORIES) {
+            if (unrestricted || specs.contains(category.toLowerCase(Locale.ROOT))) {
+                channels.add(slug(category));
+            }
+        }
+        if (unrestricted) {
+            channels.add(OTHER);
+        }
+        channels.add(GENERAL);
+        return channels;
+    }
+
+    static String channel(String category) {
+        if (category == null || category.trim().isEmpty()) {
+            return GENERAL;
+        }
+        for (String known : LocalCaseClassifier.CATEGORIES) {
+            if (known.equalsIgnoreCase(category.trim())) {
+                return slug(known);
+            }
+        }
+        return OTHER;
+    }
+
+    private static String slug(String category) {
+        return category.trim().toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "-");
+    }
+}
@@ -0,0 +1,106 @@
+package com.legalconnect.lawyerbooking.util;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * MultipartFile backed by a spooled file on disk.
+ * Lets an upload outlive its HTTP request so it can be processed by a background worker.
+ */
+public class SpooledMultipartFile implements MultipartFile {
+
+    private final Path path;
+    private final String originalFilename;
+    private final String contentType;
+    private final long size;
+
+    private SpooledMultipartFile(Path path, String originalFilename, String contentType, long size) {
+        this.path = path;
+        this.originalFilename = originalFilename;
+        this.contentType = contentType;
+        this.size = size;
+    }
+
+    /**
+     * Copy the upload to a given location (e.g. a durable spool directory)
+     */
+    public static SpooledMultipartFile spool(MultipartFile file, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        try (InputStream in = file.getInputStream()) {
+            Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(target);
+            throw e;
+        }
+        return new SpooledMultipartFile(target, file.getOriginalFilename(), file.getContentType(), Files.size(target));
+    }
+
+    /**
+     * Re-open a file spooled earlier (e.g. after a restart); a missing file reports size 0
+     */
+    public static SpooledMultipartFile of(Path path, String originalFilename, String contentType) throws IOException {
+        long size = Files.exists(path) ? Files.size(path) : 0;
+        return new SpooledMultipartFile(path, originalFilename, contentType, size);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Remove the backing file
+     */
+    public void delete() {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            // Best effort; a leftover spool file is harmless
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public byte[] getBytes() throws IOException {
+        return Files.readAllBytes(path);
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return Files.newInputStream(path);
+    }
+
+    @Override
+    public void transferTo(File dest) throws IOException {
+        Files.copy(path, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+}
@@ -0,0 +1,53 @@
+package com.legalconnect.lawyerbooking.util;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Source;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * OkHttp request body that copies from an InputStream straight to the socket.
+ * Peak heap per request is Okio's segment buffer, not the size of the payload.
+ * A negative length sends the body with chunked transfer encoding.
+ */
+public class StreamingRequestBody extends RequestBody {
+
+    /**
+     * Opens a fresh stream each time the body is written (OkHttp may retry)
+     */
+    @FunctionalInterface
+    public interface StreamSupplier {
+        InputStream open() throws IOException;
+    }
+
+    private final MediaType mediaType;
+    private final long contentLength;
+    private final StreamSupplier streamSupplier;
+
+    public StreamingRequestBody(MediaType mediaType, long contentLength, StreamSupplier streamSupplier) {
+        this.mediaType = mediaType;
+        this.contentLength = contentLength;
+        this.streamSupplier = streamSupplier;
+    }
+
+    @Override
+    public MediaType contentType() {
+        return mediaType;
+    }
+
+    @Override
+    public long contentLength() {
+        return contentLength >= 0 ? contentLength : -1;
+    }
+
+    @Override
+    public void writeTo(BufferedSink sink) throws IOException {
+        try (Source source = Okio.source(streamSupplier.open())) {
+            sink.writeAll(source);
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.legalconnect.lawyerbooking.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Splits long text into sentence-aligned chunks, processes them concurrently and
+ * reassembles the results in order.
+ *
+ * - Chunks do not overlap: each ends after the last complete sentence that fits in
+ *   chunkSize (falling back to the last space, then a hard cut, for run-on text)
+ * - Results are joined with the whitespace that separated the chunks in the input
+ *   (a line break stays a line break), so nothing has to be de-duplicated
+ */
+public class TextChunker {
+
+    private static final Logger logger = LoggerFactory.getLogger(TextChunker.class);
+
+    private static final int MIN_OVERLAP_WORDS = 2;
+
+    /**
+     * End of a sentence: terminal punctuation (including the Gujarati danda) or a line break,
+     * followed by whitespace or the end of the text
+     */
+    private static final Pattern SENTENCE_END = Pattern.compile("(?:[.!?\u0964]+[\"')\\]]*|\n)(?=\\s|$)\\s*");
+
+    private final int chunkSize;
+
+    public TextChunker(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Invalid chunk size " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    public boolean needsChunking(String text) {
+        return text != null && text.length() > chunkSize;
+    }
+
+    /**
+     * @return chunks in document order; concatenated they are exactly {@code text}.
+     *         A text shorter than chunkSize is a single chunk
+     */
+    public List<String> split(String text) {
+        List<String> chunks = new ArrayList<>();
+        Matcher sentenceEnd = SENTENCE_END.matcher(text);
+        int total = text.length();
+        int start = 0;
+
+        while (start < total) {
+            int limit = start + chunkSize;
+            int end = total;
+            if (limit < total) {
+                // Last sentence end (including its trailing whitespace) that fits
+                end = -1;
+                int from = start;
+                while (sentenceEnd.find(from) && sentenceEnd.end() <= limit) {
+                    end = sentenceEnd.end();
+                    from = end;
+                }
+                if (end <= start) {
+                    int space = text.lastIndexOf(' ', limit - 1);
+                    end = space > start ? space + 1 : limit;
+                }
+            }
+            chunks.add(text.substring(start, end));
+            start = end;
+        }
+        return chunks;
+    }
+
+    /**
+     * Run {@code processor} over every chunk on {@code executor} and merge the results in order.
+     * Parallelism is bounded by the executor's pool size.
+     */
+    public String process(String text, UnaryOperator<String> processor, Executor executor) {
+        List<String> chunks = split(text);
+        if (chunks.size() == 1) {
+            return processor.apply(chunks.get(0));
+        }
+
+        long start = System.currentTimeMillis();
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (int i = 0; i < chunks.size(); i++) {
+            String chunk = chunks.get(i);
+            int index = i + 1;
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                logger.debug("Processing chunk {} of {} ({} chars)", index, chunks.size(), chunk.length());
+                return processor.apply(chunk);
+            }, executor));
+        }
+
+        StringBuilder result = new StringBuilder();
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                String output = futures.get(i).join();
+                if (output == null || output.trim().isEmpty()) {
+                    continue;
+                }
+                if (result.length() > 0) {
+                    // Keep paragraph breaks that fell on a chunk boundary
+                    String previous = chunks.get(i - 1);
+                    result.append(previous.substring(previous.stripTrailing().length()).contains("\n") ? "\n" : " ");
+                }
+                result.append(output.trim());
+            }
+        } catch (CompletionException e) {
+            futures.forEach(f -> f.cancel(true));
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+
+        logger.info("Processed {} chunks ({} chars) in {} ms", chunks.size(), text.length(),
+                System.currentTimeMillis() - start);
+        return result.toString();
+    }
+
+    /**
+     * Append {@code next}, dropping the longest run of leading words (up to maxWords) that
+     * repeats the trailing words already in {@code out}. Comparison ignores case and punctuation.
+     * Only for outputs of genuinely overlapping input (Whisper transcripts of overlapping audio
+     * segments); LLM outputs of text chunks never repeat each other and must not be trimmed.
+     */
+    public static void appendWithoutOverlap(StringBuilder out, String next, int maxWords) {
+        String text = next == null ? "" : next.trim();
+        if (text.isEmpty()) {
+            return;
+        }
+        if (out.length() == 0) {
+            out.append(text);
+            return;
+        }
+
+        String[] previousWords = out.toString().split("\\s+");
+        String[] nextWords = text.split("\\s+");
+        int max = Math.min(maxWords, Math.min(previousWords.length, nextWords.length));
+        int skip = 0;
+        for (int k = max; k >= MIN_OVERLAP_WORDS; k--) {
+            boolean match = true;
+            for (int i = 0; i < k && match; i++) {
+                match = normalizeWord(previousWords[previousWords.length - k + i]).equals(normalizeWord(nextWords[i]));
+            }
+            if (match) {
+                skip = k;
+                break;
+            }
+        }
+
+        if (skip < nextWords.length) {
+            out.append(' ').append(String.join(" ", Arrays.copyOfRange(nextWords, skip, nextWords.length)));
+        }
+    }
+
+    /**
+     * Split text into sentences and pack consecutive sentences into pieces of at most
+     * {@code maxChars}. Pieces are trimmed; concatenating them loses only whitespace.
+     */
+    public static List<String> sentences(String text, int maxChars) {
+        List<String> pieces = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String sentence : splitSentences(text, maxChars)) {
+            if (current.length() > 0 && current.length() + 1 + sentence.length() > maxChars) {
+                pieces.add(current.toString());
+                current.setLength(0);
+            }
+            if (current.length() > 0) {
+                current.append(' ');
+            }
+            current.append(sentence);
+        }
+        if (current.length() > 0) {
+            pieces.add(current.toString());
+        }
+        return pieces;
+    }
+
+    /**
+     * Split text into trimmed sentences. A sentence longer than {@code maxChars} is cut
+     * at the last space before the limit.
+     */
+    public static List<String> splitSentences(String text, int maxChars) {
+        List<String> sentences = new ArrayList<>();
+        Matcher matcher = SENTENCE_END.matcher(text);
+        int start = 0;
+        while (start < text.length()) {
+            int end = matcher.find(start) ? matcher.end() : text.length();
+            String sentence = text.substring(start, end).trim();
+            start = end;
+            while (sentence.length() > maxChars) {
+                int cut = sentence.lastIndexOf(' ', maxChars);
+                if (cut <= 0) {
+                    cut = maxChars;
+                }
+                sentences.add(sentence.substring(0, cut).trim());
+                sentence = sentence.substring(cut).trim();
+            }
+            if (!sentence.isEmpty()) {
+                sentences.add(sentence);
+            }
+        }
+        return sentences;
+    }
+
+    private static String normalizeWord(String word) {
+        return word.toLowerCase().replaceAll("[^\\p{L}\\p{N}]", "");
+    }
+}
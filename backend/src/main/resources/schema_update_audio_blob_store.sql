@@ -0,0 +1,12 @@
+-- Schema update script for the audio blob store
+-- client_audio keeps a "{store}:{sha256}" reference instead of the audio bytes
+-- once audio.blob.store is set to local or s3
+
+ALTER TABLE client_audio
+    ADD COLUMN english_audio_ref VARCHAR(100) NULL,
+    ADD COLUMN gujarati_audio_ref VARCHAR(100) NULL;
+
+-- Existing LONGBLOBs are moved out by the migration job
+-- (audio.blob.migration.enabled=true or POST /api/admin/audio/migrate-blobs).
+-- When it reports nothing left to move, reclaim the space:
+-- OPTIMIZE TABLE client_audio;
@@ -0,0 +1,4 @@
+-- Schema update script for audio job ownership
+-- Jobs are claimed with a conditional UPDATE on worker_id so two nodes never run the same job
+
+ALTER TABLE audio_jobs ADD COLUMN worker_id VARCHAR(100) NULL AFTER attempts;
@@ -0,0 +1,36 @@
+-- Schema update script for durable audio processing jobs
+-- Run this script to add the audio_jobs table
+
+-- Create Audio Jobs table
+-- Each pipeline stage output is checkpointed here so jobs resume after a restart.
+-- Synthesized audio is checkpointed as an AudioBlobService reference ({store}:{sha256}), never as bytes
+CREATE TABLE IF NOT EXISTS audio_jobs (
+    id VARCHAR(36) PRIMARY KEY,
+    user_id BIGINT,
+    case_title VARCHAR(255),
+    status VARCHAR(20) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    file_path VARCHAR(500),
+    original_filename VARCHAR(255),
+    content_type VARCHAR(100),
+    original_english_text LONGTEXT,
+    masked_english_text LONGTEXT,
+    english_audio_ref VARCHAR(100),
+    masked_gujarati_text LONGTEXT,
+    gujarati_audio_ref VARCHAR(100),
+    audio_id BIGINT,
+    case_id BIGINT,
+    error TEXT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    INDEX idx_audio_job_status (status, created_at),
+    INDEX idx_audio_job_user (user_id)
+);
+
+-- Tables created by the earlier version of this script checkpointed the clips as LONGBLOBs.
+-- Upgrade them with (in-flight jobs re-run TTS on resume):
+-- ALTER TABLE audio_jobs
+--     DROP COLUMN masked_text_audio,
+--     DROP COLUMN masked_gujarati_audio,
+--     ADD COLUMN english_audio_ref VARCHAR(100) AFTER masked_english_text,
+--     ADD COLUMN gujarati_audio_ref VARCHAR(100) AFTER masked_gujarati_text;
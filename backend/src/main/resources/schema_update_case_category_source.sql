@@ -0,0 +1,8 @@
+-- Schema update script for case category provenance
+-- category_auto marks categories set by the classifier; only those (and blank ones)
+-- may be overwritten by POST /api/admin/cases/reclassify
+
+ALTER TABLE cases ADD COLUMN category_auto BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- Existing rows cannot tell a picked category from a classified one and default to FALSE,
+-- so the backfill never overwrites a client's choice. Blank categories are still reclassified.
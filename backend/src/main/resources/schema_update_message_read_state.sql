@@ -0,0 +1,24 @@
+-- Schema update script for message read watermarks
+-- Run this script to add the message_read_state table
+
+-- Create Message Read State table
+-- One row per case participant: every message up to last_read_message_id is read
+CREATE TABLE IF NOT EXISTS message_read_state (
+    id VARCHAR(64) PRIMARY KEY,
+    case_id BIGINT NOT NULL,
+    participant_id BIGINT NOT NULL,
+    participant_type VARCHAR(20) NOT NULL,
+    last_read_message_id BIGINT NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    INDEX idx_read_state_participant (participant_id, participant_type)
+);
+
+-- Unread counts are range counts above the watermark
+CREATE INDEX idx_message_receiver_case ON messages(receiver_id, receiver_type, case_id, id);
+
+-- Backfill watermarks from messages already marked read
+INSERT IGNORE INTO message_read_state (id, case_id, participant_id, participant_type, last_read_message_id)
+SELECT CONCAT(case_id, ':', receiver_type, ':', receiver_id), case_id, receiver_id, receiver_type, MAX(id)
+FROM messages
+WHERE is_read = TRUE AND case_id IS NOT NULL
+GROUP BY case_id, receiver_type, receiver_id;
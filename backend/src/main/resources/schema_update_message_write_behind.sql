@@ -0,0 +1,29 @@
+-- Schema update script for write-behind chat persistence
+-- Only needed when messaging.write-behind.enabled=true
+
+-- Message id blocks handed out to the write-behind writer
+CREATE TABLE IF NOT EXISTS message_id_sequence (
+    name VARCHAR(50) PRIMARY KEY,
+    next_val BIGINT NOT NULL
+);
+
+INSERT IGNORE INTO message_id_sequence (name, next_val)
+SELECT 'messages', COALESCE(MAX(id), 0) + 1 FROM messages;
+
+-- Messages the writer could not insert after retries; replay once the cause is fixed:
+-- INSERT INTO messages (id, case_id, sender_id, sender_type, receiver_id, receiver_type, message_text, is_read, created_at)
+-- SELECT id, case_id, sender_id, sender_type, receiver_id, receiver_type, message_text, FALSE, created_at
+-- FROM message_dead_letters;
+CREATE TABLE IF NOT EXISTS message_dead_letters (
+    id BIGINT PRIMARY KEY,
+    case_id BIGINT,
+    sender_id BIGINT,
+    sender_type VARCHAR(20),
+    receiver_id BIGINT,
+    receiver_type VARCHAR(20),
+    message_text LONGTEXT,
+    created_at TIMESTAMP NULL,
+    error TEXT,
+    failed_at TIMESTAMP NOT NULL,
+    INDEX idx_message_dead_letter_case (case_id)
+);
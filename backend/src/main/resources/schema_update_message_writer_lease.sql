@@ -0,0 +1,7 @@
+-- Schema update script for the write-behind writer lease
+-- Only needed when messaging.write-behind.enabled=true (after schema_update_message_write_behind.sql)
+
+-- The node holding the lease is the only one allowed to allocate message ids and write messages
+ALTER TABLE message_id_sequence
+    ADD COLUMN owner VARCHAR(100) NULL,
+    ADD COLUMN lease_until TIMESTAMP NULL;
@@ -0,0 +1,28 @@
+-- Schema update script for the audio pipeline result cache
+-- Run this script to add the stage_result_cache table
+
+-- Create Stage Result Cache table
+-- Keyed by stage + SHA-256 of the stage input so re-uploads skip the AI calls.
+-- Audio stages keep an AudioBlobService reference in blob_ref, not the clip;
+-- owner_id marks entries holding user data (transcribe) for purging with the user
+CREATE TABLE IF NOT EXISTS stage_result_cache (
+    id VARCHAR(80) PRIMARY KEY,
+    stage VARCHAR(20) NOT NULL,
+    text_value LONGTEXT,
+    blob_ref VARCHAR(100),
+    owner_id BIGINT,
+    created_at TIMESTAMP NOT NULL,
+    last_accessed_at TIMESTAMP NOT NULL,
+    INDEX idx_stage_result_created (stage, created_at),
+    INDEX idx_stage_result_accessed (stage, last_accessed_at),
+    INDEX idx_stage_result_owner (owner_id)
+);
+
+-- Tables created by the earlier version of this script held clips in binary_value
+-- and unowned transcripts. Upgrade them with:
+-- DELETE FROM stage_result_cache WHERE binary_value IS NOT NULL OR stage = 'transcribe';
+-- ALTER TABLE stage_result_cache
+--     DROP COLUMN binary_value,
+--     ADD COLUMN blob_ref VARCHAR(100),
+--     ADD COLUMN owner_id BIGINT,
+--     ADD INDEX idx_stage_result_owner (owner_id);
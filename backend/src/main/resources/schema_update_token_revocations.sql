@@ -0,0 +1,15 @@
+-- Schema update script for shared token revocation
+-- Logout and account deletion are recorded here so every node rejects the token
+
+CREATE TABLE IF NOT EXISTS token_revocations (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    -- SHA-256 of a single revoked token (logout)
+    token_digest VARCHAR(64) NULL,
+    -- or every token of an account issued up to revoked_at (account deletion)
+    user_type VARCHAR(20) NULL,
+    user_id BIGINT NULL,
+    revoked_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    expires_at TIMESTAMP NOT NULL,
+    INDEX idx_token_revocations_revoked (revoked_at),
+    INDEX idx_token_revocations_expires (expires_at)
+);
@@ -0,0 +1,185 @@
+package com.legalconnect.lawyerbooking.service;
+
+import com.legalconnect.lawyerbooking.storage.AudioBlobStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Blob migration walks client_audio by id, so a row that keeps failing does not stall it
+ */
+class AudioBlobServiceTest {
+
+    private static final String ENGLISH = "masked_text_audio";
+    private static final String GUJARATI = "masked_gujarati_audio";
+
+    private final FakeJdbc jdbc = new FakeJdbc();
+    private final MemoryStore blobStore = new MemoryStore();
+    private final AudioBlobService service = new AudioBlobService();
+
+    @BeforeEach
+    void setUp() {
+        for (long id = 1; id <= 5; id++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put(ENGLISH, ("en" + id).getBytes());
+            row.put(GUJARATI, id == 2 ? "bad".getBytes() : ("gu" + id).getBytes());
+            jdbc.rows.put(id, row);
+        }
+        ReflectionTestUtils.setField(service, "storeList", List.of(blobStore));
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbc);
+        ReflectionTestUtils.setField(service, "activeStore", "memory");
+        ReflectionTestUtils.setField(service, "migrationEnabled", true);
+        ReflectionTestUtils.setField(service, "migrationBatchSize", 2);
+        service.init();
+    }
+
+    @Test
+    void failingRowDoesNotBlockLaterRows() {
+        Map<String, Object> first = service.migrateBatch(0, 2);
+        assertEquals(3, first.get("moved"));
+        assertEquals(1, first.get("failed"));
+        assertEquals(2L, first.get("nextAfterId"));
+
+        Map<String, Object> second = service.migrateBatch(2, 2);
+        assertEquals(4, second.get("moved"));
+        assertEquals(4L, second.get("nextAfterId"));
+
+        Map<String, Object> last = service.migrateBatch(4, 2);
+        assertEquals(2, last.get("moved"));
+        assertNull(last.get("nextAfterId"));
+
+        // Only the failing blob is left, still in its row
+        assertEquals(List.of(2L), jdbc.idsWithBlobs());
+        assertNull(jdbc.rows.get(2L).get(ENGLISH));
+        assertTrue(jdbc.rows.get(2L).get(GUJARATI) instanceof byte[]);
+        assertEquals(9, blobStore.blobs.size());
+    }
+
+    @Test
+    void scheduledMigrationStartsANewPassAfterTheLastRow() {
+        for (int i = 0; i < 3; i++) {
+            service.scheduledMigration();
+        }
+        assertEquals(0L, service.getStats().get("migrationCursor"));
+        assertEquals(List.of(2L), jdbc.idsWithBlobs());
+
+        // The next pass retries the failed row once the store accepts it
+        blobStore.poison = null;
+        service.scheduledMigration();
+        assertEquals(List.of(), jdbc.idsWithBlobs());
+        assertEquals(10L, service.getStats().get("migrated"));
+    }
+
+    @Test
+    void referencesReplaceBlobs() {
+        service.migrateBatch(0, 10);
+        Object ref = jdbc.rows.get(1L).get("english_audio_ref");
+        assertTrue(ref instanceof String && ((String) ref).startsWith("memory:"), String.valueOf(ref));
+        assertEquals("en1", new String(blobStore.blobs.get(AudioBlobService.key((String) ref))));
+    }
+
+    private static class MemoryStore implements AudioBlobStore {
+        final Map<String, byte[]> blobs = new HashMap<>();
+        volatile String poison = "bad";
+
+        @Override
+        public String getName() {
+            return "memory";
+        }
+
+        @Override
+        public void put(String key, byte[] data) throws IOException {
+            if (new String(data).equals(poison)) {
+                throw new IOException("store rejected " + key);
+            }
+            blobs.put(key, data);
+        }
+
+        @Override
+        public long size(String key) {
+            return blobs.containsKey(key) ? blobs.get(key).length : -1;
+        }
+
+        @Override
+        public byte[] read(String key) {
+            return blobs.get(key);
+        }
+
+        @Override
+        public void copyRange(String key, long start, long length, OutputStream out) throws IOException {
+            out.write(Arrays.copyOfRange(blobs.get(key), (int) start, (int) (start + length)));
+        }
+
+        @Override
+        public void delete(String key) {
+            blobs.remove(key);
+        }
+    }
+
+    /**
+     * The three statements the migration issues, over an in-memory client_audio
+     */
+    private static class FakeJdbc extends JdbcTemplate {
+        final TreeMap<Long, Map<String, Object>> rows = new TreeMap<>();
+
+        List<Long> idsWithBlobs() {
+            return rows.entrySet().stream()
+                    .filter(e -> e.getValue().get(ENGLISH) != null || e.getValue().get(GUJARATI) != null)
+                    .map(Map.Entry::getKey).collect(Collectors.toList());
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> queryForList(String sql, Class<T> elementType, Object... args) {
+            long afterId = (Long) args[0];
+            int limit = (Integer) args[1];
+            return (List<T>) idsWithBlobs().stream().filter(id -> id > afterId).limit(limit)
+                    .collect(Collectors.toList());
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+            Object blob = rows.get((Long) args[0]).get(column(sql, "SELECT "));
+            List<T> result = new ArrayList<>();
+            if (blob != null) {
+                result.add((T) blob);
+            }
+            return result;
+        }
+
+        @Override
+        public int update(String sql, Object... args) {
+            Map<String, Object> row = rows.get((Long) args[1]);
+            String refColumn = column(sql, "SET ");
+            String blobColumn = sql.substring(sql.indexOf(", ") + 2, sql.indexOf(" = NULL"));
+            if (row.get(blobColumn) == null) {
+                return 0;
+            }
+            row.put(refColumn, args[0]);
+            row.put(blobColumn, null);
+            return 1;
+        }
+
+        private static String column(String sql, String after) {
+            int start = sql.indexOf(after) + after.length();
+            return sql.substring(start, sql.indexOf(' ', start));
+        }
+    }
+}
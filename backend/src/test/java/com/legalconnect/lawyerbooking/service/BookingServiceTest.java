@@ -0,0 +1,129 @@
+package com.legalconnect.lawyerbooking.service;
+
+import com.legalconnect.lawyerbooking.dto.AppointmentDTO;
+import com.legalconnect.lawyerbooking.entity.Appointment;
+import com.legalconnect.lawyerbooking.entity.Lawyer;
+import com.legalconnect.lawyerbooking.entity.User;
+import com.legalconnect.lawyerbooking.repository.AppointmentRepository;
+import com.legalconnect.lawyerbooking.repository.LawyerRepository;
+import com.legalconnect.lawyerbooking.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Listing appointments resolves names with one lookup per table, not two per appointment
+ */
+class BookingServiceTest {
+
+    private static final Long USER_ID = 1L;
+
+    private final List<String> calls = new CopyOnWriteArrayList<>();
+    private final List<Appointment> appointments = new ArrayList<>();
+    private final BookingService service = new BookingService();
+
+    @BeforeEach
+    void setUp() {
+        // Ten appointments of one user with three lawyers, one of them deleted since
+        for (long id = 1; id <= 10; id++) {
+            Appointment appointment = new Appointment();
+            appointment.setId(id);
+            appointment.setUserId(USER_ID);
+            appointment.setLawyerId(100 + id % 3);
+            appointment.setAppointmentDate(LocalDateTime.of(2026, 1, 1, 10, 0).plusDays(id));
+            appointment.setStatus("pending");
+            appointments.add(appointment);
+        }
+        User user = new User();
+        user.setId(USER_ID);
+        user.setFullName("Test User");
+        Map<Long, Lawyer> lawyers = Map.of(100L, lawyer(100L), 101L, lawyer(101L));
+
+        ReflectionTestUtils.setField(service, "appointmentRepository", repository(AppointmentRepository.class, "appointments",
+                Map.of("findByUserIdOrderByAppointmentDateDesc", args -> appointments)));
+        ReflectionTestUtils.setField(service, "userRepository", repository(UserRepository.class, "users",
+                Map.of("findAllById", args -> ids(args).contains(USER_ID) ? List.of(user) : List.of())));
+        ReflectionTestUtils.setField(service, "lawyerRepository", repository(LawyerRepository.class, "lawyers",
+                Map.of("findAllById", args -> ids(args).stream().map(lawyers::get).filter(l -> l != null)
+                        .collect(Collectors.toList()))));
+    }
+
+    @Test
+    void namesAreResolvedWithOneLookupPerTable() {
+        List<AppointmentDTO> dtos = service.getUserAppointments(USER_ID);
+
+        assertEquals(10, dtos.size());
+        assertEquals(List.of("appointments.findByUserIdOrderByAppointmentDateDesc",
+                "users.findAllById", "lawyers.findAllById"), calls);
+        for (AppointmentDTO dto : dtos) {
+            assertEquals("Test User", dto.getUserFullName());
+            if (dto.getLawyerId() == 102L) {
+                assertNull(dto.getLawyerFullName());
+            } else {
+                assertEquals("Lawyer " + dto.getLawyerId(), dto.getLawyerFullName());
+            }
+        }
+    }
+
+    @Test
+    void orderAndFieldsArePreserved() {
+        List<AppointmentDTO> dtos = service.getUserAppointments(USER_ID);
+        for (int i = 0; i < dtos.size(); i++) {
+            assertEquals(appointments.get(i).getId(), dtos.get(i).getId());
+            assertEquals(appointments.get(i).getAppointmentDate(), dtos.get(i).getAppointmentDate());
+            assertEquals("pending", dtos.get(i).getStatus());
+        }
+    }
+
+    @Test
+    void emptyListSkipsTheLookups() {
+        appointments.clear();
+        assertTrue(service.getUserAppointments(USER_ID).isEmpty());
+        assertEquals(List.of("appointments.findByUserIdOrderByAppointmentDateDesc"), calls);
+    }
+
+    private interface Answer {
+        Object answer(Object[] args);
+    }
+
+    /**
+     * Repository that records every call and answers only the given methods
+     */
+    private <T> T repository(Class<T> type, String name, Map<String, Answer> answers) {
+        return type.cast(Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> {
+                    calls.add(name + "." + method.getName());
+                    Answer answer = answers.get(method.getName());
+                    if (answer == null) {
+                        throw new UnsupportedOperationException(name + "." + method.getName());
+                    }
+                    return answer.answer(args);
+                }));
+    }
+
+    private static Set<Long> ids(Object[] args) {
+        return StreamSupport.stream(((Iterable<?>) args[0]).spliterator(), false)
+                .map(Long.class::cast).collect(Collectors.toSet());
+    }
+
+    private static Lawyer lawyer(Long id) {
+        Lawyer lawyer = new Lawyer();
+        lawyer.setId(id);
+        lawyer.setFullName("Lawyer " + id);
+        return lawyer;
+    }
+}
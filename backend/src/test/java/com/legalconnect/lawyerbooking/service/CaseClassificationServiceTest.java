@@ -0,0 +1,140 @@
+package com.legalconnect.lawyerbooking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * When classification trusts the local classifier and when it asks the LLM,
+ * against a local stub of chat completions
+ */
+class CaseClassificationServiceTest {
+
+    private static final String CONFIDENT = "My husband filed for divorce and wants custody of our child.";
+    private static final String AMBIGUOUS = "The company committed fraud.";
+    private static final String NO_EVIDENCE = "I would like some advice please.";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final List<String> prompts = new CopyOnWriteArrayList<>();
+    private volatile int status = 200;
+    private volatile String answer = "Corporate";
+    private HttpServer server;
+    private CaseClassificationService service;
+
+    @BeforeEach
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1/chat/completions", this::complete);
+        server.start();
+
+        service = new CaseClassificationService();
+        ReflectionTestUtils.setField(service, "apiKey", "test-key");
+        ReflectionTestUtils.setField(service, "chatCompletionsUrl",
+                "http://127.0.0.1:" + server.getAddress().getPort() + "/v1/chat/completions");
+        ReflectionTestUtils.setField(service, "client", new OkHttpClient());
+        ReflectionTestUtils.setField(service, "localClassifier", new LocalCaseClassifier());
+        ReflectionTestUtils.setField(service, "localConfidenceThreshold", 0.6);
+        ReflectionTestUtils.setField(service, "cacheMaxSize", 100);
+        ReflectionTestUtils.setField(service, "batchSize", 20);
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop(0);
+    }
+
+    @Test
+    void confidentLocalResultSkipsTheLlm() {
+        assertEquals("Family", service.classifyCase(CONFIDENT));
+        assertTrue(prompts.isEmpty());
+    }
+
+    @Test
+    void lowConfidenceAsksTheLlm() {
+        assertEquals("Corporate", service.classifyCase(AMBIGUOUS));
+        assertEquals(1, prompts.size());
+        assertTrue(prompts.get(0).contains(AMBIGUOUS));
+    }
+
+    @Test
+    void thresholdDecidesWhoAnswers() {
+        ReflectionTestUtils.setField(service, "localConfidenceThreshold", 0.3);
+        assertEquals("Criminal", service.classifyCase(AMBIGUOUS));
+        assertTrue(prompts.isEmpty());
+
+        ReflectionTestUtils.setField(service, "localConfidenceThreshold", 0.9);
+        assertEquals("Corporate", service.classifyCase(CONFIDENT));
+        assertEquals(1, prompts.size());
+    }
+
+    @Test
+    void llmAnswerIsCachedForNearDuplicates() {
+        service.classifyCase(AMBIGUOUS);
+        assertEquals("Corporate", service.classifyCase("  the COMPANY committed fraud!! "));
+        assertEquals(1, prompts.size());
+        assertEquals(1L, service.getCacheStats().get("hits"));
+    }
+
+    @Test
+    void failedLlmFallsBackToTheLocalResult() {
+        status = 500;
+        assertEquals("Criminal", service.classifyCase(AMBIGUOUS));
+        assertEquals(LocalCaseClassifier.DEFAULT_CATEGORY, service.classifyCase(NO_EVIDENCE));
+
+        // Fallbacks are not cached: the next call asks again
+        status = 200;
+        assertEquals("Corporate", service.classifyCase(AMBIGUOUS));
+        assertEquals(3, prompts.size());
+    }
+
+    @Test
+    void unknownLlmAnswerFallsBackToTheLocalResult() {
+        answer = "Maritime";
+        assertEquals("Criminal", service.classifyCase(AMBIGUOUS));
+    }
+
+    @Test
+    void batchSendsOnlyUnsureCasesInOnePrompt() {
+        answer = "{\"categories\": [\"Corporate\", \"Labour\"]}";
+        List<String> categories = service.classifyBatch(List.of(CONFIDENT, AMBIGUOUS, "", NO_EVIDENCE));
+
+        assertEquals(List.of("Family", "Corporate", LocalCaseClassifier.DEFAULT_CATEGORY, "Labour"), categories);
+        assertEquals(1, prompts.size());
+        assertTrue(prompts.get(0).contains("1. " + AMBIGUOUS) && prompts.get(0).contains("2. " + NO_EVIDENCE));
+    }
+
+    @Test
+    void batchWithWrongAnswerCountFallsBack() {
+        answer = "{\"categories\": [\"Corporate\"]}";
+        assertEquals(List.of("Criminal", LocalCaseClassifier.DEFAULT_CATEGORY),
+                service.classifyBatch(List.of(AMBIGUOUS, NO_EVIDENCE)));
+    }
+
+    private void complete(HttpExchange exchange) throws IOException {
+        try {
+            prompts.add(mapper.readTree(exchange.getRequestBody().readAllBytes())
+                    .get("messages").get(1).get("content").asText());
+            byte[] body = mapper.createObjectNode().set("choices", mapper.createArrayNode().add(
+                    mapper.createObjectNode().set("message", mapper.createObjectNode().put("content", answer))))
+                    .toString().getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, body.length);
+            exchange.getResponseBody().write(body);
+        } finally {
+            exchange.close();
+        }
+    }
+}
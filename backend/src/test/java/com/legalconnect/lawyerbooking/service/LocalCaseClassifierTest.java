@@ -0,0 +1,75 @@
+package com.legalconnect.lawyerbooking.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalCaseClassifierTest {
+
+    private static final double THRESHOLD = 0.6;
+
+    private final LocalCaseClassifier classifier = new LocalCaseClassifier();
+
+    @Test
+    void clearCasesAreConfident() {
+        assertConfident("Family", "My husband filed for divorce and wants custody of our child.");
+        assertConfident("Property", "The landlord refuses to return the deposit and threatens eviction of the tenant.");
+        assertConfident("Cyber Crime", "Someone hacked my Instagram and used the OTP for a UPI scam.");
+        assertConfident("Criminal", "My brother was arrested after the FIR and we need bail.");
+        assertConfident("Labour", "My employer has not paid my salary or gratuity since termination.");
+        assertConfident("Corporate", "A dispute between shareholders about the merger of our startup.");
+        assertConfident("Civil", "I want to file for defamation and an injunction against my neighbour.");
+    }
+
+    @Test
+    void noEvidenceIsDefaultWithZeroConfidence() {
+        LocalCaseClassifier.Result result = classifier.classify("I would like some advice please.");
+        assertEquals(LocalCaseClassifier.DEFAULT_CATEGORY, result.getCategory());
+        assertEquals(0.0, result.getConfidence());
+        assertFalse(result.hasEvidence());
+
+        assertFalse(classifier.classify(null).hasEvidence());
+    }
+
+    @Test
+    void ambiguousEvidenceIsBelowTheThreshold() {
+        // fraud (Criminal 1.5) against company (Corporate 1.5): tie goes to the first category
+        LocalCaseClassifier.Result result = classifier.classify("The company committed fraud.");
+        assertEquals("Criminal", result.getCategory());
+        assertEquals(1.5 / 4.0, result.getConfidence(), 1e-9);
+        assertTrue(result.getConfidence() < THRESHOLD);
+        assertTrue(result.hasEvidence());
+    }
+
+    @Test
+    void singleWeakHintIsBelowTheThreshold() {
+        LocalCaseClassifier.Result result = classifier.classify("There is a dispute.");
+        assertEquals("Civil", result.getCategory());
+        assertEquals(0.5, result.getConfidence(), 1e-9);
+        assertTrue(result.getConfidence() < THRESHOLD);
+    }
+
+    @Test
+    void repeatedTermsCountSublinearly() {
+        double once = classifier.classify("theft").getScores().get("Criminal");
+        double thrice = classifier.classify("theft theft theft").getScores().get("Criminal");
+        assertEquals(2.0, once, 1e-9);
+        assertEquals(2.0 * (1 + Math.log(3)), thrice, 1e-9);
+    }
+
+    @Test
+    void bigramsAndPluralsAreMatched() {
+        assertEquals(1.5, classifier.classify("social media").getScores().get("Cyber Crime"), 1e-9);
+        // "deed" and "sale deed" both count
+        assertEquals(2.0 + 2.0, classifier.classify("sale deed").getScores().get("Property"), 1e-9);
+        assertEquals(2.0, classifier.classify("tenants").getScores().get("Property"), 1e-9);
+    }
+
+    private void assertConfident(String category, String text) {
+        LocalCaseClassifier.Result result = classifier.classify(text);
+        assertEquals(category, result.getCategory(), text);
+        assertTrue(result.getConfidence() >= THRESHOLD, text + " -> " + result.getConfidence());
+    }
+}
@@ -0,0 +1,82 @@
+package com.legalconnect.lawyerbooking.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalPiiMaskerTest {
+
+    private final LocalPiiMasker masker = new LocalPiiMasker();
+
+    @Test
+    void namesAfterHonorificsAndIntroductionsAreMasked() {
+        assertEquals("Mr. [NAME_MASKED] filed the complaint.", masker.mask("Mr. Ramesh Patel filed the complaint."));
+        assertEquals("Smt [NAME_MASKED] is the owner.", masker.mask("Smt Kokila Shah is the owner."));
+        assertEquals("Hello, my name is [NAME_MASKED] and I need help.",
+                masker.mask("Hello, my name is Nirav Desai and I need help."));
+        assertEquals("I am the son of [NAME_MASKED].", masker.mask("I am the son of Harish Mehta."));
+    }
+
+    @Test
+    void phoneNumbersAreMasked() {
+        assertEquals("Call me on [PHONE_MASKED] today.", masker.mask("Call me on 9876543210 today."));
+        assertEquals("Call me on [PHONE_MASKED].", masker.mask("Call me on +91 98765 43210."));
+        assertEquals("Call me on [PHONE_MASKED].", masker.mask("Call me on 098765-43210."));
+        assertEquals("Office: [PHONE_MASKED].", masker.mask("Office: 079-26561234."));
+    }
+
+    @Test
+    void emailsAreMasked() {
+        assertEquals("Write to [EMAIL_MASKED] please.", masker.mask("Write to ramesh.patel+case@example.co.in please."));
+    }
+
+    @Test
+    void aadhaarAndPanAreMasked() {
+        assertEquals("Aadhaar [ID_MASKED] and PAN [ID_MASKED].",
+                masker.mask("Aadhaar 2345 6789 0123 and PAN ABCDE1234F."));
+        assertEquals("Aadhaar [ID_MASKED].", masker.mask("Aadhaar 234567890123."));
+    }
+
+    @Test
+    void caseFactsAreKept() {
+        String text = "The FIR under Section 420 was filed on 12/03/2024 for Rs 50000.";
+        assertEquals(text, masker.mask(text));
+    }
+
+    @Test
+    void dateOfBirthAndAddressesAreMasked() {
+        assertEquals("My date of birth is [DOB_MASKED].", masker.mask("My date of birth is 01/02/1980."));
+        assertEquals("I live in [ADDRESS_MASKED].", masker.mask("I live in Ahmedabad."));
+        assertTrue(masker.mask("House no 12, Shanti Nagar society").startsWith("[ADDRESS_MASKED]"));
+    }
+
+    @Test
+    void maskTokensAndCommonWordsAreNotNames() {
+        assertFalse(masker.mayContainNames("[NAME_MASKED] called [PHONE_MASKED] on Monday."));
+        assertFalse(masker.mayContainNames("The High Court said my landlord's claim is invalid."));
+        assertTrue(masker.mayContainNames("The landlord Suresh refuses to return the deposit."));
+        assertTrue(masker.mayContainNames("Om paid the rent."));
+    }
+
+    @Test
+    void maskingThroughput() {
+        String text = "Hello, my name is Nirav Desai. Call me on +91 98765 43210 or write to nirav@example.com. "
+                + "My Aadhaar is 2345 6789 0123 and PAN ABCDE1234F. I live at House no 12, Shanti Nagar society, "
+                + "Ahmedabad. The landlord has not returned the deposit of Rs 50000 since March.";
+        for (int i = 0; i < 2_000; i++) {
+            masker.mask(text);
+        }
+        int runs = 20_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            masker.mayContainNames(masker.mask(text));
+        }
+        double micros = (System.nanoTime() - start) / 1e3 / runs;
+        System.out.printf("local masking: %.1f us per %d-char text%n", micros, text.length());
+
+        // Versus an LLM round trip of a second or more
+        assertTrue(micros < 1_000, micros + " us per text");
+    }
+}
@@ -0,0 +1,149 @@
+package com.legalconnect.lawyerbooking.service;
+
+import com.legalconnect.lawyerbooking.dto.MessageDTO;
+import com.legalconnect.lawyerbooking.dto.MessagePageDTO;
+import com.legalconnect.lawyerbooking.entity.Message;
+import com.legalconnect.lawyerbooking.repository.MessageRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * History pages must include messages still queued by the write-behind writer
+ */
+class MessageServicePageTest {
+
+    private static final Long CASE_ID = 5L;
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    private final List<Message> table = new ArrayList<>();
+    private final List<Message> queued = new ArrayList<>();
+    private final MessageService service = new MessageService();
+
+    @BeforeEach
+    void setUp() {
+        // ids 1..6 written, 7..9 still queued
+        for (long id = 1; id <= 9; id++) {
+            (id <= 6 ? table : queued).add(message(id));
+        }
+        ReflectionTestUtils.setField(service, "messageRepository", repository());
+        ReflectionTestUtils.setField(service, "writeBehind", new QueuedOnly());
+    }
+
+    @Test
+    void latestPageIncludesQueuedMessages() {
+        MessagePageDTO page = service.getMessagePage(CASE_ID, null, null, 4);
+        assertEquals(List.of(6L, 7L, 8L, 9L), ids(page));
+        assertTrue(page.isHasMore());
+    }
+
+    @Test
+    void afterCursorCatchesUpOnQueuedMessages() {
+        MessagePageDTO page = service.getMessagePage(CASE_ID, null, 5L, 10);
+        assertEquals(List.of(6L, 7L, 8L, 9L), ids(page));
+        assertFalse(page.isHasMore());
+    }
+
+    @Test
+    void afterQueuedCursorReturnsOnlyNewerQueuedMessages() {
+        MessagePageDTO page = service.getMessagePage(CASE_ID, null, 7L, 10);
+        assertEquals(List.of(8L, 9L), ids(page));
+    }
+
+    @Test
+    void beforeQueuedCursorWalksBackIntoTheTable() {
+        MessagePageDTO page = service.getMessagePage(CASE_ID, 9L, null, 3);
+        assertEquals(List.of(6L, 7L, 8L), ids(page));
+        assertTrue(page.isHasMore());
+    }
+
+    @Test
+    void messageWrittenDuringTheReadAppearsOnce() {
+        // The writer inserted 7 after it was taken from the queue snapshot
+        table.add(queued.get(0));
+        MessagePageDTO page = service.getMessagePage(CASE_ID, null, 5L, 10);
+        assertEquals(List.of(6L, 7L, 8L, 9L), ids(page));
+    }
+
+    private static List<Long> ids(MessagePageDTO page) {
+        return page.getMessages().stream().map(MessageDTO::getId).collect(Collectors.toList());
+    }
+
+    private static Message message(long id) {
+        Message message = new Message();
+        message.setId(id);
+        message.setCaseId(CASE_ID);
+        message.setSenderId(1L);
+        message.setSenderType("user");
+        message.setReceiverId(2L);
+        message.setReceiverType("lawyer");
+        message.setMessageText("m" + id);
+        message.setIsRead(false);
+        message.setCreatedAt(T0.plusSeconds(id));
+        return message;
+    }
+
+    /**
+     * The keyset queries of MessageRepository over the in-memory table
+     */
+    private MessageRepository repository() {
+        Comparator<Message> order = Comparator.comparing(Message::getCreatedAt).thenComparing(Message::getId);
+        return (MessageRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {MessageRepository.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "findLatestByCaseId":
+                            return table.stream().sorted(order.reversed())
+                                    .limit(((Pageable) args[1]).getPageSize()).collect(Collectors.toList());
+                        case "findByCaseIdBefore":
+                            return table.stream().filter(m -> order.compare(m, cursor(args)) < 0).sorted(order.reversed())
+                                    .limit(((Pageable) args[3]).getPageSize()).collect(Collectors.toList());
+                        case "findByCaseIdAfter":
+                            return table.stream().filter(m -> order.compare(m, cursor(args)) > 0).sorted(order)
+                                    .limit(((Pageable) args[3]).getPageSize()).collect(Collectors.toList());
+                        case "findCreatedAtByIdAndCaseId":
+                            return table.stream().filter(m -> m.getId().equals(args[0]))
+                                    .map(Message::getCreatedAt).findFirst();
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private static Message cursor(Object[] args) {
+        Message cursor = new Message();
+        cursor.setCreatedAt((LocalDateTime) args[1]);
+        cursor.setId((Long) args[2]);
+        return cursor;
+    }
+
+    private class QueuedOnly extends MessageWriteBehind {
+        @Override
+        public boolean isEnabled() {
+            return true;
+        }
+
+        @Override
+        public Message findPending(Long id) {
+            Optional<Message> match = queued.stream().filter(m -> m.getId().equals(id)).findFirst();
+            return match.orElse(null);
+        }
+
+        @Override
+        public List<Message> pendingForCase(Long caseId) {
+            return new ArrayList<>(queued);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.legalconnect.lawyerbooking.service;
+
+import com.legalconnect.lawyerbooking.entity.Message;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the writer against an in-memory JdbcTemplate whose inserts take a fixed time,
+ * standing in for a database commit.
+ */
+class MessageWriteBehindTest {
+
+    private static final long COMMIT_MILLIS = 5;
+
+    private final FakeJdbc jdbc = new FakeJdbc();
+    private MessageWriteBehind writeBehind;
+
+    @AfterEach
+    void stop() {
+        if (writeBehind != null) {
+            writeBehind.shutdown();
+        }
+    }
+
+    @Test
+    void sendPathStaysOffTheCommitLatency() throws Exception {
+        writeBehind = start(50_000);
+        int senders = 4;
+        int perSender = 5_000;
+        long[] latencies = new long[senders * perSender];
+        AtomicLong slot = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(senders);
+        CountDownLatch done = new CountDownLatch(senders);
+
+        long start = System.nanoTime();
+        for (int s = 0; s < senders; s++) {
+            pool.execute(() -> {
+                for (int i = 0; i < perSender; i++) {
+                    Message message = message(7L, "hello");
+                    long t0 = System.nanoTime();
+                    message.setId(writeBehind.nextId());
+                    writeBehind.enqueue(message);
+                    latencies[(int) slot.getAndIncrement()] = System.nanoTime() - t0;
+                }
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(60, TimeUnit.SECONDS));
+        long sendNanos = System.nanoTime() - start;
+        pool.shutdown();
+        awaitWritten(latencies.length);
+
+        Arrays.sort(latencies);
+        double p99Millis = latencies[(int) (latencies.length * 0.99)] / 1e6;
+        double perSecond = latencies.length / (sendNanos / 1e9);
+        System.out.printf("write-behind: %.0f msgs/s accepted, p99 send %.3f ms, %d batches for %d messages%n",
+                perSecond, p99Millis, jdbc.batches.get(), latencies.length);
+
+        // A synchronous insert costs at least one commit per message
+        assertTrue(p99Millis < COMMIT_MILLIS, "p99 send latency " + p99Millis + " ms");
+        assertTrue(perSecond > 1000.0 / COMMIT_MILLIS, "throughput " + perSecond + " msgs/s");
+        assertEquals(latencies.length, jdbc.inserted.size());
+        assertTrue(jdbc.batches.get() < latencies.length / 10, "batches " + jdbc.batches.get());
+    }
+
+    @Test
+    void idsFollowSendOrderAcrossBlocks() {
+        writeBehind = start(100);
+        long previous = 0;
+        for (int i = 0; i < 2_500; i++) {
+            long id = writeBehind.nextId();
+            assertTrue(id > previous);
+            previous = id;
+        }
+    }
+
+    @Test
+    void pendingMessagesAreVisibleUntilWritten() throws Exception {
+        jdbc.blockInserts = new CountDownLatch(1);
+        writeBehind = start(100);
+        Message queued = message(3L, "queued");
+        queued.setId(writeBehind.nextId());
+        writeBehind.enqueue(queued);
+
+        assertEquals(List.of(queued), writeBehind.pendingForCase(3L));
+        assertTrue(writeBehind.pendingForCase(4L).isEmpty());
+        assertEquals(queued.getId(), writeBehind.latestPending(3L));
+
+        jdbc.blockInserts.countDown();
+        awaitWritten(1);
+        assertTrue(writeBehind.pendingForCase(3L).isEmpty());
+    }
+
+    @Test
+    void rowThatKeepsFailingIsDeadLetteredNotDropped() throws Exception {
+        jdbc.poison = "bad";
+        writeBehind = start(100);
+        List<Long> ids = new ArrayList<>();
+        for (String text : List.of("one", "bad", "three")) {
+            Message message = message(9L, text);
+            message.setId(writeBehind.nextId());
+            ids.add(message.getId());
+            writeBehind.enqueue(message);
+        }
+
+        awaitWritten(2);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (jdbc.deadLetters.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(Set.of(ids.get(0), ids.get(2)), jdbc.inserted);
+        assertEquals(1, jdbc.deadLetters.size());
+        assertEquals(ids.get(1), jdbc.deadLetters.get(0)[0]);
+        assertEquals(1L, writeBehind.getStats().get("deadLettered"));
+        assertTrue(writeBehind.pendingForCase(9L).isEmpty());
+    }
+
+    private MessageWriteBehind start(int queueCapacity) {
+        MessageWriteBehind w = new MessageWriteBehind();
+        ReflectionTestUtils.setField(w, "jdbcTemplate", jdbc);
+        ReflectionTestUtils.setField(w, "enabled", true);
+        ReflectionTestUtils.setField(w, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(w, "batchSize", 200);
+        ReflectionTestUtils.setField(w, "flushIntervalMs", 10L);
+        ReflectionTestUtils.setField(w, "enqueueTimeoutMs", 100L);
+        ReflectionTestUtils.setField(w, "maxRetries", 1);
+        ReflectionTestUtils.setField(w, "idBlockSize", 1000);
+        ReflectionTestUtils.setField(w, "shutdownTimeoutSeconds", 10L);
+        ReflectionTestUtils.setField(w, "leaseSeconds", 30L);
+        ReflectionTestUtils.setField(w, "nodeId", "test");
+        w.start();
+        return w;
+    }
+
+    private void awaitWritten(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (jdbc.inserted.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(jdbc.inserted.size() >= count, jdbc.inserted.size() + " of " + count + " written");
+    }
+
+    private static Message message(Long caseId, String text) {
+        Message message = new Message();
+        message.setCaseId(caseId);
+        message.setSenderId(1L);
+        message.setSenderType("user");
+        message.setReceiverId(2L);
+        message.setReceiverType("lawyer");
+        message.setMessageText(text);
+        message.setIsRead(false);
+        message.setCreatedAt(LocalDateTime.now());
+        return message;
+    }
+
+    /**
+     * Lease and id-block statements always succeed; inserts sleep for COMMIT_MILLIS
+     */
+    private static class FakeJdbc extends JdbcTemplate {
+        final Set<Long> inserted = ConcurrentHashMap.newKeySet();
+        final List<Object[]> deadLetters = new CopyOnWriteArrayList<>();
+        final AtomicLong batches = new AtomicLong();
+        private final AtomicLong nextBlockEnd = new AtomicLong(1);
+        volatile String poison;
+        volatile CountDownLatch blockInserts;
+
+        @Override
+        public int update(String sql, Object... args) {
+            if (sql.startsWith("INSERT INTO message_dead_letters")) {
+                deadLetters.add(args);
+            }
+            return 1;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T execute(ConnectionCallback<T> action) {
+            return (T) Long.valueOf(nextBlockEnd.addAndGet(1000));
+        }
+
+        @Override
+        public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
+                                       ParameterizedPreparedStatementSetter<T> pss) {
+            try {
+                if (blockInserts != null) {
+                    blockInserts.await(10, TimeUnit.SECONDS);
+                }
+                Thread.sleep(COMMIT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            for (T row : batchArgs) {
+                if (((Message) row).getMessageText().equals(poison)) {
+                    throw new IllegalStateException("Data too long for column 'message_text'");
+                }
+            }
+            for (T row : batchArgs) {
+                inserted.add(((Message) row).getId());
+            }
+            batches.incrementAndGet();
+            return new int[][] {new int[batchArgs.size()]};
+        }
+    }
+}
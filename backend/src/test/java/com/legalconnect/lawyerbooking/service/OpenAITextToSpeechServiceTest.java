@@ -0,0 +1,153 @@
+package com.legalconnect.lawyerbooking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs chunked synthesis against a local stub of the speech endpoint that "speaks" a
+ * request by echoing its input text
+ */
+class OpenAITextToSpeechServiceTest {
+
+    private static final String TEXT = "First sentence here. Second one follows. Third comes next. "
+            + "Fourth is longer than the others. Fifth ends it.";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private HttpServer server;
+    private ThreadPoolExecutor chunkExecutor;
+
+    @AfterEach
+    void stop() {
+        release.countDown();
+        if (server != null) {
+            server.stop(0);
+        }
+        if (chunkExecutor != null) {
+            chunkExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    void chunksAreJoinedInOrder() throws Exception {
+        OpenAITextToSpeechService service = service(3, exchange -> respond(exchange, 200, input(exchange)));
+
+        byte[] audio = service.textToSpeech(TEXT, "en");
+
+        assertTrue(requests.get() > 1, "expected several chunks, got " + requests.get());
+        assertEquals(TEXT.replace(" ", ""), new String(audio, StandardCharsets.UTF_8).replace(" ", ""));
+    }
+
+    @Test
+    void failedChunkAbortsChunksInFlight() throws Exception {
+        OpenAITextToSpeechService service = service(3, exchange -> {
+            String input = input(exchange);
+            if (input.startsWith("First")) {
+                respond(exchange, 500, "{\"error\":{\"message\":\"boom\"}}");
+            } else {
+                await(release);
+                respond(exchange, 200, input);
+            }
+        });
+
+        long start = System.currentTimeMillis();
+        RuntimeException e = assertThrows(RuntimeException.class, () -> service.textToSpeech(TEXT, "en"));
+        assertTrue(e.getMessage().contains("500"), e.getMessage());
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (chunkExecutor.getActiveCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, chunkExecutor.getActiveCount());
+        assertTrue(System.currentTimeMillis() - start < 5_000);
+    }
+
+    @Test
+    void failedChunkStopsQueuedChunksFromSending() throws Exception {
+        OpenAITextToSpeechService service = service(1, exchange -> {
+            input(exchange);
+            respond(exchange, 500, "{\"error\":{\"message\":\"boom\"}}");
+        });
+
+        assertThrows(RuntimeException.class, () -> service.textToSpeech(TEXT, "en"));
+
+        chunkExecutor.shutdown();
+        assertTrue(chunkExecutor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(1, requests.get());
+    }
+
+    private interface Handler {
+        void handle(HttpExchange exchange) throws IOException;
+    }
+
+    private OpenAITextToSpeechService service(int chunkThreads, Handler handler) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1/audio/speech", exchange -> {
+            requests.incrementAndGet();
+            try {
+                handler.handle(exchange);
+            } catch (IOException e) {
+                // Client aborted the call
+            } finally {
+                exchange.close();
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        chunkExecutor = new ThreadPoolExecutor(chunkThreads, chunkThreads, 0, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>());
+
+        OpenAITextToSpeechService service = new OpenAITextToSpeechService();
+        ReflectionTestUtils.setField(service, "apiKey", "test-key");
+        ReflectionTestUtils.setField(service, "ttsUrl",
+                "http://127.0.0.1:" + server.getAddress().getPort() + "/v1/audio/speech");
+        ReflectionTestUtils.setField(service, "client", new OkHttpClient.Builder()
+                .readTimeout(30, TimeUnit.SECONDS)
+                .build());
+        ReflectionTestUtils.setField(service, "maxChunkChars", 40);
+        ReflectionTestUtils.setField(service, "chunkThreads", chunkThreads);
+        ReflectionTestUtils.setField(service, "chunkExecutor", chunkExecutor);
+        // Disabled fragment cache: plain sentence-packed chunks
+        ReflectionTestUtils.setField(service, "fragmentCache", new TtsFragmentCache());
+        return service;
+    }
+
+    private String input(HttpExchange exchange) throws IOException {
+        return mapper.readTree(exchange.getRequestBody().readAllBytes()).get("input").asText();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.legalconnect.lawyerbooking.service;
+
+import com.legalconnect.lawyerbooking.util.SpooledMultipartFile;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the service against a local stub of the Whisper translations endpoint
+ */
+class OpenAIWhisperServiceTest {
+
+    private static final int SAMPLE_RATE = 8000;
+
+    @TempDir
+    Path tempDir;
+
+    private HttpServer server;
+    private ThreadPoolExecutor segmentExecutor;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void stop() {
+        release.countDown();
+        if (server != null) {
+            server.stop(0);
+        }
+        if (segmentExecutor != null) {
+            segmentExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shortUploadIsSentOnce() throws Exception {
+        OpenAIWhisperService service = service(2, exchange -> respond(exchange, 200, "{\"text\":\"hello there\"}"));
+
+        String text = service.translateToEnglish(wav(1));
+
+        assertEquals("hello there", text);
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    void uploadIsStreamedWithoutGetBytes() throws Exception {
+        AtomicInteger received = new AtomicInteger();
+        OpenAIWhisperService service = service(2, exchange -> {
+            received.set(exchange.getRequestBody().readAllBytes().length);
+            respond(exchange, 200, "{\"text\":\"hello there\"}");
+        });
+        byte[] data = Files.readAllBytes(wav(1).getPath());
+
+        assertEquals("hello there", service.translateToEnglish(new StreamOnlyFile(data)));
+        assertTrue(received.get() > data.length, received.get() + " bytes sent");
+    }
+
+    @Test
+    void longUploadIsSegmentedWithoutGetBytes() throws Exception {
+        OpenAIWhisperService service = service(2, exchange -> respond(exchange, 200, "{\"text\":\"part\"}"));
+
+        service.translateToEnglish(new StreamOnlyFile(Files.readAllBytes(wav(3.5).getPath())));
+
+        assertEquals(4, requests.get());
+    }
+
+    @Test
+    void segmentsAreStitchedInPlaybackOrder() throws Exception {
+        // Segment files are named call-part1.wav, call-part2.wav...; answer with that number
+        OpenAIWhisperService service = service(4, exchange -> {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.ISO_8859_1);
+            int marker = body.indexOf("-part");
+            String index = marker < 0 ? "?" : body.substring(marker + 5, marker + 6);
+            respond(exchange, 200, "{\"text\":\"part" + index + "\"}");
+        });
+
+        String text = service.translateToEnglish(wav(3.5));
+
+        assertEquals(4, requests.get());
+        assertEquals("part1 part2 part3 part4", text.replaceAll("\\s+", " ").trim());
+    }
+
+    @Test
+    void failedSegmentAbortsCallsInFlight() throws Exception {
+        // The first request fails once the others are on the wire; those hang until released
+        CountDownLatch allArrived = new CountDownLatch(4);
+        AtomicInteger order = new AtomicInteger();
+        OpenAIWhisperService service = service(4, exchange -> {
+            boolean first = order.getAndIncrement() == 0;
+            allArrived.countDown();
+            if (first) {
+                await(allArrived);
+                respond(exchange, 500, "{\"error\":{\"message\":\"boom\"}}");
+            } else {
+                await(release);
+                respond(exchange, 200, "{\"text\":\"late\"}");
+            }
+        });
+
+        long start = System.currentTimeMillis();
+        Exception e = assertThrows(Exception.class, () -> service.translateToEnglish(wav(3.5)));
+        assertTrue(e.getMessage().contains("500") || e.getMessage().contains("boom"), e.getMessage());
+
+        // Aborted calls free the segment threads instead of waiting for the stub's answer
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (segmentExecutor.getActiveCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, segmentExecutor.getActiveCount());
+        assertTrue(System.currentTimeMillis() - start < 5_000);
+    }
+
+    @Test
+    void failedSegmentStopsQueuedSegmentsFromSending() throws Exception {
+        // One segment thread: the rest are queued behind the failing first one
+        OpenAIWhisperService service = service(1, exchange -> respond(exchange, 500, "{\"error\":{\"message\":\"boom\"}}"));
+
+        assertThrows(Exception.class, () -> service.translateToEnglish(wav(3.5)));
+
+        segmentExecutor.shutdown();
+        assertTrue(segmentExecutor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(1, requests.get());
+    }
+
+    private interface Handler {
+        void handle(HttpExchange exchange) throws IOException;
+    }
+
+    private OpenAIWhisperService service(int segmentThreads, Handler handler) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1/audio/translations", exchange -> {
+            requests.incrementAndGet();
+            try {
+                handler.handle(exchange);
+            } catch (IOException e) {
+                // Client aborted the call
+            } finally {
+                exchange.close();
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        AudioSegmenter segmenter = new AudioSegmenter();
+        ReflectionTestUtils.setField(segmenter, "segmentSeconds", 1);
+        ReflectionTestUtils.setField(segmenter, "overlapSeconds", 0);
+        ReflectionTestUtils.setField(segmenter, "silenceSearchSeconds", 0);
+
+        segmentExecutor = new ThreadPoolExecutor(segmentThreads, segmentThreads, 0, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>());
+
+        OpenAIWhisperService service = new OpenAIWhisperService();
+        ReflectionTestUtils.setField(service, "apiKey", "test-key");
+        ReflectionTestUtils.setField(service, "translateUrl",
+                "http://127.0.0.1:" + server.getAddress().getPort() + "/v1/audio/translations");
+        ReflectionTestUtils.setField(service, "segmenter", segmenter);
+        ReflectionTestUtils.setField(service, "segmentExecutor", segmentExecutor);
+        ReflectionTestUtils.setField(service, "client", new OkHttpClient.Builder()
+                .readTimeout(30, TimeUnit.SECONDS)
+                .build());
+        return service;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            in.readAllBytes();
+        }
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Upload that fails the test if it is ever loaded with getBytes()
+     */
+    private static class StreamOnlyFile implements MultipartFile {
+        private final byte[] data;
+
+        StreamOnlyFile(byte[] data) {
+            this.data = data;
+        }
+
+        @Override
+        public String getName() {
+            return "file";
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return "call.wav";
+        }
+
+        @Override
+        public String getContentType() {
+            return "audio/wav";
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return data.length == 0;
+        }
+
+        @Override
+        public long getSize() {
+            return data.length;
+        }
+
+        @Override
+        public byte[] getBytes() {
+            throw new AssertionError("getBytes() would copy the whole upload onto the heap");
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new ByteArrayInputStream(data);
+        }
+
+        @Override
+        public void transferTo(File dest) {
+            throw new AssertionError("transferTo() is not expected");
+        }
+    }
+
+    /**
+     * Silent 16-bit mono PCM WAV of the given length, spooled like a real upload
+     */
+    private SpooledMultipartFile wav(double seconds) throws IOException {
+        int dataLength = (int) (seconds * SAMPLE_RATE) * 2;
+        ByteBuffer wav = ByteBuffer.allocate(44 + dataLength).order(ByteOrder.LITTLE_ENDIAN);
+        wav.put("RIFF".getBytes(StandardCharsets.US_ASCII)).putInt(36 + dataLength);
+        wav.put("WAVE".getBytes(StandardCharsets.US_ASCII));
+        wav.put("fmt ".getBytes(StandardCharsets.US_ASCII)).putInt(16);
+        wav.putShort((short) 1).putShort((short) 1).putInt(SAMPLE_RATE).putInt(SAMPLE_RATE * 2)
+                .putShort((short) 2).putShort((short) 16);
+        wav.put("data".getBytes(StandardCharsets.US_ASCII)).putInt(dataLength);
+        Path path = tempDir.resolve("call-" + System.nanoTime() + ".wav");
+        Files.write(path, wav.array());
+        return SpooledMultipartFile.of(path, "call.wav", "audio/wav");
+    }
+}
@@ -0,0 +1,136 @@
+package com.legalconnect.lawyerbooking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Which texts hybrid masking sends to the LLM, against a local stub of chat completions
+ */
+class TextMaskingServiceTest {
+
+    private static final String LLM_REPLY = "masked by llm";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final List<String> prompts = new CopyOnWriteArrayList<>();
+    private HttpServer server;
+    private TextMaskingService service;
+
+    @BeforeEach
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1/chat/completions", this::complete);
+        server.start();
+
+        service = new TextMaskingService();
+        ReflectionTestUtils.setField(service, "apiKey", "test-key");
+        ReflectionTestUtils.setField(service, "chatCompletionsUrl",
+                "http://127.0.0.1:" + server.getAddress().getPort() + "/v1/chat/completions");
+        ReflectionTestUtils.setField(service, "client", new OkHttpClient());
+        ReflectionTestUtils.setField(service, "localMasker", new LocalPiiMasker());
+        ReflectionTestUtils.setField(service, "chunkExecutor", (Executor) Runnable::run);
+        ReflectionTestUtils.setField(service, "maskingMode", "hybrid");
+        ReflectionTestUtils.setField(service, "localMaxChars", 1000);
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop(0);
+    }
+
+    @Test
+    void nameFreeTextUpToTheLimitSkipsTheLlm() {
+        String text = nameFree(1000);
+        assertEquals(text, service.maskEnglishPersonalInfo(text));
+        assertTrue(prompts.isEmpty());
+    }
+
+    @Test
+    void nameFreeTextOverTheLimitGoesToTheLlm() {
+        assertEquals(LLM_REPLY, service.maskEnglishPersonalInfo(nameFree(1001)));
+        assertEquals(1, prompts.size());
+    }
+
+    @Test
+    void possibleNameGoesToTheLlmPreMasked() {
+        String text = "The landlord Suresh keeps calling me on 9876543210.";
+        assertEquals(LLM_REPLY, service.maskEnglishPersonalInfo(text));
+        assertEquals(1, prompts.size());
+        assertTrue(prompts.get(0).contains("The landlord Suresh keeps calling me on [PHONE_MASKED]."));
+        assertFalse(prompts.get(0).contains("9876543210"));
+    }
+
+    @Test
+    void structuredPiiIsMaskedLocallyWhenNoNameIsLeft() {
+        String masked = service.maskEnglishPersonalInfo("my name is Nirav Desai, call 9876543210 about the rent.");
+        assertEquals("my name is [NAME_MASKED], call [PHONE_MASKED] about the rent.", masked);
+        assertTrue(prompts.isEmpty());
+    }
+
+    @Test
+    void localModeNeverCallsTheLlm() {
+        ReflectionTestUtils.setField(service, "maskingMode", "local");
+        assertEquals("The landlord Suresh called.", service.maskEnglishPersonalInfo("The landlord Suresh called."));
+        assertTrue(prompts.isEmpty());
+    }
+
+    @Test
+    void llmModeSendsTheOriginalText() {
+        ReflectionTestUtils.setField(service, "maskingMode", "llm");
+        service.maskEnglishPersonalInfo("the rent is unpaid.");
+        assertEquals(1, prompts.size());
+        assertTrue(prompts.get(0).endsWith("the rent is unpaid."));
+    }
+
+    @Test
+    void cacheVariantChangesWithModeAndLimit() {
+        String hybrid = service.cacheVariant();
+        ReflectionTestUtils.setField(service, "maskingMode", "llm");
+        String llm = service.cacheVariant();
+        ReflectionTestUtils.setField(service, "localMaxChars", 500);
+        assertFalse(hybrid.equals(llm));
+        assertFalse(llm.equals(service.cacheVariant()));
+    }
+
+    /**
+     * Lower-case sentences of exactly {@code length} chars: no PII, nothing name-like
+     */
+    private static String nameFree(int length) {
+        String sentence = "the rent for the flat was not paid for three months. ";
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < length) {
+            sb.append(sentence);
+        }
+        return sb.substring(0, length);
+    }
+
+    private void complete(HttpExchange exchange) throws IOException {
+        try {
+            String prompt = mapper.readTree(exchange.getRequestBody().readAllBytes())
+                    .get("messages").get(1).get("content").asText();
+            prompts.add(prompt);
+            byte[] body = ("{\"choices\":[{\"message\":{\"content\":\"" + LLM_REPLY + "\"}}]}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        } finally {
+            exchange.close();
+        }
+    }
+}
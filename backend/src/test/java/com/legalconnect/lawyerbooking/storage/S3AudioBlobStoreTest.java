@@ -0,0 +1,94 @@
+package com.legalconnect.lawyerbooking.storage;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Range reads against a local stub of an S3 endpoint
+ */
+class S3AudioBlobStoreTest {
+
+    private static final String KEY = "ab".repeat(32);
+
+    private final byte[] blob = new byte[1000];
+    private HttpServer server;
+    private volatile boolean honourRange = true;
+    private S3AudioBlobStore store;
+
+    @BeforeEach
+    void start() throws IOException {
+        for (int i = 0; i < blob.length; i++) {
+            blob[i] = (byte) i;
+        }
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/bucket/audio/", this::serve);
+        server.start();
+        store = new S3AudioBlobStore("http://127.0.0.1:" + server.getAddress().getPort(), "us-east-1",
+                "bucket", "audio/", "access", "secret", 5);
+    }
+
+    @AfterEach
+    void stop() {
+        server.stop(0);
+    }
+
+    @Test
+    void partialContentIsCopied() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        store.copyRange(KEY, 100, 50, out);
+        assertArrayEquals(Arrays.copyOfRange(blob, 100, 150), out.toByteArray());
+    }
+
+    @Test
+    void ignoredRangeIsRejected() {
+        honourRange = false;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThrows(IOException.class, () -> store.copyRange(KEY, 100, 50, out));
+        assertArrayEquals(new byte[0], out.toByteArray());
+    }
+
+    @Test
+    void wholeObjectIsAcceptedWithoutPartialContent() throws IOException {
+        honourRange = false;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        store.copyRange(KEY, 0, blob.length, out);
+        assertArrayEquals(blob, out.toByteArray());
+    }
+
+    @Test
+    void prefixOfAnIgnoredRangeIsRejected() {
+        honourRange = false;
+        assertThrows(IOException.class, () -> store.copyRange(KEY, 0, 10, new ByteArrayOutputStream()));
+    }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        try {
+            String range = exchange.getRequestHeaders().getFirst("Range");
+            if (honourRange && range != null) {
+                String[] bounds = range.substring("bytes=".length()).split("-");
+                int from = Integer.parseInt(bounds[0]);
+                int to = Integer.parseInt(bounds[1]);
+                byte[] part = Arrays.copyOfRange(blob, from, to + 1);
+                exchange.getResponseHeaders().add("Content-Range", "bytes " + from + "-" + to + "/" + blob.length);
+                exchange.sendResponseHeaders(206, part.length);
+                exchange.getResponseBody().write(part);
+            } else {
+                exchange.sendResponseHeaders(200, blob.length);
+                exchange.getResponseBody().write(blob);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+}
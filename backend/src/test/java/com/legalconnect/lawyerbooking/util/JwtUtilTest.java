@@ -0,0 +1,118 @@
+package com.legalconnect.lawyerbooking.util;
+
+import com.legalconnect.lawyerbooking.security.JwtClaims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "test-secret-that-is-long-enough-for-hs256-signing";
+
+    private final JwtUtil jwtUtil = jwtUtil(SECRET, 60_000L);
+
+    @Test
+    void parseTokenReturnsTheGeneratedClaims() {
+        long before = System.currentTimeMillis() / 1000 * 1000;
+        String token = jwtUtil.generateToken(7L, "alice", "Lawyer");
+
+        JwtClaims claims = jwtUtil.parseToken(token);
+
+        assertEquals(7L, (long) claims.getUserId());
+        assertEquals("alice", claims.getUsername());
+        assertEquals("lawyer", claims.getUserType());
+        assertFalse(claims.isExpired());
+        assertTrue(claims.getIssuedAt().getTime() >= before);
+        assertEquals(60_000L, claims.getExpiration().getTime() - claims.getIssuedAt().getTime());
+        assertTrue(jwtUtil.validateToken(token, "alice"));
+        assertFalse(jwtUtil.validateToken(token, "bob"));
+    }
+
+    @Test
+    void parsingIsRepeatable() {
+        String token = jwtUtil.generateToken(7L, "alice", "user");
+        for (int i = 0; i < 100; i++) {
+            assertEquals(7L, (long) jwtUtil.parseToken(token).getUserId());
+        }
+    }
+
+    @Test
+    void adminTokensCanBeIssued() {
+        assertEquals("admin", jwtUtil.parseToken(jwtUtil.generateToken(1L, "root", "admin")).getUserType());
+        assertThrows(IllegalArgumentException.class, () -> jwtUtil.generateToken(1L, "root", "superuser"));
+    }
+
+    @Test
+    void tamperedPayloadIsRejected() {
+        String token = jwtUtil.generateToken(7L, "alice", "user");
+        String[] parts = token.split("\\.");
+        String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8);
+        assertTrue(payload.contains("\"userType\":\"user\""), payload);
+        String forged = parts[0] + "."
+                + Base64.getUrlEncoder().withoutPadding().encodeToString(
+                        payload.replace("\"userType\":\"user\"", "\"userType\":\"admin\"").getBytes(StandardCharsets.UTF_8))
+                + "." + parts[2];
+
+        assertThrows(JwtException.class, () -> jwtUtil.parseToken(forged));
+        assertFalse(jwtUtil.validateToken(forged));
+    }
+
+    @Test
+    void tamperedSignatureIsRejected() {
+        String token = jwtUtil.generateToken(7L, "alice", "user");
+        // A character inside the signature (the last one partly encodes padding bits)
+        int at = token.length() - 10;
+        String forged = token.substring(0, at) + (token.charAt(at) == 'A' ? 'B' : 'A') + token.substring(at + 1);
+
+        assertThrows(JwtException.class, () -> jwtUtil.parseToken(forged));
+    }
+
+    @Test
+    void tokenSignedWithAnotherKeyIsRejected() {
+        String token = jwtUtil("another-secret-that-is-also-long-enough-for-hs256", 60_000L)
+                .generateToken(7L, "alice", "user");
+
+        assertThrows(JwtException.class, () -> jwtUtil.parseToken(token));
+    }
+
+    @Test
+    void unsignedTokenIsRejected() {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String token = encoder.encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8)) + "."
+                + encoder.encodeToString("{\"sub\":\"alice\",\"userId\":7,\"userType\":\"admin\"}".getBytes(StandardCharsets.UTF_8))
+                + ".";
+
+        assertThrows(JwtException.class, () -> jwtUtil.parseToken(token));
+    }
+
+    @Test
+    void expiredTokenIsRejected() {
+        String token = jwtUtil(SECRET, -1_000L).generateToken(7L, "alice", "user");
+
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.parseToken(token));
+        assertFalse(jwtUtil.validateToken(token));
+    }
+
+    @Test
+    void shortSecretIsRefused() {
+        JwtUtil weak = jwtUtil("too-short", 60_000L);
+        assertFalse(weak.isSecretKeyValid());
+        assertThrows(IllegalStateException.class, () -> weak.generateToken(7L, "alice", "user"));
+    }
+
+    private static JwtUtil jwtUtil(String secret, Long expiration) {
+        JwtUtil util = new JwtUtil();
+        ReflectionTestUtils.setField(util, "secret", secret);
+        ReflectionTestUtils.setField(util, "expiration", expiration);
+        return util;
+    }
+}
@@ -0,0 +1,135 @@
+package com.legalconnect.lawyerbooking.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Spooling copies uploads through their InputStream and never loads them with getBytes()
+ */
+class SpooledMultipartFileTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void uploadIsSpooledWithoutGetBytes() throws IOException {
+        byte[] data = new byte[5 * 1024 * 1024];
+        new Random(1).nextBytes(data);
+
+        Path target = tempDir.resolve("spool/job-1.upload");
+        SpooledMultipartFile spooled = SpooledMultipartFile.spool(new StreamOnlyFile(data), target);
+
+        assertEquals(target, spooled.getPath());
+        assertEquals(data.length, spooled.getSize());
+        assertEquals("call.wav", spooled.getOriginalFilename());
+        assertEquals("audio/wav", spooled.getContentType());
+        assertFalse(spooled.isEmpty());
+        assertArrayEquals(data, Files.readAllBytes(target));
+        try (InputStream in = spooled.getInputStream()) {
+            assertArrayEquals(data, in.readAllBytes());
+        }
+    }
+
+    @Test
+    void failedCopyLeavesNoPartialFile() {
+        Path target = tempDir.resolve("job-2.upload");
+        MultipartFile broken = new StreamOnlyFile(new byte[1024 * 1024]) {
+            @Override
+            public InputStream getInputStream() {
+                return new FilterInputStream(super.getInputStream()) {
+                    private int read;
+
+                    @Override
+                    public int read(byte[] b, int off, int len) throws IOException {
+                        if ((read += len) > 64 * 1024) {
+                            throw new IOException("client went away");
+                        }
+                        return super.read(b, off, len);
+                    }
+                };
+            }
+        };
+
+        assertThrows(IOException.class, () -> SpooledMultipartFile.spool(broken, target));
+        assertFalse(Files.exists(target));
+    }
+
+    @Test
+    void respooledFileReportsItsSize() throws IOException {
+        Path path = tempDir.resolve("job-3.upload");
+        Files.write(path, new byte[123]);
+
+        assertEquals(123, SpooledMultipartFile.of(path, "a.mp3", "audio/mpeg").getSize());
+        assertTrue(SpooledMultipartFile.of(tempDir.resolve("missing"), "a.mp3", "audio/mpeg").isEmpty());
+
+        SpooledMultipartFile.of(path, "a.mp3", "audio/mpeg").delete();
+        assertFalse(Files.exists(path));
+    }
+
+    /**
+     * Upload that can only be read as a stream
+     */
+    static class StreamOnlyFile implements MultipartFile {
+        private final byte[] data;
+
+        StreamOnlyFile(byte[] data) {
+            this.data = data;
+        }
+
+        @Override
+        public String getName() {
+            return "file";
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return "call.wav";
+        }
+
+        @Override
+        public String getContentType() {
+            return "audio/wav";
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return data.length == 0;
+        }
+
+        @Override
+        public long getSize() {
+            return data.length;
+        }
+
+        @Override
+        public byte[] getBytes() {
+            throw new AssertionError("getBytes() would copy the whole upload onto the heap");
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new ByteArrayInputStream(data);
+        }
+
+        @Override
+        public void transferTo(File dest) {
+            throw new AssertionError("transferTo() is not expected");
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.legalconnect.lawyerbooking.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TextChunkerTest {
+
+    private static final String GUJARATI = "મારું નામ રમેશ છે। હું અમદાવાદમાં રહું છું। મકાનમાલિક ડિપોઝિટ પાછી આપતા નથી।";
+
+    @Test
+    void shortTextIsOneChunk() {
+        TextChunker chunker = new TextChunker(100);
+        assertEquals(List.of("One sentence. Two."), chunker.split("One sentence. Two."));
+        assertFalse(chunker.needsChunking("One sentence. Two."));
+    }
+
+    @Test
+    void chunksEndOnSentenceBoundaries() {
+        String text = "First sentence is here. Second one! Third one? Fourth and last.";
+        List<String> chunks = new TextChunker(40).split(text);
+
+        assertEquals(List.of("First sentence is here. Second one! ", "Third one? Fourth and last."), chunks);
+        assertEquals(text, String.join("", chunks));
+    }
+
+    @Test
+    void gujaratiDandaEndsASentence() {
+        List<String> chunks = new TextChunker(40).split(GUJARATI);
+
+        assertEquals(GUJARATI, String.join("", chunks));
+        for (String chunk : chunks.subList(0, chunks.size() - 1)) {
+            assertTrue(chunk.stripTrailing().endsWith("।"), chunk);
+        }
+        assertEquals(List.of("મારું નામ રમેશ છે।", "હું અમદાવાદમાં રહું છું।", "મકાનમાલિક ડિપોઝિટ પાછી આપતા નથી।"),
+                TextChunker.splitSentences(GUJARATI, 100));
+    }
+
+    @Test
+    void oversizeSentenceIsCutAtASpace() {
+        String text = "this run on sentence has no full stop anywhere in it at all";
+        List<String> chunks = new TextChunker(20).split(text);
+
+        assertEquals(text, String.join("", chunks));
+        for (String chunk : chunks) {
+            assertTrue(chunk.length() <= 20, chunk);
+            assertTrue(chunk.endsWith(" ") || chunk.equals(chunks.get(chunks.size() - 1)), "cut inside a word: " + chunk);
+        }
+
+        List<String> sentences = TextChunker.splitSentences(text, 20);
+        assertEquals(text, String.join(" ", sentences));
+        sentences.forEach(s -> assertTrue(s.length() <= 20, s));
+    }
+
+    @Test
+    void wordLongerThanTheChunkIsHardCut() {
+        String text = "a".repeat(25) + " tail.";
+        List<String> chunks = new TextChunker(10).split(text);
+        assertEquals(text, String.join("", chunks));
+        assertEquals("a".repeat(10), chunks.get(0));
+    }
+
+    @Test
+    void splitNeverLosesOrDuplicatesText() {
+        Random random = new Random(42);
+        String[] words = {"the", "landlord", "refused.", "deposit", "of", "Rs", "50000!", "why?", "\n", "કેસ।", "court"};
+        for (int round = 0; round < 200; round++) {
+            StringBuilder text = new StringBuilder();
+            int length = 1 + random.nextInt(120);
+            for (int i = 0; i < length; i++) {
+                text.append(words[random.nextInt(words.length)]).append(random.nextInt(5) == 0 ? "  " : " ");
+            }
+            int chunkSize = 5 + random.nextInt(60);
+            List<String> chunks = new TextChunker(chunkSize).split(text.toString());
+
+            assertEquals(text.toString(), String.join("", chunks));
+            chunks.forEach(c -> assertTrue(c.length() <= chunkSize && !c.isEmpty(), "chunk '" + c + "'"));
+
+            String packed = String.join(" ", TextChunker.sentences(text.toString(), chunkSize));
+            assertEquals(text.toString().replaceAll("\\s+", ""), packed.replaceAll("\\s+", ""));
+        }
+    }
+
+    @Test
+    void sentencesArePackedUpToTheLimit() {
+        List<String> pieces = TextChunker.sentences("One. Two. Three. Four.", 10);
+        assertEquals(List.of("One. Two.", "Three.", "Four."), pieces);
+    }
+
+    @Test
+    void processedChunksAreJoinedInOrder() {
+        // The paragraph break falls between the second and third chunk
+        String text = "First one here. Second one!\n\nThird one? Last one.";
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            String result = new TextChunker(16).process(text, String::toUpperCase, executor);
+            assertEquals("FIRST ONE HERE. SECOND ONE!\nTHIRD ONE? LAST ONE.", result);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void failedChunkFailsTheWholeText() {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            TextChunker chunker = new TextChunker(12);
+            RuntimeException e = assertThrows(RuntimeException.class, () -> chunker.process("Good one. Bad one. Good two.",
+                    chunk -> {
+                        if (chunk.startsWith("Bad")) {
+                            throw new IllegalStateException("chunk failed");
+                        }
+                        return chunk;
+                    }, executor));
+            assertEquals("chunk failed", e.getMessage());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -16,7 +16,6 @@ function LawyerDashboard() {
     const [loading, setLoading] = useState(false);
     const [error, setError] = useState('');
     const [playingRecordId, setPlayingRecordId] = useState(null);
-    const [currentAudioUrl, setCurrentAudioUrl] = useState(null);
     const [selectedLanguage, setSelectedLanguage] = useState({}); // { recordId: 'en' | 'gu' }
     const [activeTab, setActiveTab] = useState('audio'); // 'audio', 'appointments', 'cases', or 'profile'
     const [lawyerId, setLawyerId] = useState(null);
@@ -26,7 +25,6 @@ function LawyerDashboard() {
     const [selectedCase, setSelectedCase] = useState(null);
     const [creatingCaseId, setCreatingCaseId] = useState(null);
     const [lawyerProfile, setLawyerProfile] = useState(null);
-    const lawyerProfileRef = useRef(null); // Ref to avoid stale closures in WS
     const [pendingRequests, setPendingRequests] = useState([]); // Real-time requests
     const audioRef = useRef(null);
     const navigate = useNavigate();
@@ -35,7 +33,6 @@ function LawyerDashboard() {
         try {
             const response = await lawyersApi.getProfile(id || lawyerId);
             setLawyerProfile(response.data);
-            lawyerProfileRef.current = response.data; // Update ref for WS
             console.log('Lawyer profile loaded:', response.data);
         } catch (err) {
             console.error('Error fetching lawyer profile:', err);
@@ -114,65 +111,53 @@ function LawyerDashboard() {
         const client = new Client({
             webSocketFactory: () => socket,
             reconnectDelay: 5000,
-            onConnect: () => {
-                console.log('WS CONNECT: Connected to request service at /topic/lawyer/requests');
-                client.subscribe('/topic/lawyer/requests', (message) => {
-                    const receivedPayload = JSON.parse(message.body);
-                    const currentProfile = lawyerProfileRef.current;
+            onConnect: async () => {
+                // The server publishes each case only to its category channel; subscribe to ours
+                let topics = { requests: ['/topic/lawyer/requests/general'], updates: ['/topic/lawyer/updates/general'] };
+                try {
+                    const response = await lawyersApi.getRequestTopics(lawyerId);
+                    topics = response.data || topics;
+                } catch (err) {
+                    console.error('Error fetching request topics:', err);
+                }
+                console.log('WS CONNECT: Subscribing to request channels', topics.requests);
 
+                const handleRequest = (message) => {
+                    const receivedPayload = JSON.parse(message.body);
                     console.log('WS RECEIVED: Raw payload:', receivedPayload);
 
-                    // Filter by specialization if profile is available
-                    const specsPlural = (currentProfile?.specializations || "").toLowerCase();
-                    const specsSingular = (currentProfile?.specialization || "").toLowerCase();
-                    const category = (receivedPayload.category || receivedPayload.caseCategory || "").toLowerCase();
-
-                    console.log(`WS FILTER: Matching "${category}" against specs: ["${specsSingular}", "${specsPlural}"]`);
-
-                    const isMatch = !currentProfile ||
-                        specsPlural.includes(category) ||
-                        specsSingular.includes(category) ||
-                        category === "" ||
-                        (specsPlural === "" && specsSingular === "");
-
-                    console.log(`WS RESULT: isMatch = ${isMatch}`);
-
-                    if (isMatch) {
-                        setPendingRequests(prev => {
-                            if (prev.some(r => r.caseId === receivedPayload.caseId)) return prev;
-                            return [receivedPayload, ...prev];
-                        });
-
-                        toast.info(
-                            <div>
-                                <strong>🆕 New Case Request: {receivedPayload.title}</strong>
-                                <p style={{ fontSize: '0.85rem', margin: '5px 0', color: '#666' }}>
-                                    Category: {receivedPayload.category || 'General'}
-                                </p>
-                                <p style={{ fontSize: '0.75rem', color: '#888' }}>
-                                    {receivedPayload.description && receivedPayload.description.length > 80
-                                        ? receivedPayload.description.substring(0, 80) + '...'
-                                        : receivedPayload.description}
-                                </p>
-                            </div>,
-                            {
-                                position: "top-right",
-                                autoClose: 30000,
-                                onClick: () => {
-                                    setActiveTab('cases');
-                                    fetchCases();
-                                }
+                    setPendingRequests(prev => {
+                        if (prev.some(r => r.caseId === receivedPayload.caseId)) return prev;
+                        return [receivedPayload, ...prev];
+                    });
+
+                    toast.info(
+                        <div>
+                            <strong>🆕 New Case Request: {receivedPayload.title}</strong>
+                            <p style={{ fontSize: '0.85rem', margin: '5px 0', color: '#666' }}>
+                                Category: {receivedPayload.category || 'General'}
+                            </p>
+                            <p style={{ fontSize: '0.75rem', color: '#888' }}>
+                                {receivedPayload.description && receivedPayload.description.length > 80
+                                    ? receivedPayload.description.substring(0, 80) + '...'
+                                    : receivedPayload.description}
+                            </p>
+                        </div>,
+                        {
+                            position: "top-right",
+                            autoClose: 30000,
+                            onClick: () => {
+                                setActiveTab('cases');
+                                fetchCases();
                             }
-                        );
-                        // Refresh unassigned cases silently
-                        fetchCases();
-                    } else {
-                        console.log(`WS FILTER SKIP: Request for "${category}" does not match lawyer specializations.`);
-                    }
-                });
-
-                // Subscribe to global lawyer updates (e.g. case assigned)
-                client.subscribe('/topic/lawyer/updates', (message) => {
+                        }
+                    );
+                    // Refresh unassigned cases silently
+                    fetchCases();
+                };
+
+                // Lawyer updates for our categories (e.g. case assigned)
+                const handleUpdate = (message) => {
                     const update = JSON.parse(message.body);
                     console.log('WS UPDATE RECEIVED:', update);
                     if (update.type === 'CASE_ASSIGNED') {
@@ -185,7 +170,10 @@ function LawyerDashboard() {
                         fetchCases();
                         fetchRecords();
                     }
-                });
+                };
+
+                (topics.requests || []).forEach((destination) => client.subscribe(destination, handleRequest));
+                (topics.updates || []).forEach((destination) => client.subscribe(destination, handleUpdate));
             },
             onStompError: (frame) => {
                 console.error('WS ERROR:', frame.headers['message']);
@@ -198,15 +186,16 @@ function LawyerDashboard() {
             console.log('WS CLEANUP: Deactivating client');
             client.deactivate();
         };
-    }, [lawyerId, fetchCases]);
+    }, [lawyerId, fetchCases, lawyerProfile?.specialization, lawyerProfile?.specializations]);
 
     const fetchRecords = useCallback(async () => {
         setLoading(true);
         setError('');
 
         try {
-            const response = await audioApi.getAll();
-            setRecords(Array.isArray(response.data) ? response.data : []);
+            const response = await audioApi.getAll({ page: 0, size: 50 });
+            const page = response.data || {};
+            setRecords(Array.isArray(page.records) ? page.records : []);
         } catch (err) {
             setError('Error fetching records: ' + err.message);
             console.error('Error fetching records:', err);
@@ -253,8 +242,9 @@ function LawyerDashboard() {
 
         setCreatingCaseId(record.id);
         try {
-            // 1. Create Case
-            const description = (record.maskedEnglishText || record.maskedGujaratiText || "Audio Record Case") + "\n\n(Generated from Audio Record #" + record.id + ")";
+            // 1. Create Case (the listing only carries previews; load the full text without audio)
+            const { data: fullRecord } = await audioApi.getById(record.id, { includeAudio: false });
+            const description = (fullRecord.maskedEnglishText || fullRecord.maskedGujaratiText || "Audio Record Case") + "\n\n(Generated from Audio Record #" + record.id + ")";
             const caseData = {
                 userId: targetUserId,
                 caseTitle: `Case from Audio #${record.id}`,
@@ -299,10 +289,6 @@ function LawyerDashboard() {
             audioRef.current.pause();
             audioRef.current = null;
         }
-        if (currentAudioUrl) {
-            URL.revokeObjectURL(currentAudioUrl);
-            setCurrentAudioUrl(null);
-        }
         setPlayingRecordId(null);
         removeToken();
         navigate('/lawyer-login');
@@ -318,8 +304,8 @@ function LawyerDashboard() {
         };
     }, []);
 
-    const playAudio = (audioData, recordId) => {
-        if (!audioData) {
+    const playAudio = (audioUrl, recordId) => {
+        if (!audioUrl) {
             setError('No audio data available');
             return;
         }
@@ -338,25 +324,10 @@ function LawyerDashboard() {
         if (audioRef.current) {
             audioRef.current.pause();
         }
-        if (currentAudioUrl) {
-            URL.revokeObjectURL(currentAudioUrl);
-        }
 
         try {
-            let audioBlob;
-            if (typeof audioData === 'string') {
-                const base64String = audioData.replace(/^data:audio\/\w+;base64,/, '');
-                const binaryString = atob(base64String);
-                const bytes = new Uint8Array(binaryString.length);
-                for (let i = 0; i < binaryString.length; i++) bytes[i] = binaryString.charCodeAt(i);
-                audioBlob = new Blob([bytes], { type: 'audio/mpeg' });
-            } else {
-                audioBlob = new Blob([new Uint8Array(audioData)], { type: 'audio/mpeg' });
-            }
-
-            const url = URL.createObjectURL(audioBlob);
-            setCurrentAudioUrl(url);
-            const audio = new Audio(url);
+            // The browser streams the record's audio straight from the API
+            const audio = new Audio(audioUrl);
             audioRef.current = audio;
             setPlayingRecordId(recordId);
 
@@ -511,8 +482,8 @@ function LawyerDashboard() {
                                                 <h4>Text:</h4>
                                                 <div className="text-content">
                                                     {selectedLanguage[record.id] === 'gu'
-                                                        ? (record.maskedGujaratiText || 'N/A')
-                                                        : (record.maskedEnglishText || 'N/A')}
+                                                        ? (record.maskedGujaratiPreview || 'N/A')
+                                                        : (record.maskedEnglishPreview || 'N/A')}
                                                 </div>
                                             </div>
 
@@ -521,13 +492,11 @@ function LawyerDashboard() {
                                                 <div style={{ display: 'flex', alignItems: 'center', gap: '15px', flexWrap: 'wrap' }}>
                                                     {(() => {
                                                         const isGujarati = selectedLanguage[record.id] === 'gu';
-                                                        const audioData = isGujarati
-                                                            ? (record.maskedGujaratiAudioBase64 || record.maskedGujaratiAudio)
-                                                            : (record.maskedTextAudioBase64 || record.maskedTextAudio);
+                                                        const hasAudio = isGujarati ? record.hasGujaratiAudio : record.hasEnglishAudio;
 
-                                                        return audioData ? (
+                                                        return hasAudio ? (
                                                             <button
-                                                                onClick={() => playAudio(audioData, record.id)}
+                                                                onClick={() => playAudio(audioApi.audioUrl(record.id, isGujarati ? 'gu' : 'en'), record.id)}
                                                                 className="play-audio-button"
                                                             >
                                                                 {playingRecordId === record.id ? '⏸ Pause' : '▶ Play'}
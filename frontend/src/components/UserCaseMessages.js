@@ -9,18 +9,64 @@ function UserCaseMessages({ caseId, userId, userType, lawyerId, clientUserId, on
   const [messages, setMessages] = useState([]);
   const [newMessage, setNewMessage] = useState('');
   const [connected, setConnected] = useState(false);
+  const [hasOlder, setHasOlder] = useState(false);
+  const [loadingOlder, setLoadingOlder] = useState(false);
+  const [unreadElsewhere, setUnreadElsewhere] = useState(0);
   const messagesEndRef = useRef(null);
+  const listRef = useRef(null);
   const stompClientRef = useRef(null);
+  // Set when older messages are prepended so the view keeps its position instead of jumping to the bottom
+  const preserveScrollRef = useRef(null);
+
+  const PAGE_SIZE = 50;
+
+  // One request marks everything up to the newest visible message as read
+  const markReadUpTo = useCallback((messageId) => {
+    if (!caseId || !messageId) return;
+    messagesApi.markCaseRead(caseId, messageId).catch((err) => {
+      console.error('Error marking messages as read:', err);
+    });
+  }, [caseId]);
 
   const fetchMessages = useCallback(async () => {
     if (!caseId) return;
     try {
-      const response = await messagesApi.getByCase(caseId);
-      setMessages(Array.isArray(response.data) ? response.data : []);
+      const response = await messagesApi.getPage(caseId, { limit: PAGE_SIZE });
+      const page = response.data || {};
+      const latest = Array.isArray(page.messages) ? page.messages : [];
+      setMessages(latest);
+      setHasOlder(!!page.hasMore);
+      if (latest.length > 0) {
+        markReadUpTo(latest[latest.length - 1].id);
+      }
     } catch (err) {
       console.error('Error fetching messages:', err);
     }
-  }, [caseId]);
+  }, [caseId, markReadUpTo]);
+
+  const fetchOlderMessages = async () => {
+    if (!caseId || !hasOlder || loadingOlder || messages.length === 0) return;
+    setLoadingOlder(true);
+    try {
+      const response = await messagesApi.getPage(caseId, { before: messages[0].id, limit: PAGE_SIZE });
+      const page = response.data || {};
+      const older = Array.isArray(page.messages) ? page.messages : [];
+      const list = listRef.current;
+      preserveScrollRef.current = list ? list.scrollHeight - list.scrollTop : null;
+      setMessages((prev) => [...older.filter((m) => !prev.some((p) => p.id === m.id)), ...prev]);
+      setHasOlder(!!page.hasMore);
+    } catch (err) {
+      console.error('Error fetching older messages:', err);
+    } finally {
+      setLoadingOlder(false);
+    }
+  };
+
+  const handleScroll = (e) => {
+    if (e.currentTarget.scrollTop < 40) {
+      fetchOlderMessages();
+    }
+  };
 
   const connectWebSocket = useCallback(() => {
     // Determine base URL for WebSocket dynamically
@@ -35,9 +81,10 @@ function UserCaseMessages({ caseId, userId, userType, lawyerId, clientUserId, on
     const client = new Client({
       webSocketFactory: () => socket,
       connectionTimeout: 10000,
-      connectHeaders: {
-        // Authorization header removed as per requirement to decouple WS from JWT
-      },
+      // The token only authenticates the private /user/queue pushes; chat works without it
+      connectHeaders: localStorage.getItem('token')
+        ? { Authorization: `Bearer ${localStorage.getItem('token')}` }
+        : {},
       debug: (str) => {
         if (str.includes('ERROR')) console.error('STOMP: ' + str);
         else console.log('STOMP: ' + str);
@@ -60,6 +107,10 @@ function UserCaseMessages({ caseId, userId, userType, lawyerId, clientUserId, on
               if (prev.some((m) => m.id === receivedData.id)) return prev;
               return [...prev, receivedData];
             });
+            const fromOtherParty = !(String(receivedData.senderId) === String(userId) && receivedData.senderType === userType);
+            if (fromOtherParty) {
+              markReadUpTo(receivedData.id);
+            }
           } else if (receivedData.caseTitle !== undefined || receivedData.solution !== undefined) {
             console.log('Received real-time case update:', receivedData);
             if (onCaseUpdate) {
@@ -70,6 +121,19 @@ function UserCaseMessages({ caseId, userId, userType, lawyerId, clientUserId, on
           console.error('Error parsing broadcast message:', e);
         }
       });
+      // Unread counts across all of this account's cases, pushed on every change
+      if (localStorage.getItem('token')) {
+        client.subscribe('/user/queue/unread', (message) => {
+          try {
+            const counts = JSON.parse(message.body);
+            if (String(counts.caseId) !== String(caseId)) {
+              setUnreadElsewhere(counts.total);
+            }
+          } catch (e) {
+            console.error('Error parsing unread count:', e);
+          }
+        });
+      }
     };
 
     client.onStompError = (frame) => {
@@ -88,7 +152,7 @@ function UserCaseMessages({ caseId, userId, userType, lawyerId, clientUserId, on
     } catch (err) {
       console.error('Failed to activate STOMP client:', err);
     }
-  }, [caseId]);
+  }, [caseId, userId, userType, markReadUpTo]);
 
   useEffect(() => {
     if (caseId) {
@@ -99,6 +163,11 @@ function UserCaseMessages({ caseId, userId, userType, lawyerId, clientUserId, on
   }, [caseId, fetchMessages, connectWebSocket]);
 
   useEffect(() => {
+    if (preserveScrollRef.current !== null && listRef.current) {
+      listRef.current.scrollTop = listRef.current.scrollHeight - preserveScrollRef.current;
+      preserveScrollRef.current = null;
+      return;
+    }
     scrollToBottom();
   }, [messages]);
 
@@ -197,9 +266,21 @@ function UserCaseMessages({ caseId, userId, userType, lawyerId, clientUserId, on
           }} />
           {connected ? 'Realtime Connected' : 'Disconnected'}
         </span>
+        {unreadElsewhere > 0 && (
+          <span style={{
+            fontSize: '12px',
+            fontWeight: '600',
+            color: '#fff',
+            padding: '4px 10px',
+            borderRadius: '20px',
+            backgroundColor: '#3498db'
+          }}>
+            {unreadElsewhere} unread in your cases
+          </span>
+        )}
       </div>
 
-      <div style={{
+      <div ref={listRef} onScroll={handleScroll} style={{
         flex: 1,
         overflowY: 'auto',
         marginBottom: '20px',
@@ -210,6 +291,11 @@ function UserCaseMessages({ caseId, userId, userType, lawyerId, clientUserId, on
         maxHeight: '400px',
         border: '1px solid #f0f0f0'
       }}>
+        {hasOlder && (
+          <div style={{ color: '#888', textAlign: 'center', fontSize: '12px', marginBottom: '12px' }}>
+            {loadingOlder ? 'Loading earlier messages...' : 'Scroll up for earlier messages'}
+          </div>
+        )}
         {messages.length === 0 ? (
           <div style={{ color: '#888', textAlign: 'center', padding: '40px 20px' }}>
             <p style={{ margin: 0 }}>No messages in this case yet.</p>
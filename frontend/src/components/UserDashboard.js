@@ -8,6 +8,8 @@ import CaseDetail from './CaseDetail';
 import { audioApi, casesApi } from '../utils/api';
 import './Dashboard.css';
 import { toast } from 'react-toastify';
+import { Client } from '@stomp/stompjs';
+import SockJS from 'sockjs-client';
 
 function UserDashboard() {
   const [isRecording, setIsRecording] = useState(false);
@@ -137,6 +139,56 @@ function UserDashboard() {
     }
   };
 
+  // Uploads are processed in the background. The server pushes the finished job to
+  // /user/queue/audio-jobs; a slow poll covers a missed push or a dropped connection.
+  const waitForAudioJob = (jobId) => new Promise((resolve, reject) => {
+    const isFinished = (job) => job.status === 'completed' || job.status === 'failed';
+    const protocol = window.location.protocol === 'https:' ? 'https:' : 'http:';
+    const token = localStorage.getItem('token');
+    let done = false;
+    let timer = null;
+
+    const client = new Client({
+      webSocketFactory: () => new SockJS(`${protocol}//${window.location.hostname}:8080/ws`),
+      connectHeaders: token ? { Authorization: `Bearer ${token}` } : {},
+      reconnectDelay: 5000,
+    });
+    const finish = (settle, value) => {
+      if (done) return;
+      done = true;
+      clearTimeout(timer);
+      client.deactivate();
+      settle(value);
+    };
+    client.onConnect = () => {
+      client.subscribe('/user/queue/audio-jobs', (message) => {
+        try {
+          const job = JSON.parse(message.body);
+          if (job.jobId === jobId && isFinished(job)) finish(resolve, job);
+        } catch (e) {
+          console.error('Error parsing audio job update:', e);
+        }
+      });
+    };
+
+    const poll = async () => {
+      try {
+        const { data: job } = await audioApi.getJob(jobId);
+        if (isFinished(job)) {
+          finish(resolve, job);
+          return;
+        }
+      } catch (err) {
+        finish(reject, err);
+        return;
+      }
+      if (!done) timer = setTimeout(poll, token ? 10000 : 2000);
+    };
+
+    if (token) client.activate();
+    poll();
+  });
+
   const handleUpload = async () => {
     if (!audioBlob || !userId) return;
 
@@ -151,13 +203,15 @@ function UserDashboard() {
 
     try {
       const response = await audioApi.upload(formData, userId);
-      const data = response.data;
+      const job = await waitForAudioJob(response.data.jobId);
+      if (job.status === 'failed') {
+        throw new Error(job.error || 'Audio processing failed');
+      }
+      const { data } = await audioApi.getById(job.audioId, { includeAudio: false });
       setResult(data);
 
-      if (data.maskedTextAudioBase64) {
-        const base64String = data.maskedTextAudioBase64.replace(/^data:audio\/\w+;base64,/, '');
-        setAudioUrl(`data:audio/mpeg;base64,${base64String}`);
-      }
+      // The player streams (and seeks in) the clip instead of decoding Base64 from the JSON
+      setAudioUrl(audioApi.audioUrl(job.audioId, 'en'));
 
       toast.success('Audio processed and Case created!');
 
@@ -33,8 +33,11 @@ export const audioApi = {
             params: userId ? { userId } : {},
         });
     },
-    getAll: () => api.get('/audio/all'),
-    getById: (id) => api.get(`/audio/${id}`),
+    getJob: (jobId) => api.get(`/audio/jobs/${jobId}`),
+    getAll: (params = {}) => api.get('/audio/all', { params }),
+    getById: (id, params = {}) => api.get(`/audio/${id}`, { params }),
+    // Streamed per record; lang is 'en' or 'gu'
+    audioUrl: (id, lang) => `${API_BASE_URL}/audio/${id}/${lang === 'gu' ? 'gujarati' : 'english'}.mp3`,
 };
 
 export const casesApi = {
@@ -52,12 +55,15 @@ export const casesApi = {
 export const lawyersApi = {
     getProfile: (lawyerId) => api.get(`/lawyers/${lawyerId}/profile`),
     updateProfile: (lawyerId, profileData) => api.put(`/lawyers/${lawyerId}/profile`, profileData),
+    getRequestTopics: (lawyerId) => api.get(`/lawyers/${lawyerId}/request-topics`),
 };
 
 export const messagesApi = {
     send: (messageData) => api.post('/messages/send', messageData),
     getByCase: (caseId) => api.get(`/messages/case/${caseId}`),
+    getPage: (caseId, params = {}) => api.get(`/messages/case/${caseId}/page`, { params }),
     markRead: (messageId) => api.put(`/messages/${messageId}/read`),
+    markCaseRead: (caseId, upTo) => api.put(`/messages/case/${caseId}/read`, null, { params: upTo ? { upTo } : {} }),
 };
 
 export default api;